@@ -0,0 +1,121 @@
+package com.book.app.aop.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Aspect timing the execution of service, repository and Web REST methods, in every profile.
+ * <p>
+ * It advises the same join points as the {@link com.book.app.aop.logging.LoggingAspect}, and records them in the
+ * {@code books.method} timer, tagged with the class, the method and the outcome. The class is the type of the bean, not
+ * the one declaring the method: the methods which the repositories inherit from {@code JpaRepository} are timed per
+ * repository interface. The timers and the signature of each method of a bean are resolved on its first call only, so
+ * that a call costs two {@link System#nanoTime()} and a timer update.
+ * A sample of the calls slower than {@code application.timing.slow-threshold} is logged, with the signature of the method
+ * but not the values of its arguments: the aspect runs in every profile, and arguments such as passwords and reset keys
+ * must not reach the production logs.
+ */
+@Aspect
+public class TimingAspect {
+
+    private static final String METRIC_NAME = "books.method";
+
+    private final Logger log = LoggerFactory.getLogger(TimingAspect.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowThresholdNanos;
+
+    private final double slowCallSampleRate;
+
+    private final Map<TimerKey, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public TimingAspect(MeterRegistry meterRegistry, Duration slowThreshold, double slowCallSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowCallSampleRate = slowCallSampleRate;
+    }
+
+    /**
+     * Advice that times a method.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception thrown by the method.
+     */
+    @Around(
+        "com.book.app.aop.logging.LoggingAspect.applicationPackagePointcut() && com.book.app.aop.logging.LoggingAspect.springBeanPointcut()"
+    )
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object target = joinPoint.getTarget();
+        TimerKey key = new TimerKey(target.getClass(), ((MethodSignature) joinPoint.getSignature()).getMethod());
+        MethodTimers methodTimers = timers.computeIfAbsent(key, k -> createTimers(target, k.method()));
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = joinPoint.proceed();
+            success = true;
+            return result;
+        } finally {
+            long duration = System.nanoTime() - start;
+            (success ? methodTimers.success() : methodTimers.failure()).record(duration, TimeUnit.NANOSECONDS);
+            if (duration > slowThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowCallSampleRate) {
+                log.warn("Slow call: {} took {} ms", methodTimers.signature(), TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+        }
+    }
+
+    private MethodTimers createTimers(Object target, Method method) {
+        String className = beanType(target).getSimpleName();
+        StringJoiner parameterTypes = new StringJoiner(", ", "(", ")");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            parameterTypes.add(parameterType.getSimpleName());
+        }
+        return new MethodTimers(
+            className + "." + method.getName() + parameterTypes,
+            timer(className, method.getName(), "success"),
+            timer(className, method.getName(), "failure")
+        );
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer
+            .builder(METRIC_NAME)
+            .description("Execution time of service, repository and Web REST methods")
+            .tag("class", className)
+            .tag("method", methodName)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * The Spring Data repositories are JDK proxies of their interface, the other beans are instances of their class,
+     * or of a CGLIB subclass of it.
+     */
+    private static Class<?> beanType(Object target) {
+        if (Proxy.isProxyClass(target.getClass())) {
+            return AopProxyUtils.proxiedUserInterfaces(target)[0];
+        }
+        return ClassUtils.getUserClass(target);
+    }
+
+    private record TimerKey(Class<?> targetClass, Method method) {}
+
+    private record MethodTimers(String signature, Timer success, Timer failure) {}
+}
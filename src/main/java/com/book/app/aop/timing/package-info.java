@@ -0,0 +1,4 @@
+/**
+ * Timing aspect.
+ */
+package com.book.app.aop.timing;
@@ -2,13 +2,19 @@ package com.book.app.broker;
 
 import static org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event;
 
+import com.book.app.config.ApplicationProperties;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -18,34 +24,90 @@ public class KafkaConsumer implements Consumer<String> {
 
     private final Logger log = LoggerFactory.getLogger(KafkaConsumer.class);
 
-    private Map<String, SseEmitter> emitters = new HashMap<>();
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    private final TaskExecutor sseExecutor;
+
+    private final int clientQueueCapacity;
+
+    public KafkaConsumer(@Qualifier("sseExecutor") TaskExecutor sseExecutor, ApplicationProperties applicationProperties) {
+        this.sseExecutor = sseExecutor;
+        this.clientQueueCapacity = applicationProperties.getSse().getClientQueueCapacity();
+    }
 
     public SseEmitter register(String key) {
         log.debug("Registering sse client for {}", key);
         SseEmitter emitter = new SseEmitter();
-        emitter.onCompletion(() -> emitters.remove(key));
-        emitters.put(key, emitter);
+        emitter.onCompletion(() -> clients.remove(key));
+        clients.put(key, new Client(emitter, clientQueueCapacity));
         return emitter;
     }
 
     public void unregister(String key) {
         log.debug("Unregistering sse emitter for: {}", key);
-        Optional.ofNullable(emitters.get(key)).ifPresent(SseEmitter::complete);
+        Optional.ofNullable(clients.get(key)).ifPresent(client -> client.emitter.complete());
     }
 
     @Override
     public void accept(String input) {
         log.debug("Got message from kafka stream: {}", input);
-        emitters
-            .entrySet()
-            .stream()
-            .map(Map.Entry::getValue)
-            .forEach((SseEmitter emitter) -> {
-                try {
-                    emitter.send(event().data(input, MediaType.TEXT_PLAIN));
-                } catch (IOException e) {
-                    log.debug("error sending sse message, {}", input);
-                }
-            });
+        clients.forEach((key, client) -> {
+            if (client.pending.offer(input)) {
+                schedule(client);
+            } else {
+                // a client too slow to keep up reconnects, rather than holding the messages in memory
+                log.warn("Closing sse client {}, {} messages behind", key, clientQueueCapacity);
+                clients.remove(key, client);
+                client.pending.clear();
+                client.emitter.complete();
+            }
+        });
+    }
+
+    /**
+     * Starts a task writing the pending messages of a client, unless one is already writing them: the messages of a
+     * client are written in order, by one task at a time, while the clients are written to in parallel.
+     */
+    private void schedule(Client client) {
+        if (client.draining.compareAndSet(false, true)) {
+            sseExecutor.execute(() -> drain(client));
+        }
+    }
+
+    private void drain(Client client) {
+        try {
+            String input;
+            while ((input = client.pending.poll()) != null) {
+                send(client.emitter, input);
+            }
+        } finally {
+            client.draining.set(false);
+        }
+        // a message added after the last poll, but before the flag was reset
+        if (!client.pending.isEmpty()) {
+            schedule(client);
+        }
+    }
+
+    private void send(SseEmitter emitter, String input) {
+        try {
+            emitter.send(event().data(input, MediaType.TEXT_PLAIN));
+        } catch (IOException e) {
+            log.debug("error sending sse message, {}", input);
+        }
+    }
+
+    private static final class Client {
+
+        private final SseEmitter emitter;
+
+        private final Queue<String> pending;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Client(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        }
     }
 }
@@ -0,0 +1,111 @@
+package com.book.app.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Adjusts the maximum size of the Hikari pools, within {@code application.datasource.adaptive-sizing}, from the
+ * time spent waiting for a connection.
+ * <p>
+ * At each interval, the mean of the {@code hikaricp.connections.acquire} timer since the previous interval is
+ * compared to the target acquire time: a pool waiting longer, or with threads still waiting, is grown by one step; a
+ * pool that waited less than a quarter of the target, with at most half of its connections in use, is shrunk by one
+ * step. Hikari retires the idle connections over the new maximum once they exceed {@code minimum-idle}, which should
+ * therefore be lower than the pool size.
+ */
+public class AdaptivePoolSizeController {
+
+    private static final String ACQUIRE_METRIC_NAME = "hikaricp.connections.acquire";
+
+    private final Logger log = LoggerFactory.getLogger(AdaptivePoolSizeController.class);
+
+    private final ApplicationProperties.Datasource.AdaptiveSizing properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<HikariDataSource> pools;
+
+    private final Map<String, AcquireSample> previousSamples = new ConcurrentHashMap<>();
+
+    public AdaptivePoolSizeController(
+        ApplicationProperties.Datasource.AdaptiveSizing properties,
+        MeterRegistry meterRegistry,
+        List<DataSource> dataSources
+    ) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.pools = dataSources
+            .stream()
+            .map(dataSource -> DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class))
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.adaptive-sizing.interval:PT30S}")
+    public void adjustPoolSizes() {
+        pools.forEach(this::adjustPoolSize);
+    }
+
+    /**
+     * Adjust the maximum size of a pool from the connections acquired since the previous call.
+     *
+     * @param pool the pool.
+     * @return the new maximum size of the pool.
+     */
+    int adjustPoolSize(HikariDataSource pool) {
+        HikariPoolMXBean poolMXBean = pool.getHikariPoolMXBean();
+        Timer acquireTimer = meterRegistry.find(ACQUIRE_METRIC_NAME).tag("pool", pool.getPoolName()).timer();
+        int currentSize = pool.getMaximumPoolSize();
+        if (poolMXBean == null || acquireTimer == null) {
+            // the pool is not started yet
+            return currentSize;
+        }
+        AcquireSample sample = new AcquireSample(acquireTimer.count(), acquireTimer.totalTime(TimeUnit.NANOSECONDS));
+        AcquireSample previousSample = previousSamples.put(pool.getPoolName(), sample);
+        if (previousSample == null) {
+            return currentSize;
+        }
+
+        long acquired = sample.count() - previousSample.count();
+        double meanAcquireNanos = acquired > 0 ? (sample.totalNanos() - previousSample.totalNanos()) / acquired : 0;
+        long targetNanos = properties.getTargetAcquireTime().toNanos();
+        int newSize = currentSize;
+        if (meanAcquireNanos > targetNanos || poolMXBean.getThreadsAwaitingConnection() > 0) {
+            newSize = Math.min(currentSize + properties.getStep(), properties.getMaxPoolSize());
+        } else if (meanAcquireNanos < targetNanos / 4.0 && poolMXBean.getActiveConnections() <= currentSize / 2) {
+            newSize = Math.max(currentSize - properties.getStep(), properties.getMinPoolSize());
+        }
+        if (newSize != currentSize) {
+            log.info(
+                "Resizing pool {} from {} to {} connections (mean acquire time {} ms, {} threads waiting)",
+                pool.getPoolName(),
+                currentSize,
+                newSize,
+                TimeUnit.NANOSECONDS.toMillis((long) meanAcquireNanos),
+                poolMXBean.getThreadsAwaitingConnection()
+            );
+            HikariConfigMXBean configMXBean = pool.getHikariConfigMXBean();
+            if (configMXBean.getMinimumIdle() > newSize) {
+                configMXBean.setMinimumIdle(newSize);
+            }
+            configMXBean.setMaximumPoolSize(newSize);
+        }
+        return newSize;
+    }
+
+    private record AcquireSample(long count, double totalNanos) {}
+}
@@ -1,6 +1,9 @@
 package com.book.app.config;
 
+import com.book.app.config.InstrumentedThreadPoolTaskExecutor.RejectionPolicy;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Books.
@@ -10,7 +13,1121 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Jobs jobs = new Jobs();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final Executors executors = new Executors();
+
+    private final Mail mail = new Mail();
+
+    private final Timing timing = new Timing();
+
+    private final Logging logging = new Logging();
+
+    private final SqlBudget sqlBudget = new SqlBudget();
+
+    private final Datasource datasource = new Datasource();
+
+    private final Spa spa = new Spa();
+
+    private final StaticAssets staticAssets = new StaticAssets();
+
+    private final Query query = new Query();
+
+    private final Undertow undertow = new Undertow();
+
+    private final Sse sse = new Sse();
+
     // jhipster-needle-application-properties-property
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Executors getExecutors() {
+        return executors;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Timing getTiming() {
+        return timing;
+    }
+
+    public Logging getLogging() {
+        return logging;
+    }
+
+    public SqlBudget getSqlBudget() {
+        return sqlBudget;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public Spa getSpa() {
+        return spa;
+    }
+
+    public StaticAssets getStaticAssets() {
+        return staticAssets;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public Undertow getUndertow() {
+        return undertow;
+    }
+
+    public Sse getSse() {
+        return sse;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Jobs {
+
+        /**
+         * Number of rows deleted per transaction by the scheduled cleanup jobs.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Upper bound of the cluster lock lease, released earlier when the job completes.
+         */
+        private Duration lockAtMostFor = Duration.ofMinutes(30);
+
+        /**
+         * Minimum time the cluster lock is kept, so replicas with a slightly skewed clock do not run the job again.
+         */
+        private Duration lockAtLeastFor = Duration.ofMinutes(1);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getLockAtMostFor() {
+            return lockAtMostFor;
+        }
+
+        public void setLockAtMostFor(Duration lockAtMostFor) {
+            this.lockAtMostFor = lockAtMostFor;
+        }
+
+        public Duration getLockAtLeastFor() {
+            return lockAtLeastFor;
+        }
+
+        public void setLockAtLeastFor(Duration lockAtLeastFor) {
+            this.lockAtLeastFor = lockAtLeastFor;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * Virtual threads pinned to their carrier thread for longer than this are reported.
+         */
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+
+        public Duration getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        public void setPinnedThreshold(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+    }
+
+    public static class Executors {
+
+        /**
+         * Rejection policy of the default {@code taskExecutor}, sized by {@code spring.task.execution.pool}.
+         */
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+        /**
+         * Pool running the e-mails sent by {@link com.book.app.service.MailService}, isolated from the other background work.
+         */
+        private final Pool mail = new Pool();
+
+        /**
+         * Pool rendering the e-mail templates of bulk sends, which is CPU bound: size it after the number of cores.
+         */
+        private final Pool mailRender = new Pool();
+
+        /**
+         * Pool running the count queries of pages in parallel with their content: each task holds a database connection.
+         */
+        private final Pool query = new Pool();
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public Pool getMail() {
+            return mail;
+        }
+
+        public Pool getMailRender() {
+            return mailRender;
+        }
+
+        public Pool getQuery() {
+            return query;
+        }
+
+        public static class Pool {
+
+            private int coreSize = 4;
+
+            private int maxSize = 4;
+
+            private int queueCapacity = 500;
+
+            private Duration keepAlive = Duration.ofSeconds(60);
+
+            private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+            public int getCoreSize() {
+                return coreSize;
+            }
+
+            public void setCoreSize(int coreSize) {
+                this.coreSize = coreSize;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getKeepAlive() {
+                return keepAlive;
+            }
+
+            public void setKeepAlive(Duration keepAlive) {
+                this.keepAlive = keepAlive;
+            }
+
+            public RejectionPolicy getRejectionPolicy() {
+                return rejectionPolicy;
+            }
+
+            public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+                this.rejectionPolicy = rejectionPolicy;
+            }
+        }
+    }
+
+    public static class Mail {
+
+        private final Outbox outbox = new Outbox();
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public static class Outbox {
+
+            /**
+             * Queue the e-mails in the {@code jhi_mail_outbox} table and send them in batches, instead of one SMTP session per e-mail.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Delay between two polls of the outbox.
+             */
+            private Duration pollInterval = Duration.ofSeconds(5);
+
+            /**
+             * Number of e-mails sent in one SMTP session.
+             */
+            private int batchSize = 50;
+
+            /**
+             * Number of SMTP sessions opened in parallel by each node, bounded by the {@code mailExecutor} pool.
+             */
+            private int concurrency = 4;
+
+            /**
+             * Number of attempts before an e-mail is marked as failed.
+             */
+            private int maxAttempts = 5;
+
+            /**
+             * Delay before the first retry, doubled on each following attempt.
+             */
+            private Duration initialBackoff = Duration.ofSeconds(30);
+
+            private Duration maxBackoff = Duration.ofHours(1);
+
+            /**
+             * How long a batch stays claimed by a node, after which another node may send it again.
+             */
+            private Duration claimTimeout = Duration.ofMinutes(5);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(Duration pollInterval) {
+                this.pollInterval = pollInterval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getConcurrency() {
+                return concurrency;
+            }
+
+            public void setConcurrency(int concurrency) {
+                this.concurrency = concurrency;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public Duration getInitialBackoff() {
+                return initialBackoff;
+            }
+
+            public void setInitialBackoff(Duration initialBackoff) {
+                this.initialBackoff = initialBackoff;
+            }
+
+            public Duration getMaxBackoff() {
+                return maxBackoff;
+            }
+
+            public void setMaxBackoff(Duration maxBackoff) {
+                this.maxBackoff = maxBackoff;
+            }
+
+            public Duration getClaimTimeout() {
+                return claimTimeout;
+            }
+
+            public void setClaimTimeout(Duration claimTimeout) {
+                this.claimTimeout = claimTimeout;
+            }
+        }
+    }
+
+    public static class Timing {
+
+        /**
+         * Time the service, repository and Web REST methods in the {@code books.method} timer.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Calls slower than this are logged, with their signature but not their arguments, when sampled.
+         */
+        private Duration slowThreshold = Duration.ofMillis(500);
+
+        /**
+         * Fraction of the slow calls which are logged.
+         */
+        private double slowCallSampleRate = 0.1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public double getSlowCallSampleRate() {
+            return slowCallSampleRate;
+        }
+
+        public void setSlowCallSampleRate(double slowCallSampleRate) {
+            this.slowCallSampleRate = slowCallSampleRate;
+        }
+    }
+
+    public static class Logging {
+
+        private final Async async = new Async();
+
+        private final File file = new File();
+
+        public Async getAsync() {
+            return async;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public static class Async {
+
+            /**
+             * Write the console logs from a background thread, request threads only enqueue the events.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Capacity of the queue of each async appender.
+             */
+            private int queueSize = 8192;
+
+            private DiscardPolicy discardPolicy = DiscardPolicy.DISCARD_INFO;
+
+            /**
+             * Capture the caller class and line of each event, which is expensive.
+             */
+            private boolean includeCallerData = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getQueueSize() {
+                return queueSize;
+            }
+
+            public void setQueueSize(int queueSize) {
+                this.queueSize = queueSize;
+            }
+
+            public DiscardPolicy getDiscardPolicy() {
+                return discardPolicy;
+            }
+
+            public void setDiscardPolicy(DiscardPolicy discardPolicy) {
+                this.discardPolicy = discardPolicy;
+            }
+
+            public boolean isIncludeCallerData() {
+                return includeCallerData;
+            }
+
+            public void setIncludeCallerData(boolean includeCallerData) {
+                this.includeCallerData = includeCallerData;
+            }
+        }
+
+        /**
+         * What to do with the log events when the queue of an async appender is full.
+         */
+        public enum DiscardPolicy {
+            /**
+             * Never drop events: the logging thread waits for room in the queue.
+             */
+            BLOCK,
+            /**
+             * Drop the TRACE, DEBUG and INFO events once the queue is 80% full, wait for room for the others.
+             */
+            DISCARD_INFO,
+            /**
+             * Like {@code DISCARD_INFO}, and drop any event when the queue is full instead of waiting.
+             */
+            NEVER_BLOCK,
+        }
+
+        public static class File {
+
+            /**
+             * Also write the logs to a local rolling file, which keeps them when Logstash is not reachable.
+             */
+            private boolean enabled = false;
+
+            private String path = "logs/books.log";
+
+            private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+            /**
+             * Number of days of rolled files to keep.
+             */
+            private int maxHistory = 7;
+
+            private DataSize totalSizeCap = DataSize.ofGigabytes(2);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+
+            public DataSize getMaxFileSize() {
+                return maxFileSize;
+            }
+
+            public void setMaxFileSize(DataSize maxFileSize) {
+                this.maxFileSize = maxFileSize;
+            }
+
+            public int getMaxHistory() {
+                return maxHistory;
+            }
+
+            public void setMaxHistory(int maxHistory) {
+                this.maxHistory = maxHistory;
+            }
+
+            public DataSize getTotalSizeCap() {
+                return totalSizeCap;
+            }
+
+            public void setTotalSizeCap(DataSize totalSizeCap) {
+                this.totalSizeCap = totalSizeCap;
+            }
+        }
+    }
+
+    public static class SqlBudget {
+
+        /**
+         * Record the SQL statements executed by each HTTP request.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of SQL statements an HTTP request may execute.
+         */
+        private int maxStatements = 50;
+
+        /**
+         * A request executing the same SQL this many times is logged as a possible N+1 select.
+         */
+        private int repeatedStatementThreshold = 10;
+
+        private Mode mode = Mode.WARN;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxStatements() {
+            return maxStatements;
+        }
+
+        public void setMaxStatements(int maxStatements) {
+            this.maxStatements = maxStatements;
+        }
+
+        public int getRepeatedStatementThreshold() {
+            return repeatedStatementThreshold;
+        }
+
+        public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+            this.repeatedStatementThreshold = repeatedStatementThreshold;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        /**
+         * What to do when a request exceeds its statement budget.
+         */
+        public enum Mode {
+            /**
+             * Log the request, and count it in {@code books.sql.budget.exceeded}.
+             */
+            WARN,
+            /**
+             * Fail the statement over the budget with a {@link com.book.app.jdbc.SqlBudgetExceededException}.
+             */
+            FAIL,
+        }
+    }
+    public static class Datasource {
+
+        private final Read read = new Read();
+
+        private final AdaptiveSizing adaptiveSizing = new AdaptiveSizing();
+
+        public Read getRead() {
+            return read;
+        }
+
+        public AdaptiveSizing getAdaptiveSizing() {
+            return adaptiveSizing;
+        }
+
+        /**
+         * Pool of read-only connections, typically on a replica, next to the write pool configured in
+         * {@code spring.datasource.hikari}.
+         */
+        public static class Read {
+
+            private boolean enabled = false;
+
+            /**
+             * JDBC URL of the read pool, typically a replica; defaults to {@code spring.datasource.url}.
+             */
+            private String url;
+
+            /**
+             * Defaults to {@code spring.datasource.username}.
+             */
+            private String username;
+
+            /**
+             * Defaults to {@code spring.datasource.password}.
+             */
+            private String password;
+
+            private int maximumPoolSize = 10;
+
+            private int minimumIdle = 2;
+
+            private Duration connectionTimeout = Duration.ofSeconds(30);
+
+            private Duration idleTimeout = Duration.ofMinutes(10);
+
+            private Duration maxLifetime = Duration.ofMinutes(30);
+
+            /**
+             * Read-only transactions go to the primary while the replica lags more than this.
+             */
+            private Duration maxLag = Duration.ofSeconds(5);
+
+            private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+            /**
+             * Query returning the replication lag of the read pool in seconds; 0 on a PostgreSQL primary.
+             */
+            private String lagQuery =
+                "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0" +
+                " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+            /**
+             * Read-only transactions of a user go to the primary for this long after the user's last write; longer
+             * than {@code maxLag}.
+             */
+            private Duration readYourWritesWindow = Duration.ofSeconds(10);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public int getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(int maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+
+            public int getMinimumIdle() {
+                return minimumIdle;
+            }
+
+            public void setMinimumIdle(int minimumIdle) {
+                this.minimumIdle = minimumIdle;
+            }
+
+            public Duration getConnectionTimeout() {
+                return connectionTimeout;
+            }
+
+            public void setConnectionTimeout(Duration connectionTimeout) {
+                this.connectionTimeout = connectionTimeout;
+            }
+
+            public Duration getIdleTimeout() {
+                return idleTimeout;
+            }
+
+            public void setIdleTimeout(Duration idleTimeout) {
+                this.idleTimeout = idleTimeout;
+            }
+
+            public Duration getMaxLifetime() {
+                return maxLifetime;
+            }
+
+            public void setMaxLifetime(Duration maxLifetime) {
+                this.maxLifetime = maxLifetime;
+            }
+
+            public Duration getMaxLag() {
+                return maxLag;
+            }
+
+            public void setMaxLag(Duration maxLag) {
+                this.maxLag = maxLag;
+            }
+
+            public Duration getLagCheckInterval() {
+                return lagCheckInterval;
+            }
+
+            public void setLagCheckInterval(Duration lagCheckInterval) {
+                this.lagCheckInterval = lagCheckInterval;
+            }
+
+            public String getLagQuery() {
+                return lagQuery;
+            }
+
+            public void setLagQuery(String lagQuery) {
+                this.lagQuery = lagQuery;
+            }
+
+            public Duration getReadYourWritesWindow() {
+                return readYourWritesWindow;
+            }
+
+            public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+                this.readYourWritesWindow = readYourWritesWindow;
+            }
+        }
+
+        /**
+         * Adjusts the maximum size of each pool from the time spent waiting for a connection.
+         */
+        public static class AdaptiveSizing {
+
+            private boolean enabled = false;
+
+            private Duration interval = Duration.ofSeconds(30);
+
+            /**
+             * A pool whose mean acquire time is above this value, or with threads waiting, is grown.
+             */
+            private Duration targetAcquireTime = Duration.ofMillis(10);
+
+            private int minPoolSize = 5;
+
+            private int maxPoolSize = 40;
+
+            /**
+             * Connections added to or removed from the maximum pool size at each adjustment.
+             */
+            private int step = 2;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+
+            public Duration getTargetAcquireTime() {
+                return targetAcquireTime;
+            }
+
+            public void setTargetAcquireTime(Duration targetAcquireTime) {
+                this.targetAcquireTime = targetAcquireTime;
+            }
+
+            public int getMinPoolSize() {
+                return minPoolSize;
+            }
+
+            public void setMinPoolSize(int minPoolSize) {
+                this.minPoolSize = minPoolSize;
+            }
+
+            public int getMaxPoolSize() {
+                return maxPoolSize;
+            }
+
+            public void setMaxPoolSize(int maxPoolSize) {
+                this.maxPoolSize = maxPoolSize;
+            }
+
+            public int getStep() {
+                return step;
+            }
+
+            public void setStep(int step) {
+                this.step = step;
+            }
+        }
+    }
+
+    public static class Spa {
+
+        /**
+         * Serve the client {@code index.html} from a copy in memory, rather than forwarding to the static resource handler.
+         */
+        private boolean indexInMemory = false;
+
+        public boolean isIndexInMemory() {
+            return indexInMemory;
+        }
+
+        public void setIndexInMemory(boolean indexInMemory) {
+            this.indexInMemory = indexInMemory;
+        }
+    }
+
+    public static class StaticAssets {
+
+        /**
+         * Larger assets are not kept in memory, and are served from the classpath without compression.
+         */
+        private DataSize maxFileSize = DataSize.ofMegabytes(4);
+
+        /**
+         * Memory for the assets and their compressed variants, beyond which the assets are served from the classpath.
+         */
+        private DataSize maxTotalSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Compressible assets smaller than this, without a precompressed variant from the build, are not compressed.
+         */
+        private DataSize minCompressSize = DataSize.ofKilobytes(1);
+
+        public DataSize getMaxFileSize() {
+            return maxFileSize;
+        }
+
+        public void setMaxFileSize(DataSize maxFileSize) {
+            this.maxFileSize = maxFileSize;
+        }
+
+        public DataSize getMaxTotalSize() {
+            return maxTotalSize;
+        }
+
+        public void setMaxTotalSize(DataSize maxTotalSize) {
+            this.maxTotalSize = maxTotalSize;
+        }
+
+        public DataSize getMinCompressSize() {
+            return minCompressSize;
+        }
+
+        public void setMinCompressSize(DataSize minCompressSize) {
+            this.minCompressSize = minCompressSize;
+        }
+    }
+
+    public static class Query {
+
+        /**
+         * Run the count query of a page in parallel with its content, in its own read-only transaction. Requires the
+         * read pool, see application.datasource.read.enabled.
+         */
+        private boolean parallelCount = false;
+
+        /**
+         * Maximum wait for a query run in parallel to start, after which the calling thread takes it back and runs it
+         * itself. A query which started is waited for.
+         */
+        private Duration forkTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Timeout of the statements of a query run in parallel, the timeout of its transaction.
+         */
+        private Duration forkQueryTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Width of the price buckets of the book facets.
+         */
+        private double priceBucketWidth = 10;
+
+        /**
+         * Number of authors with the most books returned by the book facets.
+         */
+        private int authorFacetSize = 20;
+
+        private final Snapshot snapshot = new Snapshot();
+
+        private final Streaming streaming = new Streaming();
+
+        public boolean isParallelCount() {
+            return parallelCount;
+        }
+
+        public void setParallelCount(boolean parallelCount) {
+            this.parallelCount = parallelCount;
+        }
+
+        public Duration getForkTimeout() {
+            return forkTimeout;
+        }
+
+        public void setForkTimeout(Duration forkTimeout) {
+            this.forkTimeout = forkTimeout;
+        }
+
+        public Duration getForkQueryTimeout() {
+            return forkQueryTimeout;
+        }
+
+        public void setForkQueryTimeout(Duration forkQueryTimeout) {
+            this.forkQueryTimeout = forkQueryTimeout;
+        }
+
+        public double getPriceBucketWidth() {
+            return priceBucketWidth;
+        }
+
+        public void setPriceBucketWidth(double priceBucketWidth) {
+            this.priceBucketWidth = priceBucketWidth;
+        }
+
+        public int getAuthorFacetSize() {
+            return authorFacetSize;
+        }
+
+        public void setAuthorFacetSize(int authorFacetSize) {
+            this.authorFacetSize = authorFacetSize;
+        }
+
+        public Snapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public Streaming getStreaming() {
+            return streaming;
+        }
+
+        public static class Snapshot {
+
+            /**
+             * Answer the book criteria from an in-memory snapshot of the catalog, see CatalogSnapshot.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Interval between the reloads of the snapshot, which catch up with the changes of the other instances.
+             */
+            private Duration reloadInterval = Duration.ofMinutes(5);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getReloadInterval() {
+                return reloadInterval;
+            }
+
+            public void setReloadInterval(Duration reloadInterval) {
+                this.reloadInterval = reloadInterval;
+            }
+        }
+
+        public static class Streaming {
+
+            /**
+             * Write the large pages of the list endpoints as their rows are read, see JsonPageWriter.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Smallest page size written as its rows are read; the smaller pages are read, then written.
+             */
+            private int minPageSize = 500;
+
+            /**
+             * Number of rows fetched from the database at a time, and written to the client at a time.
+             */
+            private int chunkSize = 100;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMinPageSize() {
+                return minPageSize;
+            }
+
+            public void setMinPageSize(int minPageSize) {
+                this.minPageSize = minPageSize;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+        }
+    }
+
+    public static class Undertow {
+
+        /**
+         * Requests handled at once, see UndertowConfiguration; the others wait in the request queue. 0 for no limit.
+         */
+        private int maxConcurrentRequests = 0;
+
+        /**
+         * Requests waiting for one of the concurrent requests to end; the requests beyond are answered with
+         * {@code 503 (Service Unavailable)}. 0 to answer them at once.
+         */
+        private int requestQueueSize = 1000;
+
+        /**
+         * Open connections per listener, beyond which the new connections are no longer accepted until some close.
+         * 0 for no limit.
+         */
+        private int maxConnections = 0;
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public int getRequestQueueSize() {
+            return requestQueueSize;
+        }
+
+        public void setRequestQueueSize(int requestQueueSize) {
+            this.requestQueueSize = requestQueueSize;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+    }
+
+    public static class Sse {
+
+        /**
+         * Messages waiting to be written to an SSE client, beyond which the client is closed, see KafkaConsumer.
+         */
+        private int clientQueueCapacity = 1000;
+
+        public int getClientQueueCapacity() {
+            return clientQueueCapacity;
+        }
+
+        public void setClientQueueCapacity(int clientQueueCapacity) {
+            this.clientQueueCapacity = clientQueueCapacity;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,20 +1,36 @@
 package com.book.app.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 
+/**
+ * Configures the {@code @Async} and SSE executors.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} on Java 21+, tasks run on virtual threads instead of
+ * the platform thread pool configured by {@code spring.task.execution.pool}.
+ * <p>
+ * The platform thread pools are instrumented (see {@link InstrumentedThreadPoolTaskExecutor}) and apply the
+ * rejection policy configured in {@code application.executors} once their queue is full.
+ */
 @Configuration
 @EnableAsync
 @EnableScheduling
@@ -25,15 +41,40 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties.Executors executorsProperties;
+
+    private final Environment environment;
+
+    private final MeterRegistry meterRegistry;
+
+    public AsyncConfiguration(
+        TaskExecutionProperties taskExecutionProperties,
+        ApplicationProperties applicationProperties,
+        Environment environment,
+        MeterRegistry meterRegistry
+    ) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.executorsProperties = applicationProperties.getExecutors();
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.debug("Creating Async Task Executor on virtual threads");
+            return virtualThreadExecutor(
+                taskExecutionProperties.getThreadNamePrefix(),
+                taskExecutionProperties.getSimple().getConcurrencyLimit()
+            );
+        }
         log.debug("Creating Async Task Executor");
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        InstrumentedThreadPoolTaskExecutor executor = new InstrumentedThreadPoolTaskExecutor(
+            "taskExecutor",
+            meterRegistry,
+            executorsProperties.getRejectionPolicy()
+        );
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
         executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
         executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
@@ -41,6 +82,117 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor of the e-mails sent by {@link com.book.app.service.MailService}, unless they are queued in the outbox.
+     * <p>
+     * E-mails wait on the SMTP server, so they get their own bounded pool: a burst of e-mails does not
+     * delay the other background tasks, and the other tasks do not delay the e-mails.
+     *
+     * @return the mail executor.
+     */
+    @Bean(name = "mailExecutor")
+    public Executor mailExecutor() {
+        ApplicationProperties.Executors.Pool pool = executorsProperties.getMail();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualThreadExecutor("books-mail-", pool.getMaxSize());
+        }
+        InstrumentedThreadPoolTaskExecutor executor = new InstrumentedThreadPoolTaskExecutor(
+            "mailExecutor",
+            meterRegistry,
+            pool.getRejectionPolicy()
+        );
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("books-mail-");
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
+    /**
+     * Executor rendering the e-mail templates of bulk sends in parallel, see {@link com.book.app.service.MailTemplateRenderer}.
+     * <p>
+     * Rendering is CPU bound, so this pool stays on platform threads in virtual-thread mode.
+     *
+     * @return the mail rendering executor.
+     */
+    @Bean(name = "mailRenderExecutor")
+    public Executor mailRenderExecutor() {
+        ApplicationProperties.Executors.Pool pool = executorsProperties.getMailRender();
+        InstrumentedThreadPoolTaskExecutor executor = new InstrumentedThreadPoolTaskExecutor(
+            "mailRenderExecutor",
+            meterRegistry,
+            pool.getRejectionPolicy()
+        );
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("books-mail-render-");
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
+    /**
+     * Executor of the count queries run in parallel with the content of a page, see
+     * {@link com.book.app.service.query.PageQueryExecutor}.
+     * <p>
+     * Each task holds a database connection while it runs, so the pool must stay below the size of the connection pool.
+     *
+     * @return the query executor.
+     */
+    @Bean(name = "queryExecutor")
+    public Executor queryExecutor() {
+        ApplicationProperties.Executors.Pool pool = executorsProperties.getQuery();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualThreadExecutor("books-query-", pool.getMaxSize());
+        }
+        InstrumentedThreadPoolTaskExecutor executor = new InstrumentedThreadPoolTaskExecutor(
+            "queryExecutor",
+            meterRegistry,
+            pool.getRejectionPolicy()
+        );
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("books-query-");
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
+    private static Executor virtualThreadExecutor(String threadNamePrefix, Integer concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        if (concurrencyLimit != null) {
+            executor.setConcurrencyLimit(concurrencyLimit);
+        }
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
+    /**
+     * Executor used to write Server-Sent Events to the registered clients.
+     * <p>
+     * The events of each client are written in order by one virtual thread at a time, so a slow client does not delay
+     * the others; without virtual threads the events are written by the calling thread, one client after the other.
+     *
+     * @return the SSE executor.
+     */
+    @Bean(name = "sseExecutor")
+    public TaskExecutor sseExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("books-sse-");
+        }
+        return new SyncTaskExecutor();
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ApplicationProperties applicationProperties) {
+        return new VirtualThreadPinningMonitor(applicationProperties.getVirtualThreads().getPinnedThreshold(), meterRegistry);
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
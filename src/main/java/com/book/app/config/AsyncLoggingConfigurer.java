@@ -0,0 +1,254 @@
+package com.book.app.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
+import ch.qos.logback.core.spi.ContextAwareBase;
+import ch.qos.logback.core.util.FileSize;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import net.logstash.logback.encoder.LogstashEncoder;
+
+/**
+ * Moves the console appender, and the optional rolling file sink, behind {@link AsyncAppender}s, so that
+ * request threads only enqueue their log events (see {@code application.logging}).
+ * <p>
+ * The Logstash appender added by {@link LoggingConfiguration} is already asynchronous, and is left as is. The file
+ * sink keeps the logs on the node when Logstash is down; it does not flush on each event, the async appender flushes
+ * when its queue is drained.
+ * <p>
+ * Each sink publishes {@code books.logging.queue.size}, {@code books.logging.queue.remaining} and
+ * {@code books.logging.dropped}, tagged with the sink name. When the logback configuration is reset, the file sink is
+ * added again, and so is the async console if a console appender is already attached (the JSON console of
+ * {@link LoggingConfiguration} is).
+ */
+public class AsyncLoggingConfigurer extends ContextAwareBase implements LoggerContextListener {
+
+    private static final String CONSOLE_APPENDER_NAME = "CONSOLE";
+
+    private static final String FILE_APPENDER_NAME = "FILE";
+
+    private static final String ASYNC_PREFIX = "ASYNC_";
+
+    private static final String FILE_LOG_PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %crlf(%m) %n%ex";
+
+    private final LoggerContext loggerContext;
+
+    private final ApplicationProperties.Logging loggingProperties;
+
+    private final boolean useJsonFormat;
+
+    private final String customFields;
+
+    private final Sink consoleSink = new Sink(CONSOLE_APPENDER_NAME);
+
+    private final Sink fileSink = new Sink(FILE_APPENDER_NAME);
+
+    public AsyncLoggingConfigurer(
+        LoggerContext loggerContext,
+        ApplicationProperties.Logging loggingProperties,
+        boolean useJsonFormat,
+        String customFields
+    ) {
+        this.loggerContext = loggerContext;
+        this.loggingProperties = loggingProperties;
+        this.useJsonFormat = useJsonFormat;
+        this.customFields = customFields;
+        setContext(loggerContext);
+    }
+
+    /**
+     * Add the async appenders to the root logger, and keep them when the logback configuration is reloaded.
+     */
+    public void configure() {
+        addAppenders();
+        loggerContext.addListener(this);
+    }
+
+    /**
+     * Publish the queue depth and the dropped events of each sink.
+     *
+     * @param meterRegistry the registry.
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (Sink sink : new Sink[] { consoleSink, fileSink }) {
+            Gauge
+                .builder("books.logging.queue.size", sink, Sink::queueSize)
+                .description("Log events waiting to be written")
+                .tag("sink", sink.name.toLowerCase())
+                .register(meterRegistry);
+            Gauge
+                .builder("books.logging.queue.remaining", sink, Sink::remainingCapacity)
+                .description("Remaining capacity of the log queue")
+                .tag("sink", sink.name.toLowerCase())
+                .register(meterRegistry);
+            FunctionCounter
+                .builder("books.logging.dropped", sink.dropped, AtomicLong::get)
+                .description("Log events dropped because the log queue was full")
+                .tag("sink", sink.name.toLowerCase())
+                .register(meterRegistry);
+        }
+    }
+
+    private void addAppenders() {
+        Logger rootLogger = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        Appender<ILoggingEvent> consoleAppender = rootLogger.getAppender(CONSOLE_APPENDER_NAME);
+        if (loggingProperties.getAsync().isEnabled() && consoleAppender != null) {
+            rootLogger.detachAppender(consoleAppender);
+            rootLogger.addAppender(consoleSink.wrap(consoleAppender));
+        }
+        if (loggingProperties.getFile().isEnabled()) {
+            rootLogger.addAppender(fileSink.wrap(createFileAppender()));
+        }
+    }
+
+    private Appender<ILoggingEvent> createFileAppender() {
+        ApplicationProperties.Logging.File fileProperties = loggingProperties.getFile();
+        RollingFileAppender<ILoggingEvent> fileAppender = new RollingFileAppender<>();
+        fileAppender.setContext(loggerContext);
+        fileAppender.setName(FILE_APPENDER_NAME);
+        fileAppender.setFile(fileProperties.getPath());
+        fileAppender.setImmediateFlush(false);
+        fileAppender.setEncoder(createFileEncoder());
+
+        SizeAndTimeBasedRollingPolicy<ILoggingEvent> rollingPolicy = new SizeAndTimeBasedRollingPolicy<>();
+        rollingPolicy.setContext(loggerContext);
+        rollingPolicy.setParent(fileAppender);
+        rollingPolicy.setFileNamePattern(fileProperties.getPath() + ".%d{yyyy-MM-dd}.%i.gz");
+        rollingPolicy.setMaxFileSize(new FileSize(fileProperties.getMaxFileSize().toBytes()));
+        rollingPolicy.setMaxHistory(fileProperties.getMaxHistory());
+        rollingPolicy.setTotalSizeCap(new FileSize(fileProperties.getTotalSizeCap().toBytes()));
+        rollingPolicy.start();
+
+        fileAppender.setRollingPolicy(rollingPolicy);
+        fileAppender.start();
+        return fileAppender;
+    }
+
+    private Encoder<ILoggingEvent> createFileEncoder() {
+        if (useJsonFormat) {
+            LogstashEncoder encoder = new LogstashEncoder();
+            encoder.setContext(loggerContext);
+            encoder.setCustomFields(customFields);
+            encoder.start();
+            return encoder;
+        }
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(FILE_LOG_PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    @Override
+    public boolean isResetResistant() {
+        return true;
+    }
+
+    @Override
+    public void onStart(LoggerContext context) {
+        // Nothing to do.
+    }
+
+    @Override
+    public void onReset(LoggerContext context) {
+        addAppenders();
+    }
+
+    @Override
+    public void onStop(LoggerContext context) {
+        // Nothing to do.
+    }
+
+    @Override
+    public void onLevelChange(Logger logger, Level level) {
+        // Nothing to do.
+    }
+
+    /**
+     * A sink of the logs, whose async appender is replaced when the configuration is reloaded.
+     */
+    private final class Sink {
+
+        private final String name;
+
+        private final AtomicLong dropped = new AtomicLong();
+
+        private volatile MeteredAsyncAppender appender;
+
+        private Sink(String name) {
+            this.name = name;
+        }
+
+        private Appender<ILoggingEvent> wrap(Appender<ILoggingEvent> delegate) {
+            ApplicationProperties.Logging.Async asyncProperties = loggingProperties.getAsync();
+            MeteredAsyncAppender asyncAppender = new MeteredAsyncAppender(dropped);
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setName(ASYNC_PREFIX + name);
+            asyncAppender.setQueueSize(asyncProperties.getQueueSize());
+            asyncAppender.setIncludeCallerData(asyncProperties.isIncludeCallerData());
+            switch (asyncProperties.getDiscardPolicy()) {
+                // 0 disables the discarding of TRACE, DEBUG and INFO events when the queue is 80% full
+                case BLOCK -> asyncAppender.setDiscardingThreshold(0);
+                case DISCARD_INFO -> asyncAppender.setNeverBlock(false);
+                case NEVER_BLOCK -> asyncAppender.setNeverBlock(true);
+            }
+            asyncAppender.addAppender(delegate);
+            asyncAppender.start();
+            appender = asyncAppender;
+            return asyncAppender;
+        }
+
+        private double queueSize() {
+            MeteredAsyncAppender current = appender;
+            return current != null ? current.getNumberOfElementsInQueue() : 0;
+        }
+
+        private double remainingCapacity() {
+            MeteredAsyncAppender current = appender;
+            return current != null ? current.getRemainingCapacity() : 0;
+        }
+    }
+
+    /**
+     * {@link AsyncAppender} counting the events it drops.
+     */
+    private static final class MeteredAsyncAppender extends AsyncAppender {
+
+        private final AtomicLong dropped;
+
+        private MeteredAsyncAppender(AtomicLong dropped) {
+            this.dropped = dropped;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            // with neverBlock, the queue drops the events it has no room for; counted here, ignoring the race with the worker
+            if (isNeverBlock() && getRemainingCapacity() == 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+            super.append(event);
+        }
+
+        @Override
+        protected boolean isDiscardable(ILoggingEvent event) {
+            // only called when the queue is above the discarding threshold
+            boolean discardable = super.isDiscardable(event);
+            if (discardable) {
+                dropped.incrementAndGet();
+            }
+            return discardable;
+        }
+    }
+}
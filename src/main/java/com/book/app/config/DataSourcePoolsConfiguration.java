@@ -0,0 +1,96 @@
+package com.book.app.config;
+
+import com.book.app.jdbc.ReadWriteRoutingDataSource;
+import com.book.app.jdbc.ReplicaLagMonitor;
+import com.book.app.security.SecurityUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+/**
+ * Separate write and read connection pools, enabled by {@code application.datasource.read.enabled}.
+ * <p>
+ * The write pool is the one Spring Boot would create from {@code spring.datasource}; the read pool is configured in
+ * {@code application.datasource.read}, typically with the URL of a replica, and defaults to the same database and
+ * credentials. Both pools publish the {@code hikaricp.connections.*} metrics, tagged with their pool name.
+ * <p>
+ * The primary data source, used by JPA, Liquibase and the {@code JdbcTemplate}, routes the read-only transactions to
+ * the read pool, see {@link ReadWriteRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource.read", name = "enabled", havingValue = "true")
+public class DataSourcePoolsConfiguration {
+
+    public static final String READ_POOL_NAME = "HikariRead";
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("writeDataSource") DataSource writeDataSource,
+        @Qualifier("readDataSource") DataSource readDataSource,
+        ReplicaLagMonitor replicaLagMonitor,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+            writeDataSource,
+            readDataSource,
+            replicaLagMonitor,
+            applicationProperties.getDatasource().getRead().getReadYourWritesWindow(),
+            SecurityUtils::getCurrentUserLogin,
+            meterRegistry
+        );
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+        @Qualifier("readDataSource") DataSource readDataSource,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Datasource.Read read = applicationProperties.getDatasource().getRead();
+        return new ReplicaLagMonitor(readDataSource, read.getLagQuery(), read.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(dataSourceProperties.getName())) {
+            dataSource.setPoolName(dataSourceProperties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource readDataSource(DataSourceProperties dataSourceProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Datasource.Read read = applicationProperties.getDatasource().getRead();
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(read.getUrl())) {
+            dataSource.setJdbcUrl(read.getUrl());
+        }
+        if (StringUtils.hasText(read.getUsername())) {
+            dataSource.setUsername(read.getUsername());
+            dataSource.setPassword(read.getPassword());
+        }
+        dataSource.setPoolName(READ_POOL_NAME);
+        dataSource.setReadOnly(true);
+        dataSource.setAutoCommit(false);
+        dataSource.setMaximumPoolSize(read.getMaximumPoolSize());
+        dataSource.setMinimumIdle(read.getMinimumIdle());
+        dataSource.setConnectionTimeout(read.getConnectionTimeout().toMillis());
+        dataSource.setIdleTimeout(read.getIdleTimeout().toMillis());
+        dataSource.setMaxLifetime(read.getMaxLifetime().toMillis());
+        return dataSource;
+    }
+}
@@ -1,14 +1,22 @@
 package com.book.app.config;
 
+import com.book.app.service.query.PageQueryExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -41,6 +49,48 @@ public class DatabaseConfiguration {
         return H2ConfigurationHelper.createServer(port);
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "application.datasource.adaptive-sizing", name = "enabled", havingValue = "true")
+    public AdaptivePoolSizeController adaptivePoolSizeController(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        List<DataSource> dataSources
+    ) {
+        return new AdaptivePoolSizeController(applicationProperties.getDatasource().getAdaptiveSizing(), meterRegistry, dataSources);
+    }
+
+    /**
+     * Executes the content and count queries of the pages of the query services, in parallel when
+     * {@code application.query.parallel-count} is enabled together with the read pool, see
+     * {@link DataSourcePoolsConfiguration}.
+     *
+     * @return the page query executor.
+     */
+    @Bean
+    public PageQueryExecutor pageQueryExecutor(
+        @Qualifier("queryExecutor") Executor queryExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Query query = applicationProperties.getQuery();
+        boolean parallel = query.isParallelCount();
+        if (parallel && !applicationProperties.getDatasource().getRead().isEnabled()) {
+            // the parallel queries would wait for connections of the pool which their callers hold
+            log.warn("Ignoring application.query.parallel-count, which requires application.datasource.read.enabled");
+            parallel = false;
+        }
+        log.debug("Counting the pages {}", parallel ? "in parallel with their content" : "after their content");
+        return new PageQueryExecutor(
+            queryExecutor,
+            transactionManager,
+            meterRegistry,
+            parallel,
+            query.getForkTimeout(),
+            query.getForkQueryTimeout()
+        );
+    }
+
     private String getValidPortForH2() {
         int port = Integer.parseInt(env.getProperty("server.port"));
         if (port < 10000) {
@@ -0,0 +1,98 @@
+package com.book.app.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * {@link ThreadPoolTaskExecutor} publishing its metrics to Micrometer:
+ * <ul>
+ * <li>{@code books.executor.queue.wait}: time a task waited in the queue before a thread picked it up</li>
+ * <li>{@code books.executor.run}: time a task ran</li>
+ * <li>{@code books.executor.rejected}: tasks rejected because the pool and its queue were full</li>
+ * <li>the {@code executor.*} gauges of {@link ExecutorServiceMetrics}, such as active threads and queued tasks</li>
+ * </ul>
+ * All meters are tagged with the name of the executor.
+ */
+public class InstrumentedThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final Logger log = LoggerFactory.getLogger(InstrumentedThreadPoolTaskExecutor.class);
+
+    private final String name;
+
+    private final transient MeterRegistry meterRegistry;
+
+    public InstrumentedThreadPoolTaskExecutor(String name, MeterRegistry meterRegistry, RejectionPolicy rejectionPolicy) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        Timer queueWait = Timer.builder("books.executor.queue.wait").tag("name", name).register(meterRegistry);
+        Timer run = Timer.builder("books.executor.run").tag("name", name).register(meterRegistry);
+        setTaskDecorator(task -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    run.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        setRejectedExecutionHandler(countingRejections(rejectionPolicy));
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+        ExecutorService executorService = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+        new ExecutorServiceMetrics(executorService, name, Tags.empty()).bindTo(meterRegistry);
+        return executorService;
+    }
+
+    private RejectedExecutionHandler countingRejections(RejectionPolicy rejectionPolicy) {
+        Counter rejected = Counter
+            .builder("books.executor.rejected")
+            .tag("name", name)
+            .tag("policy", rejectionPolicy.name().toLowerCase())
+            .register(meterRegistry);
+        RejectedExecutionHandler delegate =
+            switch (rejectionPolicy) {
+                case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+                case DROP_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+                case FAIL -> new ThreadPoolExecutor.AbortPolicy();
+            };
+        return (task, executor) -> {
+            rejected.increment();
+            log.warn("Executor {} is saturated, applying the {} policy", name, rejectionPolicy);
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+
+    /**
+     * What to do with a task submitted while all the threads are busy and the queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Run the task on the submitting thread, which slows down the producer.
+         */
+        CALLER_RUNS,
+        /**
+         * Discard the oldest queued task and queue the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Throw a {@link java.util.concurrent.RejectedExecutionException} to the submitter.
+         */
+        FAIL,
+    }
+}
@@ -0,0 +1,79 @@
+package com.book.app.config;
+
+import com.book.app.service.ScheduledJobRunner;
+import com.book.app.service.ScheduledJobRunner.JobRun;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.scheduling.config.CronTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the scheduled maintenance jobs under {@code /management/jobs}: their cron,
+ * the next time they will fire, and their last run on any node of the cluster.
+ */
+@Component
+@Endpoint(id = "jobs")
+public class JobsEndpoint {
+
+    private static final int HISTORY_SIZE = 20;
+
+    private final ObjectProvider<ScheduledTaskHolder> scheduledTaskHolders;
+
+    private final ScheduledJobRunner scheduledJobRunner;
+
+    public JobsEndpoint(ObjectProvider<ScheduledTaskHolder> scheduledTaskHolders, ScheduledJobRunner scheduledJobRunner) {
+        this.scheduledTaskHolders = scheduledTaskHolders;
+        this.scheduledJobRunner = scheduledJobRunner;
+    }
+
+    @ReadOperation
+    public Map<String, JobDescriptor> jobs() {
+        Map<String, JobRun> lastRuns = scheduledJobRunner
+            .findLastRuns()
+            .stream()
+            .collect(Collectors.toMap(JobRun::jobName, Function.identity()));
+        Map<String, JobDescriptor> jobs = new TreeMap<>();
+        scheduledTaskHolders
+            .orderedStream()
+            .flatMap(holder -> holder.getScheduledTasks().stream())
+            .filter(scheduledTask -> scheduledTask.getTask() instanceof CronTask)
+            .forEach(scheduledTask -> {
+                CronTask task = (CronTask) scheduledTask.getTask();
+                if (task.getRunnable() instanceof ScheduledMethodRunnable runnable) {
+                    String name = runnable.getMethod().getName();
+                    jobs.put(name, new JobDescriptor(task.getExpression(), nextRun(task.getExpression()), lastRuns.get(name)));
+                }
+            });
+        // jobs which are not scheduled on this node, but ran on another one
+        lastRuns.forEach((name, lastRun) -> jobs.putIfAbsent(name, new JobDescriptor(null, null, lastRun)));
+        return jobs;
+    }
+
+    @ReadOperation
+    public List<JobRun> history(@Selector String name) {
+        return scheduledJobRunner.findRuns(name, HISTORY_SIZE);
+    }
+
+    private static Instant nextRun(String expression) {
+        ZonedDateTime next = CronExpression.parse(expression).next(ZonedDateTime.now());
+        return next != null ? next.toInstant() : null;
+    }
+
+    public record JobDescriptor(String cron, Instant nextRun, Long lastDurationMs, JobRun lastRun) {
+        JobDescriptor(String cron, Instant nextRun, JobRun lastRun) {
+            this(cron, nextRun, lastRun != null ? lastRun.durationMs() : null, lastRun);
+        }
+    }
+}
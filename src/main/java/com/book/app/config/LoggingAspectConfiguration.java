@@ -1,6 +1,9 @@
 package com.book.app.config;
 
 import com.book.app.aop.logging.LoggingAspect;
+import com.book.app.aop.timing.TimingAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -14,4 +17,11 @@ public class LoggingAspectConfiguration {
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TimingAspect timingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Timing timing = applicationProperties.getTiming();
+        return new TimingAspect(meterRegistry, timing.getSlowThreshold(), timing.getSlowCallSampleRate());
+    }
 }
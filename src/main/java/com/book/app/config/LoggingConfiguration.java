@@ -5,6 +5,7 @@ import static tech.jhipster.config.logging.LoggingUtils.*;
 import ch.qos.logback.classic.LoggerContext;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.LoggerFactory;
@@ -13,7 +14,8 @@ import org.springframework.context.annotation.Configuration;
 import tech.jhipster.config.JHipsterProperties;
 
 /*
- * Configures the console and Logstash log appenders from the app properties
+ * Configures the console and Logstash log appenders from the app properties,
+ * and the async appenders and file sink from the application.logging properties
  */
 @Configuration
 public class LoggingConfiguration {
@@ -22,7 +24,9 @@ public class LoggingConfiguration {
         @Value("${spring.application.name}") String appName,
         @Value("${server.port}") String serverPort,
         JHipsterProperties jHipsterProperties,
-        ObjectMapper mapper
+        ApplicationProperties applicationProperties,
+        ObjectMapper mapper,
+        MeterRegistry meterRegistry
     ) throws JsonProcessingException {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
 
@@ -43,5 +47,16 @@ public class LoggingConfiguration {
         if (loggingProperties.isUseJsonFormat() || logstashProperties.isEnabled()) {
             addContextListener(context, customFields, loggingProperties);
         }
+        ApplicationProperties.Logging asyncLoggingProperties = applicationProperties.getLogging();
+        if (asyncLoggingProperties.getAsync().isEnabled() || asyncLoggingProperties.getFile().isEnabled()) {
+            AsyncLoggingConfigurer asyncLoggingConfigurer = new AsyncLoggingConfigurer(
+                context,
+                asyncLoggingProperties,
+                loggingProperties.isUseJsonFormat(),
+                customFields
+            );
+            asyncLoggingConfigurer.configure();
+            asyncLoggingConfigurer.bindTo(meterRegistry);
+        }
     }
 }
@@ -9,6 +9,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -40,10 +41,18 @@ public class SecurityConfiguration {
 
     private final RememberMeServices rememberMeServices;
 
-    public SecurityConfiguration(Environment env, RememberMeServices rememberMeServices, JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public SecurityConfiguration(
+        Environment env,
+        RememberMeServices rememberMeServices,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties
+    ) {
         this.env = env;
         this.rememberMeServices = rememberMeServices;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
@@ -61,7 +70,7 @@ public class SecurityConfiguration {
                     // See https://stackoverflow.com/q/74447118/65681
                     .csrfTokenRequestHandler(new CsrfTokenRequestAttributeHandler())
             )
-            .addFilterAfter(new SpaWebFilter(), BasicAuthenticationFilter.class)
+            .addFilterAfter(spaWebFilter(), BasicAuthenticationFilter.class)
             .addFilterAfter(new CookieCsrfFilter(), BasicAuthenticationFilter.class)
             .headers(headers ->
                 headers
@@ -129,6 +138,13 @@ public class SecurityConfiguration {
         return http.build();
     }
 
+    private SpaWebFilter spaWebFilter() {
+        if (applicationProperties.getSpa().isIndexInMemory()) {
+            return new SpaWebFilter(new ClassPathResource("static/index.html"));
+        }
+        return new SpaWebFilter();
+    }
+
     @Bean
     MvcRequestMatcher.Builder mvc(HandlerMappingIntrospector introspector) {
         return new MvcRequestMatcher.Builder(introspector);
@@ -0,0 +1,74 @@
+package com.book.app.config;
+
+import com.book.app.jdbc.SqlStatisticsListener;
+import com.book.app.web.filter.SqlBudgetFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Records the SQL statements executed by each HTTP request, and enforces the statement budget configured in
+ * {@code application.sql-budget}.
+ * <p>
+ * The data sources are wrapped by datasource-proxy, which reports the statements to the {@link SqlStatisticsListener};
+ * the {@link SqlBudgetFilter} opens a recording scope per request and publishes the result.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !isProxied(dataSource)) {
+                    ApplicationProperties.SqlBudget sqlBudget = applicationProperties.getObject().getSqlBudget();
+                    SqlStatisticsListener listener = new SqlStatisticsListener(
+                        sqlBudget.getMaxStatements(),
+                        sqlBudget.getMode() == ApplicationProperties.SqlBudget.Mode.FAIL
+                    );
+                    return ProxyDataSourceBuilder
+                        .create(dataSource)
+                        .name(beanName)
+                        .listener(listener)
+                        .methodListener(listener)
+                        .proxyResultSet()
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Data sources delegating to other data source beans, such as the read/write routing one, are not wrapped: their
+     * targets are, and their statements would be counted twice.
+     */
+    private static boolean isProxied(DataSource dataSource) {
+        return dataSource instanceof ProxyDataSource || dataSource instanceof DelegatingDataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.SqlBudget sqlBudget = applicationProperties.getSqlBudget();
+        FilterRegistrationBean<SqlBudgetFilter> registration = new FilterRegistrationBean<>(
+            new SqlBudgetFilter(meterRegistry, sqlBudget.getMaxStatements(), sqlBudget.getRepeatedStatementThreshold())
+        );
+        // before the security filters, which may query the database too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,327 @@
+package com.book.app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * Serves the static assets from memory, with their gzip and brotli variants, so that the application does not compress
+ * the client bundle on every request.
+ * <p>
+ * An asset is read once, on its first request, with the {@code .br} and {@code .gz} files written next to it by the
+ * webpack build; compressible assets without a {@code .gz} file are gzipped then. Each representation has a strong ETag
+ * from the hash of the asset, and the Content-Encoding and Vary headers; the assets with a content-hash fingerprint in
+ * their name, such as {@code main.4b2f1c3d.js}, are cached as immutable for a year. Assets larger than the maximum file
+ * size, or beyond the total size, are served from the classpath as before.
+ */
+public class StaticAssetResolver extends AbstractResourceResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StaticAssetResolver.class);
+
+    /**
+     * The {@code [contenthash:8]} and {@code [contenthash]} of the webpack file names.
+     */
+    private static final Pattern FINGERPRINT = Pattern.compile(".*\\.[0-9a-f]{8,}\\.[a-z0-9]+$");
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    /**
+     * A compressed variant is only kept when it saves at least a tenth of the size.
+     */
+    private static final double MIN_COMPRESSION_RATIO = 0.9;
+
+    private static final Asset UNCACHED = new Asset(null, null, null);
+
+    private final long maxFileSize;
+
+    private final long maxTotalSize;
+
+    private final long minCompressSize;
+
+    private final Map<String, Asset> assets = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalSize = new AtomicLong();
+
+    public StaticAssetResolver(ApplicationProperties.StaticAssets properties) {
+        this.maxFileSize = properties.getMaxFileSize().toBytes();
+        this.maxTotalSize = properties.getMaxTotalSize().toBytes();
+        this.minCompressSize = properties.getMinCompressSize().toBytes();
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(
+        @Nullable HttpServletRequest request,
+        String requestPath,
+        List<? extends Resource> locations,
+        ResourceResolverChain chain
+    ) {
+        Asset asset = assets.get(requestPath);
+        if (asset == null) {
+            Resource resource = chain.resolveResource(request, requestPath, locations);
+            if (resource == null) {
+                // unknown paths are not cached, so that they can't fill the map
+                return null;
+            }
+            asset = assets.computeIfAbsent(requestPath, path -> load(resource, path, locations, chain));
+        }
+        if (asset == UNCACHED) {
+            return chain.resolveResource(request, requestPath, locations);
+        }
+        return asset.select(request);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    /**
+     * @return the bytes of the assets and of their variants kept in memory.
+     */
+    public long getTotalSize() {
+        return totalSize.get();
+    }
+
+    private Asset load(Resource resource, String path, List<? extends Resource> locations, ResourceResolverChain chain) {
+        try {
+            if (resource.contentLength() > maxFileSize) {
+                return UNCACHED;
+            }
+            byte[] content = read(resource);
+            String filename = resource.getFilename();
+            byte[] brotli = readVariant(chain.resolveResource(null, path + ".br", locations));
+            byte[] gzip = readVariant(chain.resolveResource(null, path + ".gz", locations));
+            if (gzip == null && content.length >= minCompressSize && isCompressible(filename)) {
+                gzip = gzip(content);
+            }
+            brotli = smallerOrNull(brotli, content);
+            gzip = smallerOrNull(gzip, content);
+
+            long size = content.length + (brotli == null ? 0 : brotli.length) + (gzip == null ? 0 : gzip.length);
+            if (totalSize.addAndGet(size) > maxTotalSize) {
+                totalSize.addAndGet(-size);
+                LOG.warn("The static assets exceed {} bytes, {} is served from the classpath", maxTotalSize, path);
+                return UNCACHED;
+            }
+
+            String hash = hash(content);
+            long lastModified = resource.lastModified();
+            boolean fingerprinted = FINGERPRINT.matcher(filename).matches();
+            boolean encoded = brotli != null || gzip != null;
+            return new Asset(
+                new StaticAsset(content, filename, lastModified, '"' + hash + '"', null, encoded, fingerprinted),
+                brotli == null ? null : new StaticAsset(brotli, filename, lastModified, '"' + hash + "-br\"", "br", true, fingerprinted),
+                gzip == null ? null : new StaticAsset(gzip, filename, lastModified, '"' + hash + "-gzip\"", "gzip", true, fingerprinted)
+            );
+        } catch (IOException e) {
+            LOG.warn("Could not load {} in memory, it is served from the classpath", path, e);
+            return UNCACHED;
+        }
+    }
+
+    private static byte[] read(Resource resource) throws IOException {
+        try (InputStream input = resource.getInputStream()) {
+            return input.readAllBytes();
+        }
+    }
+
+    @Nullable
+    private static byte[] readVariant(@Nullable Resource variant) throws IOException {
+        return variant == null || !variant.isReadable() ? null : read(variant);
+    }
+
+    @Nullable
+    private static byte[] smallerOrNull(@Nullable byte[] compressed, byte[] content) {
+        return compressed != null && compressed.length < content.length * MIN_COMPRESSION_RATIO ? compressed : null;
+    }
+
+    static boolean isCompressible(@Nullable String filename) {
+        MediaType mediaType = MediaTypeFactory.getMediaType(filename).orElse(null);
+        if (mediaType == null) {
+            return false;
+        }
+        String subtype = mediaType.getSubtype();
+        return (
+            "text".equals(mediaType.getType()) ||
+            subtype.endsWith("javascript") ||
+            subtype.endsWith("json") ||
+            subtype.endsWith("xml")
+        );
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 4);
+        try (
+            GZIPOutputStream gzip = new GZIPOutputStream(output) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }
+        ) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parse the codings of an {@code Accept-Encoding} header with their quality, {@code 1} by default; a coding with
+     * an invalid quality is not acceptable.
+     */
+    static Map<String, Double> parseAcceptEncoding(String acceptEncoding) {
+        Map<String, Double> qualities = new HashMap<>();
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.isEmpty()) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            qualities.merge(coding, quality, Math::max);
+        }
+        return qualities;
+    }
+
+    private record Asset(StaticAsset identity, @Nullable StaticAsset brotli, @Nullable StaticAsset gzip) {
+        /**
+         * The variant with the highest quality in {@code Accept-Encoding}, brotli first on a tie; the codings with a
+         * quality of {@code 0}, such as {@code br;q=0}, are refused.
+         */
+        private Resource select(@Nullable HttpServletRequest request) {
+            String acceptEncoding = request == null ? null : request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptEncoding == null) {
+                return identity;
+            }
+            Map<String, Double> qualities = parseAcceptEncoding(acceptEncoding);
+            double brotliQuality = brotli == null ? 0 : quality(qualities, "br");
+            double gzipQuality = gzip == null ? 0 : quality(qualities, "gzip");
+            if (brotliQuality > 0 && brotliQuality >= gzipQuality) {
+                return brotli;
+            }
+            if (gzipQuality > 0) {
+                return gzip;
+            }
+            return identity;
+        }
+
+        private static double quality(Map<String, Double> qualities, String coding) {
+            Double quality = qualities.get(coding);
+            return quality != null ? quality : qualities.getOrDefault("*", 0.0);
+        }
+    }
+
+    /**
+     * One representation of an asset in memory, written in a single call to the response.
+     */
+    static final class StaticAsset extends ByteArrayResource implements HttpResource {
+
+        private final String filename;
+
+        private final long lastModified;
+
+        private final String eTag;
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private StaticAsset(
+            byte[] content,
+            String filename,
+            long lastModified,
+            String eTag,
+            @Nullable String contentEncoding,
+            boolean encoded,
+            boolean fingerprinted
+        ) {
+            super(content, filename + (contentEncoding == null ? "" : " (" + contentEncoding + ")"));
+            this.filename = filename;
+            this.lastModified = lastModified;
+            this.eTag = eTag;
+            if (contentEncoding != null) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+            }
+            if (encoded) {
+                headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (fingerprinted) {
+                headers.setCacheControl(IMMUTABLE);
+            }
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.book.app.config;
 import java.util.concurrent.TimeUnit;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
@@ -31,8 +32,11 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
 
     private final JHipsterProperties jhipsterProperties;
 
-    public StaticResourcesWebConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public StaticResourcesWebConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jhipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -47,6 +51,12 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
 
     protected void initializeResourceHandler(ResourceHandlerRegistration resourceHandlerRegistration) {
         resourceHandlerRegistration.addResourceLocations(RESOURCE_LOCATIONS).setCacheControl(getCacheControl());
+        resourceHandlerRegistration.setEtagGenerator(StaticResourcesWebConfiguration::getETag);
+        resourceHandlerRegistration.resourceChain(false).addResolver(new StaticAssetResolver(applicationProperties.getStaticAssets()));
+    }
+
+    private static String getETag(Resource resource) {
+        return resource instanceof StaticAssetResolver.StaticAsset asset ? asset.getETag() : null;
     }
 
     protected CacheControl getCacheControl() {
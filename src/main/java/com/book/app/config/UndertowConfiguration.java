@@ -0,0 +1,102 @@
+package com.book.app.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.undertow.server.HandlerWrapper;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.RequestLimit;
+import io.undertow.server.handlers.RequestLimitingHandler;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.xnio.Options;
+
+/**
+ * Limits of Undertow which {@code server.undertow} does not cover, configured in {@code application.undertow}:
+ * <ul>
+ * <li>the requests handled at once, the others waiting in a bounded queue, and the requests beyond the queue answered
+ * with {@code 503 (Service Unavailable)} and counted in {@code books.undertow.requests.rejected}</li>
+ * <li>the open connections of each listener</li>
+ * </ul>
+ * The threads, the buffers and HTTP/2 are configured in {@code server.undertow} and {@code server.http2}; the metrics of
+ * the threads and the connections are published by {@link UndertowMetrics}.
+ */
+@Configuration
+public class UndertowConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(UndertowConfiguration.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowLimitsCustomizer(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Undertow undertow = applicationProperties.getUndertow();
+        return factory -> {
+            if (undertow.getMaxConnections() > 0) {
+                log.debug("Limiting Undertow listeners to {} connections", undertow.getMaxConnections());
+                factory.addBuilderCustomizers(builder -> {
+                    builder.setSocketOption(Options.CONNECTION_HIGH_WATER, undertow.getMaxConnections());
+                    builder.setSocketOption(Options.CONNECTION_LOW_WATER, undertow.getMaxConnections());
+                });
+            }
+            if (undertow.getMaxConcurrentRequests() > 0) {
+                log.debug(
+                    "Limiting Undertow to {} concurrent requests, and {} queued requests",
+                    undertow.getMaxConcurrentRequests(),
+                    undertow.getRequestQueueSize()
+                );
+                Counter rejected = Counter
+                    .builder("books.undertow.requests.rejected")
+                    .description("Requests answered with 503 as the request queue of Undertow was full")
+                    .register(meterRegistry);
+                HttpHandler failureHandler = exchange -> {
+                    rejected.increment();
+                    ResponseCodeHandler.HANDLE_503.handleRequest(exchange);
+                };
+                // one limit shared by the requests of all the listeners, before they are dispatched to the servlets
+                HandlerWrapper requestLimit = undertow.getRequestQueueSize() > 0
+                    ? queueingLimit(undertow.getMaxConcurrentRequests(), undertow.getRequestQueueSize(), failureHandler)
+                    : rejectingLimit(undertow.getMaxConcurrentRequests(), failureHandler);
+                factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.addOuterHandlerChainWrapper(requestLimit));
+            }
+        };
+    }
+
+    private static HandlerWrapper queueingLimit(int maxConcurrentRequests, int queueSize, HttpHandler failureHandler) {
+        RequestLimit requestLimit = new RequestLimit(maxConcurrentRequests, queueSize);
+        requestLimit.setFailureHandler(failureHandler);
+        return next -> new RequestLimitingHandler(requestLimit, next);
+    }
+
+    /**
+     * {@link RequestLimit} takes a queue of 0 for an unbounded one: without a queue, the requests beyond the limit are
+     * answered at once.
+     */
+    private static HandlerWrapper rejectingLimit(int maxConcurrentRequests, HttpHandler failureHandler) {
+        AtomicInteger requests = new AtomicInteger();
+        return next ->
+            exchange -> {
+                if (requests.incrementAndGet() > maxConcurrentRequests) {
+                    requests.decrementAndGet();
+                    failureHandler.handleRequest(exchange);
+                    return;
+                }
+                exchange.addExchangeCompleteListener((completed, nextListener) -> {
+                    requests.decrementAndGet();
+                    nextListener.proceed();
+                });
+                next.handleRequest(exchange);
+            };
+    }
+
+    @Bean
+    public UndertowMetrics undertowMetrics(MeterRegistry meterRegistry) {
+        return new UndertowMetrics(meterRegistry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.book.app.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServer;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Publishes the statistics which XNIO, the IO layer of Undertow, registers as MBeans once the server is started:
+ * <ul>
+ * <li>{@code books.undertow.threads.io}, the IO threads of each worker</li>
+ * <li>{@code books.undertow.threads.worker.core}, {@code .max} and {@code .busy}, the worker threads which run the
+ * blocking requests, unless they run on virtual threads</li>
+ * <li>{@code books.undertow.threads.worker.queue}, the tasks waiting for a worker thread</li>
+ * <li>{@code books.undertow.connections} and {@code books.undertow.connections.limit}, the open connections of each
+ * listener, tagged with its address, and their limit, see {@code application.undertow.max-connections}</li>
+ * </ul>
+ */
+public class UndertowMetrics implements ApplicationListener<WebServerInitializedEvent> {
+
+    private static final String XNIO_MBEANS = "org.xnio:type=Xnio,*";
+
+    private final Logger log = LoggerFactory.getLogger(UndertowMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public UndertowMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (!(event.getWebServer() instanceof UndertowServletWebServer)) {
+            return;
+        }
+        try {
+            for (ObjectName name : mBeanServer.queryNames(new ObjectName(XNIO_MBEANS), null)) {
+                if (name.getKeyProperty("address") != null) {
+                    registerListener(name);
+                } else if (name.getKeyProperty("worker") != null) {
+                    registerWorker(name);
+                }
+            }
+        } catch (JMException e) {
+            log.warn("Could not publish the metrics of Undertow: {}", e.getMessage());
+        }
+    }
+
+    private void registerWorker(ObjectName name) {
+        Tags tags = Tags.of("worker", keyProperty(name, "worker"));
+        gauge("books.undertow.threads.io", "IO threads of the worker", name, "IoThreadCount", tags);
+        gauge("books.undertow.threads.worker.core", "Core size of the worker thread pool", name, "CoreWorkerPoolSize", tags);
+        gauge("books.undertow.threads.worker.max", "Maximum size of the worker thread pool", name, "MaxWorkerPoolSize", tags);
+        gauge("books.undertow.threads.worker.busy", "Worker threads running a task", name, "BusyWorkerThreadCount", tags);
+        gauge("books.undertow.threads.worker.queue", "Tasks waiting for a worker thread", name, "WorkerQueueSize", tags);
+    }
+
+    private void registerListener(ObjectName name) {
+        Tags tags = Tags.of("worker", keyProperty(name, "worker"), "address", keyProperty(name, "address"));
+        gauge("books.undertow.connections", "Open connections of the listener", name, "ConnectionCount", tags);
+        gauge(
+            "books.undertow.connections.limit",
+            "Connections of the listener above which it stops accepting",
+            name,
+            "ConnectionLimitHighWater",
+            tags
+        );
+    }
+
+    private void gauge(String metric, String description, ObjectName name, String attribute, Tags tags) {
+        Gauge
+            .builder(metric, mBeanServer, server -> attribute(server, name, attribute))
+            .description(description)
+            .tags(tags)
+            .register(meterRegistry);
+    }
+
+    /**
+     * XNIO quotes the names of its workers and the addresses of its listeners.
+     */
+    private static String keyProperty(ObjectName name, String key) {
+        String value = name.getKeyProperty(key);
+        return value.startsWith("\"") ? ObjectName.unquote(value) : value;
+    }
+
+    private static double attribute(MBeanServer server, ObjectName name, String attribute) {
+        try {
+            return ((Number) server.getAttribute(name, attribute)).doubleValue();
+        } catch (JMException e) {
+            // unregistered once the server is stopped
+            return Double.NaN;
+        }
+    }
+}
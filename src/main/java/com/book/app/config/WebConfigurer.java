@@ -8,6 +8,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.boot.web.server.*;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
@@ -15,6 +17,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -59,6 +62,7 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
     public void customize(WebServerFactory server) {
         // When running in an IDE or with ./mvnw spring-boot:run, set location of the static web assets.
         setLocationForStaticAssets(server);
+        setVirtualThreadExecutor(server);
     }
 
     private void setLocationForStaticAssets(WebServerFactory server) {
@@ -72,6 +76,19 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         }
     }
 
+    /**
+     * Dispatch servlet requests on virtual threads instead of the Undertow worker pool, when virtual threads are enabled.
+     */
+    private void setVirtualThreadExecutor(WebServerFactory server) {
+        if (server instanceof UndertowServletWebServerFactory undertow && Threading.VIRTUAL.isActive(env)) {
+            log.info("Dispatching Undertow requests on virtual threads");
+            undertow.addDeploymentInfoCustomizers(deploymentInfo -> {
+                deploymentInfo.setExecutor(new VirtualThreadTaskExecutor("books-undertow-"));
+                deploymentInfo.setAsyncExecutor(new VirtualThreadTaskExecutor("books-undertow-async-"));
+            });
+        }
+    }
+
     /**
      * Resolve path prefix to static resources.
      */
@@ -4,8 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
-import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.CollectionType;
 
 /**
  * A Author.
@@ -29,8 +29,9 @@ public class Author implements Serializable {
     private String name;
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "author")
+    @CollectionType(type = BooksSetType.class)
     @JsonIgnoreProperties(value = { "author" }, allowSetters = true)
-    private Set<Books> books = new HashSet<>();
+    private Set<Books> books = new EntityIdSet<>(Books.class, Books::getId);
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
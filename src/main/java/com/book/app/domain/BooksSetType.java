@@ -0,0 +1,11 @@
+package com.book.app.domain;
+
+/**
+ * The sets of {@link Books}, such as {@link Author#getBooks()}, keyed by the id of the books.
+ */
+public class BooksSetType extends EntityIdSetType<Books> {
+
+    public BooksSetType() {
+        super(Books.class, Books::getId);
+    }
+}
@@ -0,0 +1,203 @@
+package com.book.app.domain;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A set of entities keyed by their id, for the entities whose {@code hashCode()} is the same for all the instances,
+ * see <a href="https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/">
+ * equals and hashCode with the JPA identifier</a>: in a {@link java.util.HashSet} they all land in one bucket, where
+ * each lookup compares the element with all the others.
+ * <p>
+ * The entities with an id are in a primitive {@code long} map, the others by identity, as they are only equal to
+ * themselves; those are keyed by their id once they get one, at the next operation that needs it. No {@code null}
+ * element, and the iterators work on a copy of the elements.
+ *
+ * @param <E> the type of the entities.
+ */
+public class EntityIdSet<E> extends AbstractSet<E> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id of an entity, serializable with the set.
+     *
+     * @param <E> the type of the entities.
+     */
+    @FunctionalInterface
+    public interface IdAccessor<E> extends Serializable {
+        Long idOf(E entity);
+    }
+
+    private final Class<E> type;
+
+    private final IdAccessor<E> idAccessor;
+
+    private transient LongObjectHashMap<E> identified;
+
+    private transient Set<E> unidentified;
+
+    public EntityIdSet(Class<E> type, IdAccessor<E> idAccessor) {
+        this(type, idAccessor, 4);
+    }
+
+    public EntityIdSet(Class<E> type, IdAccessor<E> idAccessor, int expectedSize) {
+        this.type = type;
+        this.idAccessor = idAccessor;
+        init(expectedSize);
+    }
+
+    @Override
+    public int size() {
+        settle();
+        return identified.size() + unidentified.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!type.isInstance(o)) {
+            return false;
+        }
+        E entity = type.cast(o);
+        Long id = idAccessor.idOf(entity);
+        if (id == null) {
+            return unidentified.contains(entity);
+        }
+        settle();
+        return identified.containsKey(id);
+    }
+
+    @Override
+    public boolean add(E entity) {
+        Objects.requireNonNull(entity, "entity");
+        Long id = idAccessor.idOf(entity);
+        if (id == null) {
+            return unidentified.add(entity);
+        }
+        settle();
+        if (identified.containsKey(id)) {
+            return false;
+        }
+        identified.put(id, entity);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!type.isInstance(o)) {
+            return false;
+        }
+        E entity = type.cast(o);
+        Long id = idAccessor.idOf(entity);
+        if (id == null) {
+            return unidentified.remove(entity);
+        }
+        settle();
+        return identified.remove(id) != null;
+    }
+
+    @Override
+    public void clear() {
+        identified.clear();
+        unidentified.clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        List<E> elements = elements();
+        return new Iterator<>() {
+            private int next;
+
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return next < elements.size();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = elements.get(next++);
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                EntityIdSet.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    private List<E> elements() {
+        settle();
+        List<E> elements = new ArrayList<>(identified.size() + unidentified.size());
+        for (ObjectCursor<E> cursor : identified.values()) {
+            elements.add(cursor.value);
+        }
+        elements.addAll(unidentified);
+        return elements;
+    }
+
+    /**
+     * Keys the entities which got an id since they were added.
+     */
+    private void settle() {
+        if (unidentified.isEmpty()) {
+            return;
+        }
+        Iterator<E> iterator = unidentified.iterator();
+        while (iterator.hasNext()) {
+            E entity = iterator.next();
+            Long id = idAccessor.idOf(entity);
+            if (id != null) {
+                iterator.remove();
+                if (!identified.containsKey(id)) {
+                    identified.put(id, entity);
+                }
+            }
+        }
+    }
+
+    private void init(int expectedSize) {
+        identified = new LongObjectHashMap<>(expectedSize);
+        unidentified = Collections.newSetFromMap(new IdentityHashMap<>(0));
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        List<E> elements = elements();
+        out.writeInt(elements.size());
+        for (E element : elements) {
+            out.writeObject(element);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        init(size);
+        for (int i = 0; i < size; i++) {
+            add(type.cast(in.readObject()));
+        }
+    }
+}
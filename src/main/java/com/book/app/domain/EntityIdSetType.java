@@ -0,0 +1,93 @@
+package com.book.app.domain;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.collection.spi.PersistentSet;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.CollectionClassification;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.type.Type;
+import org.hibernate.usertype.UserCollectionType;
+
+/**
+ * Has Hibernate load the sets of an entity in an {@link EntityIdSet}, with {@code @CollectionType}, rather than in a
+ * {@link java.util.HashSet}.
+ *
+ * @param <E> the type of the entities.
+ */
+public abstract class EntityIdSetType<E> implements UserCollectionType {
+
+    private final Class<E> type;
+
+    private final EntityIdSet.IdAccessor<E> idAccessor;
+
+    protected EntityIdSetType(Class<E> type, EntityIdSet.IdAccessor<E> idAccessor) {
+        this.type = type;
+        this.idAccessor = idAccessor;
+    }
+
+    @Override
+    public CollectionClassification getClassification() {
+        return CollectionClassification.SET;
+    }
+
+    @Override
+    public Class<?> getCollectionClass() {
+        return Set.class;
+    }
+
+    @Override
+    public PersistentCollection<?> instantiate(SharedSessionContractImplementor session, CollectionPersister persister) {
+        return new PersistentSet<E>(session);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PersistentCollection<?> wrap(SharedSessionContractImplementor session, Object collection) {
+        return new PersistentSet<>(session, (Set<E>) collection);
+    }
+
+    @Override
+    public Iterator<?> getElementsIterator(Object collection) {
+        return ((Set<?>) collection).iterator();
+    }
+
+    @Override
+    public boolean contains(Object collection, Object entity) {
+        return ((Set<?>) collection).contains(entity);
+    }
+
+    @Override
+    public Object indexOf(Object collection, Object entity) {
+        return null;
+    }
+
+    /**
+     * Same as the {@code replaceElements} of Hibernate's own collection types: the elements are merged too.
+     */
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Object replaceElements(
+        Object original,
+        Object target,
+        CollectionPersister persister,
+        Object owner,
+        Map copyCache,
+        SharedSessionContractImplementor session
+    ) {
+        Set<Object> result = (Set<Object>) target;
+        result.clear();
+        Type elementType = persister.getElementType();
+        for (Object element : (Set<?>) original) {
+            result.add(elementType.replace(element, null, session, owner, copyCache));
+        }
+        return result;
+    }
+
+    @Override
+    public Object instantiate(int anticipatedSize) {
+        return new EntityIdSet<>(type, idAccessor, Math.max(anticipatedSize, 4));
+    }
+}
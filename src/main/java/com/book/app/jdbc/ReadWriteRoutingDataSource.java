@@ -0,0 +1,147 @@
+package com.book.app.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions to the read replica, and all the others to the primary.
+ * <p>
+ * A read-only transaction still goes to the primary when the {@link ReplicaLagMonitor} reports the replica as lagging
+ * or down, and when the current user committed a write less than {@code readYourWritesWindow} ago, so that users
+ * read their own writes. The writes are tracked in memory, per node. The routing decisions are counted in
+ * {@code books.datasource.route}, tagged with the target and the reason.
+ * <p>
+ * The transaction attributes are only known once the transaction has started, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which fetches the connection on the first
+ * statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Past this number of users, the writes older than the window are evicted.
+     */
+    private static final int MAX_TRACKED_WRITERS = 10_000;
+
+    /**
+     * Target of a connection.
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA,
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    private final long readYourWritesWindowNanos;
+
+    private final Supplier<Optional<String>> currentUser;
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    private final Counter writeCounter;
+
+    private final Counter readCounter;
+
+    private final Counter laggingReplicaCounter;
+
+    private final Counter readYourWritesCounter;
+
+    public ReadWriteRoutingDataSource(
+        DataSource primary,
+        DataSource replica,
+        ReplicaLagMonitor replicaLagMonitor,
+        Duration readYourWritesWindow,
+        Supplier<Optional<String>> currentUser,
+        MeterRegistry meterRegistry
+    ) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        this.currentUser = currentUser;
+        this.writeCounter = routeCounter(meterRegistry, Route.PRIMARY, "read-write");
+        this.readCounter = routeCounter(meterRegistry, Route.REPLICA, "read-only");
+        this.laggingReplicaCounter = routeCounter(meterRegistry, Route.PRIMARY, "replica-lag");
+        this.readYourWritesCounter = routeCounter(meterRegistry, Route.PRIMARY, "read-your-writes");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            writeCounter.increment();
+            return Route.PRIMARY;
+        }
+        if (!replicaLagMonitor.isUsable()) {
+            laggingReplicaCounter.increment();
+            return Route.PRIMARY;
+        }
+        if (hasRecentWrite()) {
+            readYourWritesCounter.increment();
+            return Route.PRIMARY;
+        }
+        readCounter.increment();
+        return Route.REPLICA;
+    }
+
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        currentUser
+            .get()
+            .ifPresent(user ->
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            recordWrite(user);
+                        }
+                    }
+                )
+            );
+    }
+
+    private void recordWrite(String user) {
+        long now = System.nanoTime();
+        lastWriteNanos.put(user, now);
+        if (lastWriteNanos.size() > MAX_TRACKED_WRITERS) {
+            lastWriteNanos.values().removeIf(writeNanos -> now - writeNanos > readYourWritesWindowNanos);
+        }
+    }
+
+    private boolean hasRecentWrite() {
+        if (lastWriteNanos.isEmpty()) {
+            return false;
+        }
+        String user = currentUser.get().orElse(null);
+        Long writeNanos = user != null ? lastWriteNanos.get(user) : null;
+        if (writeNanos == null) {
+            return false;
+        }
+        if (System.nanoTime() - writeNanos > readYourWritesWindowNanos) {
+            lastWriteNanos.remove(user, writeNanos);
+            return false;
+        }
+        return true;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter
+            .builder("books.datasource.route")
+            .description("Connections fetched by the routing data source")
+            .tag("target", route.name().toLowerCase())
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.book.app.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Measures the replication lag of the read replica, and tells whether it is fresh enough to serve reads.
+ * <p>
+ * The lag is queried periodically with {@code application.datasource.read.lag-query}, which returns the lag in
+ * seconds. The replica is not used before its first check, while its lag is over
+ * {@code application.datasource.read.max-lag}, or when the lag cannot be queried. The lag is published in
+ * {@code books.datasource.replica.lag}, and the state in {@code books.datasource.replica.usable}.
+ */
+public class ReplicaLagMonitor {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+
+    private final String lagQuery;
+
+    private final double maxLagSeconds;
+
+    private volatile double lagSeconds = Double.NaN;
+
+    private volatile boolean usable = false;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        Gauge
+            .builder("books.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+            .description("Replication lag of the read replica")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge
+            .builder("books.datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+            .description("Whether read-only transactions are sent to the read replica")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.read.lag-check-interval:PT1S}")
+    public void checkLag() {
+        boolean wasUsable = usable;
+        try {
+            lagSeconds = queryLag();
+            usable = lagSeconds <= maxLagSeconds;
+            if (wasUsable && !usable) {
+                log.warn("Read replica lags {} s behind the primary, reading from the primary", lagSeconds);
+            } else if (!wasUsable && usable) {
+                log.info("Read replica lags {} s behind the primary, reading from the replica", lagSeconds);
+            }
+        } catch (SQLException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Could not query the lag of the read replica, reading from the primary: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if read-only transactions can be sent to the replica.
+     */
+    public boolean isUsable() {
+        return usable;
+    }
+
+    private double queryLag() throws SQLException {
+        try (
+            Connection connection = replica.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery(lagQuery)
+        ) {
+            if (!resultSet.next()) {
+                throw new SQLException("The replica lag query returned no row");
+            }
+            return resultSet.getDouble(1);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.book.app.jdbc;
+
+/**
+ * Thrown when a request is about to execute more SQL statements than its budget, with
+ * {@code application.sql-budget.mode=fail}.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SqlBudgetExceededException(int budget, String sql) {
+        super("SQL statement budget of " + budget + " exceeded, by: " + sql);
+    }
+}
@@ -0,0 +1,118 @@
+package com.book.app.jdbc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The SQL statements executed by a thread during a scope, usually an HTTP request (see {@link SqlStatisticsHolder}).
+ * <p>
+ * Instances are confined to the thread which executes the statements, and are not thread safe.
+ */
+public final class SqlStatistics {
+
+    private final SqlStatistics enclosing;
+
+    private int statements;
+
+    private long rows;
+
+    private long jdbcMillis;
+
+    private boolean budgetExceeded;
+
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    SqlStatistics(SqlStatistics enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    SqlStatistics getEnclosing() {
+        return enclosing;
+    }
+
+    void add(SqlStatistics nested) {
+        statements += nested.statements;
+        rows += nested.rows;
+        jdbcMillis += nested.jdbcMillis;
+        budgetExceeded |= nested.budgetExceeded;
+        nested.executionsBySql.forEach((sql, executions) -> executionsBySql.merge(sql, executions, Integer::sum));
+    }
+
+    void recordStatement(String sql, int batchSize) {
+        statements += batchSize;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void addRows(long count) {
+        rows += count;
+    }
+
+    void addJdbcTime(long millis) {
+        jdbcMillis += millis;
+    }
+
+    void markBudgetExceeded() {
+        budgetExceeded = true;
+    }
+
+    /**
+     * @return the number of statements executed, counting each statement of a batch.
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return the number of rows read from the result sets, plus the number of rows updated.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the time spent executing the statements, in milliseconds.
+     */
+    public long getJdbcMillis() {
+        return jdbcMillis;
+    }
+
+    /**
+     * @return whether a statement over the budget was refused, with {@code application.sql-budget.mode=fail}; the
+     * refused statements are not counted.
+     */
+    public boolean isBudgetExceeded() {
+        return budgetExceeded;
+    }
+
+    /**
+     * Get how many times each SQL string was sent to the database, a batch counting once. The same SQL executed many
+     * times in a request is the signature of an N+1 select.
+     *
+     * @return the number of executions by SQL string.
+     */
+    public Map<String, Integer> getExecutionsBySql() {
+        return executionsBySql;
+    }
+
+    /**
+     * @return the SQL string executed the most times, or {@code null} if no statement was executed.
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        return executionsBySql.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "SqlStatistics{statements=" +
+            statements +
+            ", rows=" +
+            rows +
+            ", jdbcMillis=" +
+            jdbcMillis +
+            ", budgetExceeded=" +
+            budgetExceeded +
+            "}"
+        );
+    }
+}
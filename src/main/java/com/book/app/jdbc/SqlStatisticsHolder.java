@@ -0,0 +1,63 @@
+package com.book.app.jdbc;
+
+/**
+ * Holds the {@link SqlStatistics} of the current thread.
+ * <p>
+ * Scopes can be nested: the statements of a scope are also added to its enclosing scope when it is stopped. Statements
+ * executed outside of any scope, for example by scheduled jobs, are not recorded.
+ */
+public final class SqlStatisticsHolder {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private SqlStatisticsHolder() {}
+
+    /**
+     * Start recording the statements of the current thread in a new scope.
+     *
+     * @return the statistics of the new scope, to pass to {@link #stop(SqlStatistics)}.
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stop a scope, and go back to its enclosing scope.
+     *
+     * @param statistics the statistics returned by {@link #start()}.
+     */
+    public static void stop(SqlStatistics statistics) {
+        SqlStatistics enclosing = statistics.getEnclosing();
+        if (enclosing != null) {
+            enclosing.add(statistics);
+            CURRENT.set(enclosing);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return the statistics of the current scope, or {@code null} if statements are not recorded.
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Record the statements executed by an action, in a scope of its own.
+     *
+     * @param action the action.
+     * @return the statements executed by the action.
+     */
+    public static SqlStatistics measure(Runnable action) {
+        SqlStatistics statistics = start();
+        try {
+            action.run();
+        } finally {
+            stop(statistics);
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,80 @@
+package com.book.app.jdbc;
+
+import java.sql.ResultSet;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * datasource-proxy listener recording the statements, rows and JDBC time in the {@link SqlStatistics} of the current
+ * thread.
+ * <p>
+ * Rows are counted on the {@link ResultSet#next()} calls, so only the rows actually read by Hibernate are counted.
+ */
+public class SqlStatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private final int maxStatements;
+
+    private final boolean failOnBudgetExceeded;
+
+    /**
+     * @param maxStatements the statement budget of a scope.
+     * @param failOnBudgetExceeded throw a {@link SqlBudgetExceededException} instead of executing a statement over the budget.
+     */
+    public SqlStatisticsListener(int maxStatements, boolean failOnBudgetExceeded) {
+        this.maxStatements = maxStatements;
+        this.failOnBudgetExceeded = failOnBudgetExceeded;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatisticsHolder.current();
+        if (failOnBudgetExceeded && statistics != null && statistics.getStatements() >= maxStatements) {
+            statistics.markBudgetExceeded();
+            throw new SqlBudgetExceededException(maxStatements, queryInfoList.get(0).getQuery());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatisticsHolder.current();
+        if (statistics == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            // a prepared statement batch has one QueryInfo with a parameter set per statement
+            statistics.recordStatement(queryInfo.getQuery(), Math.max(1, queryInfo.getParametersList().size()));
+        }
+        statistics.addJdbcTime(execInfo.getElapsedTime());
+        Object result = execInfo.getResult();
+        if (result instanceof Integer updated) {
+            statistics.addRows(Math.max(0, updated));
+        } else if (result instanceof int[] batchUpdated) {
+            for (int updated : batchUpdated) {
+                statistics.addRows(Math.max(0, updated));
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        // Nothing to do.
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (
+            executionContext.getTarget() instanceof ResultSet &&
+            "next".equals(executionContext.getMethod().getName()) &&
+            Boolean.TRUE.equals(executionContext.getResult())
+        ) {
+            SqlStatistics statistics = SqlStatisticsHolder.current();
+            if (statistics != null) {
+                statistics.addRows(1);
+            }
+        }
+    }
+}
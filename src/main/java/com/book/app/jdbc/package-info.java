@@ -0,0 +1,4 @@
+/**
+ * JDBC statement instrumentation.
+ */
+package com.book.app.jdbc;
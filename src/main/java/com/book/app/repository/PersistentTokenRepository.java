@@ -3,8 +3,13 @@ package com.book.app.repository;
 import com.book.app.domain.PersistentToken;
 import com.book.app.domain.User;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Spring Data JPA repository for the {@link PersistentToken} entity.
@@ -13,4 +18,15 @@ public interface PersistentTokenRepository extends JpaRepository<PersistentToken
     List<PersistentToken> findByUser(User user);
 
     List<PersistentToken> findByTokenDateBefore(LocalDate localDate);
+
+    @Query("select t.series from PersistentToken t where t.tokenDate < :localDate order by t.tokenDate")
+    List<String> findSeriesByTokenDateBefore(@Param("localDate") LocalDate localDate, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from PersistentToken t where t.series in :series")
+    int deleteAllBySeriesIn(@Param("series") Collection<String> series);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from PersistentToken t where t.user.id in :userIds")
+    int deleteAllByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
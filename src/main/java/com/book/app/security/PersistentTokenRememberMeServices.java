@@ -8,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
@@ -57,12 +58,20 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
 
     private static final long UPGRADED_TOKEN_VALIDITY_MILLIS = 5000l;
 
+    private static final int SERIES_LOCK_STRIPES = 64;
+
     private final PersistentTokenCache<UpgradedRememberMeToken> upgradedTokenCache;
 
     private final PersistentTokenRepository persistentTokenRepository;
 
     private final UserRepository userRepository;
 
+    // ReentrantLock rather than synchronized, as it does not pin virtual threads while the token is saved
+    private final ReentrantLock[] seriesLocks = new ReentrantLock[SERIES_LOCK_STRIPES];
+
+    // the cache is shared by all the series, and is not thread-safe: it purges its expired tokens on each access
+    private final ReentrantLock upgradedTokenCacheLock = new ReentrantLock();
+
     public PersistentTokenRememberMeServices(
         JHipsterProperties jHipsterProperties,
         org.springframework.security.core.userdetails.UserDetailsService userDetailsService,
@@ -73,13 +82,17 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
         this.persistentTokenRepository = persistentTokenRepository;
         this.userRepository = userRepository;
         upgradedTokenCache = new PersistentTokenCache<>(UPGRADED_TOKEN_VALIDITY_MILLIS);
+        Arrays.setAll(seriesLocks, i -> new ReentrantLock());
     }
 
     @Override
     protected UserDetails processAutoLoginCookie(String[] cookieTokens, HttpServletRequest request, HttpServletResponse response) {
-        synchronized (this) { // prevent 2 authentication requests from the same user in parallel
+        // prevent 2 authentication requests with the same token in parallel
+        ReentrantLock seriesLock = seriesLocks[Math.floorMod(cookieTokens[0].hashCode(), SERIES_LOCK_STRIPES)];
+        seriesLock.lock();
+        try {
             String login = null;
-            UpgradedRememberMeToken upgradedToken = upgradedTokenCache.get(cookieTokens[0]);
+            UpgradedRememberMeToken upgradedToken = getUpgradedToken(cookieTokens[0]);
             if (upgradedToken != null) {
                 login = upgradedToken.getUserLoginIfValid(cookieTokens);
                 log.debug("Detected previously upgraded login token for user '{}'", login);
@@ -102,9 +115,11 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
                     throw new RememberMeAuthenticationException("Autologin failed due to data access problem", e);
                 }
                 addCookie(token, request, response);
-                upgradedTokenCache.put(cookieTokens[0], new UpgradedRememberMeToken(cookieTokens, login));
+                putUpgradedToken(cookieTokens[0], new UpgradedRememberMeToken(cookieTokens, login));
             }
             return getUserDetailsService().loadUserByUsername(login);
+        } finally {
+            seriesLock.unlock();
         }
     }
 
@@ -192,6 +207,24 @@ public class PersistentTokenRememberMeServices extends AbstractRememberMeService
         return token;
     }
 
+    private UpgradedRememberMeToken getUpgradedToken(String series) {
+        upgradedTokenCacheLock.lock();
+        try {
+            return upgradedTokenCache.get(series);
+        } finally {
+            upgradedTokenCacheLock.unlock();
+        }
+    }
+
+    private void putUpgradedToken(String series, UpgradedRememberMeToken upgradedToken) {
+        upgradedTokenCacheLock.lock();
+        try {
+            upgradedTokenCache.put(series, upgradedToken);
+        } finally {
+            upgradedTokenCacheLock.unlock();
+        }
+    }
+
     private void addCookie(PersistentToken token, HttpServletRequest request, HttpServletResponse response) {
         setCookie(new String[] { token.getSeries(), token.getTokenValue() }, TOKEN_VALIDITY_SECONDS, request, response);
     }
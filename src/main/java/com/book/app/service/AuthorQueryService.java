@@ -1,15 +1,24 @@
 package com.book.app.service;
 
 import com.book.app.domain.*; // for static metamodels
+import com.book.app.config.ApplicationProperties;
 import com.book.app.domain.Author;
 import com.book.app.repository.AuthorRepository;
 import com.book.app.service.criteria.AuthorCriteria;
+import com.book.app.service.query.PageQueryExecutor;
+import com.book.app.service.query.QueryConditions;
+import com.book.app.service.query.QueryPath;
+import com.book.app.service.query.QueryPlanCache;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.JoinType;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,17 +29,37 @@ import tech.jhipster.service.QueryService;
  * The main input is a {@link AuthorCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link List} of {@link Author} or a {@link Page} of {@link Author} which fulfills the criteria.
+ * The queries are executed from the cached {@link QueryPlanCache plan} of the shape of the criteria, unless sorted
+ * on properties the plans don't support.
  */
 @Service
 @Transactional(readOnly = true)
 public class AuthorQueryService extends QueryService<Author> {
 
+    private static final QueryPath ID = QueryPath.attribute(Author_.ID);
+
+    private static final QueryPath NAME = QueryPath.attribute(Author_.NAME);
+
+    // checked with exists (select 1 from Books ...), which needs neither a join nor distinct
+    private static final QueryPath BOOKS_ID = QueryPath.exists(Books.class.getSimpleName(), Books_.AUTHOR, Books_.ID);
+
     private final Logger log = LoggerFactory.getLogger(AuthorQueryService.class);
 
     private final AuthorRepository authorRepository;
 
-    public AuthorQueryService(AuthorRepository authorRepository) {
+    private final QueryPlanCache<Author> queryPlans;
+
+    private final int streamChunkSize;
+
+    public AuthorQueryService(
+        AuthorRepository authorRepository,
+        EntityManager entityManager,
+        PageQueryExecutor pageQueryExecutor,
+        ApplicationProperties applicationProperties
+    ) {
         this.authorRepository = authorRepository;
+        this.queryPlans = new QueryPlanCache<>(entityManager, Author.class, Set.of(Author_.ID, Author_.NAME), pageQueryExecutor);
+        this.streamChunkSize = applicationProperties.getQuery().getStreaming().getChunkSize();
     }
 
     /**
@@ -41,8 +70,7 @@ public class AuthorQueryService extends QueryService<Author> {
     @Transactional(readOnly = true)
     public List<Author> findByCriteria(AuthorCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<Author> specification = createSpecification(criteria);
-        return authorRepository.findAll(specification);
+        return queryPlans.findAll(createConditions(criteria), Sort.unsorted());
     }
 
     /**
@@ -54,10 +82,30 @@ public class AuthorQueryService extends QueryService<Author> {
     @Transactional(readOnly = true)
     public Page<Author> findByCriteria(AuthorCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        if (queryPlans.supports(page.getSort())) {
+            return queryPlans.findAll(createConditions(criteria), page);
+        }
         final Specification<Author> specification = createSpecification(criteria);
         return authorRepository.findAll(specification, page);
     }
 
+    /**
+     * Pass the {@link Author}s of a page which match the criteria to a consumer, as they are read from the database;
+     * they must not be used once consumed.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be streamed.
+     * @param consumer The consumer of the matching entities, in order.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCriteria(AuthorCriteria criteria, Pageable page, Consumer<? super Author> consumer) {
+        log.debug("stream by criteria : {}, page: {}", criteria, page);
+        if (queryPlans.supports(page.getSort())) {
+            queryPlans.stream(createConditions(criteria), page, streamChunkSize, consumer);
+        } else {
+            authorRepository.findAll(createSpecification(criteria), page).forEach(consumer);
+        }
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -66,8 +114,29 @@ public class AuthorQueryService extends QueryService<Author> {
     @Transactional(readOnly = true)
     public long countByCriteria(AuthorCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        final Specification<Author> specification = createSpecification(criteria);
-        return authorRepository.count(specification);
+        return queryPlans.count(createConditions(criteria));
+    }
+
+    /**
+     * Function to convert {@link AuthorCriteria} to {@link QueryConditions}, equivalent to its {@link Specification}.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link QueryConditions}.
+     */
+    protected QueryConditions createConditions(AuthorCriteria criteria) {
+        QueryConditions conditions = new QueryConditions();
+        if (criteria != null) {
+            conditions.distinct(criteria.getDistinct());
+            if (criteria.getId() != null) {
+                conditions.rangeFilter(ID, criteria.getId());
+            }
+            if (criteria.getName() != null) {
+                conditions.stringFilter(NAME, criteria.getName());
+            }
+            if (criteria.getBooksId() != null) {
+                conditions.filter(BOOKS_ID, criteria.getBooksId());
+            }
+        }
+        return conditions;
     }
 
     /**
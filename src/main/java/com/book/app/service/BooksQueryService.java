@@ -1,18 +1,37 @@
 package com.book.app.service;
 
 import com.book.app.domain.*; // for static metamodels
+import com.book.app.config.ApplicationProperties;
 import com.book.app.domain.Books;
 import com.book.app.repository.BooksRepository;
+import com.book.app.service.catalog.CatalogSnapshot;
 import com.book.app.service.criteria.BooksCriteria;
-import jakarta.persistence.criteria.JoinType;
+import com.book.app.service.dto.BooksFacetsDTO;
+import com.book.app.service.query.PageQueryExecutor;
+import com.book.app.service.query.QueryConditions;
+import com.book.app.service.query.QueryPath;
+import com.book.app.service.query.QueryPlanCache;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import io.micrometer.core.instrument.Tags;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 import tech.jhipster.service.QueryService;
 
 /**
@@ -20,17 +39,68 @@ import tech.jhipster.service.QueryService;
  * The main input is a {@link BooksCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link List} of {@link Books} or a {@link Page} of {@link Books} which fulfills the criteria.
+ * The queries are executed from the cached {@link QueryPlanCache plan} of the shape of the criteria, unless sorted
+ * on properties the plans don't support.
+ * The facets of the matching entities are grouped by the database, one query per facet, in parallel with the read pool.
+ * The pages and counts are answered by the {@link CatalogSnapshot} when it is loaded, the entities of a page then being
+ * read by id.
  */
 @Service
 @Transactional(readOnly = true)
 public class BooksQueryService extends QueryService<Books> {
 
+    private static final QueryPath ID = QueryPath.attribute(Books_.ID);
+
+    private static final QueryPath TITLE = QueryPath.attribute(Books_.TITLE);
+
+    private static final QueryPath PRICE = QueryPath.attribute(Books_.PRICE);
+
+    // compared on books.author_id, without joining the authors
+    private static final QueryPath AUTHOR_ID = QueryPath.foreignKey(Books_.AUTHOR, Author_.ID);
+
+    private static final String AUTHOR_FACET = QueryPlanCache.ROOT + "." + Books_.AUTHOR + "." + Author_.ID;
+
+    private static final String COUNT = "count(" + QueryPlanCache.ROOT + ")";
+
+    private static final int MAX_PRICE_BUCKETS = 1000;
+
     private final Logger log = LoggerFactory.getLogger(BooksQueryService.class);
 
     private final BooksRepository booksRepository;
 
-    public BooksQueryService(BooksRepository booksRepository) {
+    private final QueryPlanCache<Books> queryPlans;
+
+    private final PageQueryExecutor pageQueryExecutor;
+
+    private final double priceBucketWidth;
+
+    private final String priceBucket;
+
+    private final int authorFacetSize;
+
+    private final CatalogSnapshot catalogSnapshot;
+
+    private final int streamChunkSize;
+
+    public BooksQueryService(
+        BooksRepository booksRepository,
+        EntityManager entityManager,
+        PageQueryExecutor pageQueryExecutor,
+        ApplicationProperties applicationProperties,
+        CatalogSnapshot catalogSnapshot
+    ) {
         this.booksRepository = booksRepository;
+        this.queryPlans =
+            new QueryPlanCache<>(entityManager, Books.class, Set.of(Books_.ID, Books_.TITLE, Books_.PRICE), pageQueryExecutor);
+        this.pageQueryExecutor = pageQueryExecutor;
+        this.priceBucketWidth = applicationProperties.getQuery().getPriceBucketWidth();
+        Assert.isTrue(priceBucketWidth > 0, "The price bucket width must be positive");
+        // a literal of the configuration, so that the plan is the same for all the requests of a shape
+        this.priceBucket =
+            "floor(" + QueryPlanCache.ROOT + "." + Books_.PRICE + " / " + BigDecimal.valueOf(priceBucketWidth).toPlainString() + ")";
+        this.authorFacetSize = applicationProperties.getQuery().getAuthorFacetSize();
+        this.catalogSnapshot = catalogSnapshot;
+        this.streamChunkSize = applicationProperties.getQuery().getStreaming().getChunkSize();
     }
 
     /**
@@ -41,8 +111,7 @@ public class BooksQueryService extends QueryService<Books> {
     @Transactional(readOnly = true)
     public List<Books> findByCriteria(BooksCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<Books> specification = createSpecification(criteria);
-        return booksRepository.findAll(specification);
+        return queryPlans.findAll(createConditions(criteria), Sort.unsorted());
     }
 
     /**
@@ -54,8 +123,37 @@ public class BooksQueryService extends QueryService<Books> {
     @Transactional(readOnly = true)
     public Page<Books> findByCriteria(BooksCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        Optional<Page<Long>> ids = catalogSnapshot.findIds(criteria, page);
+        if (ids.isPresent()) {
+            return new PageImpl<>(findAllInOrder(ids.get().getContent()), page, ids.get().getTotalElements());
+        }
+        Pageable idOnTies = idOnTies(page);
+        if (queryPlans.supports(idOnTies.getSort())) {
+            return queryPlans.findAll(createConditions(criteria), idOnTies);
+        }
         final Specification<Books> specification = createSpecification(criteria);
-        return booksRepository.findAll(specification, page);
+        return booksRepository.findAll(specification, idOnTies);
+    }
+
+    /**
+     * Pass the {@link Books} of a page which match the criteria to a consumer, as they are read from the database;
+     * they must not be used once consumed.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be streamed.
+     * @param consumer The consumer of the matching entities, in order.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCriteria(BooksCriteria criteria, Pageable page, Consumer<? super Books> consumer) {
+        log.debug("stream by criteria : {}, page: {}", criteria, page);
+        Optional<Page<Long>> ids = catalogSnapshot.findIds(criteria, page);
+        Pageable idOnTies = idOnTies(page);
+        if (ids.isPresent()) {
+            findAllInOrder(ids.get().getContent()).forEach(consumer);
+        } else if (queryPlans.supports(idOnTies.getSort())) {
+            queryPlans.stream(createConditions(criteria), idOnTies, streamChunkSize, consumer);
+        } else {
+            booksRepository.findAll(createSpecification(criteria), idOnTies).forEach(consumer);
+        }
     }
 
     /**
@@ -66,8 +164,103 @@ public class BooksQueryService extends QueryService<Books> {
     @Transactional(readOnly = true)
     public long countByCriteria(BooksCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        final Specification<Books> specification = createSpecification(criteria);
-        return booksRepository.count(specification);
+        return catalogSnapshot.count(criteria).orElseGet(() -> queryPlans.count(createConditions(criteria)));
+    }
+
+    /**
+     * The database leaves the ties of the sort unordered: ordered by id, as in the {@link CatalogSnapshot}, the pages do
+     * not overlap, and are the same whether the snapshot or the database answers them.
+     */
+    private static Pageable idOnTies(Pageable page) {
+        if (page.isUnpaged() || page.getSort().getOrderFor(Books_.ID) != null) {
+            return page;
+        }
+        return PageRequest.of(page.getPageNumber(), page.getPageSize(), page.getSort().and(Sort.by(Books_.ID)));
+    }
+
+    /**
+     * The books deleted since the snapshot are left out of the page.
+     */
+    private List<Books> findAllInOrder(List<Long> ids) {
+        LongObjectHashMap<Books> books = new LongObjectHashMap<>(ids.size());
+        for (Books book : booksRepository.findAllById(ids)) {
+            books.put(book.getId(), book);
+        }
+        List<Books> page = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Books book = books.get(id);
+            if (book != null) {
+                page.add(book);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Return the facets of the {@link Books} which match the criteria, each grouped by the database in its own query,
+     * the queries running in parallel when the pages are counted in parallel, see {@link PageQueryExecutor#fork}.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the facets of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public BooksFacetsDTO facetsByCriteria(BooksCriteria criteria) {
+        log.debug("facets by criteria : {}", criteria);
+        QueryConditions conditions = createConditions(criteria);
+        Supplier<List<BooksFacetsDTO.AuthorFacet>> authors = pageQueryExecutor.fork(
+            "books.query.facet",
+            Tags.of("entity", Books.class.getSimpleName(), "facet", "authors"),
+            () -> authorFacets(conditions)
+        );
+        Supplier<List<BooksFacetsDTO.PriceBucket>> prices = pageQueryExecutor.fork(
+            "books.query.facet",
+            Tags.of("entity", Books.class.getSimpleName(), "facet", "prices"),
+            () -> priceBuckets(conditions)
+        );
+        return new BooksFacetsDTO(authors.get(), prices.get());
+    }
+
+    private List<BooksFacetsDTO.AuthorFacet> authorFacets(QueryConditions conditions) {
+        return queryPlans
+            .aggregate(conditions, AUTHOR_FACET + ", " + COUNT, AUTHOR_FACET, COUNT + " desc, " + AUTHOR_FACET, authorFacetSize)
+            .stream()
+            .map(row -> new BooksFacetsDTO.AuthorFacet((Long) row[0], ((Number) row[1]).longValue()))
+            .toList();
+    }
+
+    private List<BooksFacetsDTO.PriceBucket> priceBuckets(QueryConditions conditions) {
+        return queryPlans
+            .aggregate(conditions, priceBucket + ", " + COUNT, priceBucket, priceBucket, MAX_PRICE_BUCKETS)
+            .stream()
+            .map(row -> {
+                double from = ((Number) row[0]).doubleValue() * priceBucketWidth;
+                return new BooksFacetsDTO.PriceBucket(from, from + priceBucketWidth, ((Number) row[1]).longValue());
+            })
+            .toList();
+    }
+
+    /**
+     * Function to convert {@link BooksCriteria} to {@link QueryConditions}, equivalent to its {@link Specification}.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link QueryConditions}.
+     */
+    protected QueryConditions createConditions(BooksCriteria criteria) {
+        QueryConditions conditions = new QueryConditions();
+        if (criteria != null) {
+            conditions.distinct(criteria.getDistinct());
+            if (criteria.getId() != null) {
+                conditions.rangeFilter(ID, criteria.getId());
+            }
+            if (criteria.getTitle() != null) {
+                conditions.stringFilter(TITLE, criteria.getTitle());
+            }
+            if (criteria.getPrice() != null) {
+                conditions.rangeFilter(PRICE, criteria.getPrice());
+            }
+            if (criteria.getAuthorId() != null) {
+                conditions.filter(AUTHOR_ID, criteria.getAuthorId());
+            }
+        }
+        return conditions;
     }
 
     /**
@@ -93,9 +286,7 @@ public class BooksQueryService extends QueryService<Books> {
             }
             if (criteria.getAuthorId() != null) {
                 specification =
-                    specification.and(
-                        buildSpecification(criteria.getAuthorId(), root -> root.join(Books_.author, JoinType.LEFT).get(Author_.id))
-                    );
+                    specification.and(buildSpecification(criteria.getAuthorId(), root -> root.get(Books_.author).get(Author_.id)));
             }
         }
         return specification;
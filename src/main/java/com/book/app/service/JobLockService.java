@@ -0,0 +1,103 @@
+package com.book.app.service;
+
+import com.book.app.config.ApplicationProperties;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service providing cluster wide locks for scheduled jobs, backed by the {@code jhi_job_lock} table.
+ * <p>
+ * A lock is a lease: it is held until {@code lock_until}, so a replica which dies while running a job
+ * does not block the job forever. Each lock operation runs in its own transaction, so the lease is
+ * visible to the other replicas as soon as it has been taken.
+ */
+@Service
+public class JobLockService {
+
+    private static final String UPDATE_LOCK =
+        "update jhi_job_lock set lock_until = ?, locked_at = ?, locked_by = ? where name = ? and lock_until <= ?";
+
+    private static final String INSERT_LOCK = "insert into jhi_job_lock (name, lock_until, locked_at, locked_by) values (?, ?, ?, ?)";
+
+    private static final String RELEASE_LOCK = "update jhi_job_lock set lock_until = ? where name = ? and locked_by = ?";
+
+    private final Logger log = LoggerFactory.getLogger(JobLockService.class);
+
+    private final String lockedBy = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Jobs jobsProperties;
+
+    public JobLockService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jobsProperties = applicationProperties.getJobs();
+    }
+
+    /**
+     * Try to acquire the lock for the given job.
+     *
+     * @param name the name of the job.
+     * @return {@code true} if the lock was acquired by this node, {@code false} if another node holds it.
+     */
+    public boolean tryLock(String name) {
+        Instant now = Instant.now();
+        Timestamp lockUntil = Timestamp.from(now.plus(jobsProperties.getLockAtMostFor()));
+        Timestamp lockedAt = Timestamp.from(now);
+        Boolean acquired = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(UPDATE_LOCK, lockUntil, lockedAt, lockedBy, name, lockedAt) > 0) {
+                return true;
+            }
+            try {
+                return jdbcTemplate.update(INSERT_LOCK, name, lockUntil, lockedAt, lockedBy) > 0;
+            } catch (DataIntegrityViolationException e) {
+                // the row exists and the lease is still held by another node
+                status.setRollbackOnly();
+                return false;
+            }
+        });
+        log.debug("Lock '{}' {} by {}", name, Boolean.TRUE.equals(acquired) ? "acquired" : "not acquired", lockedBy);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    /**
+     * Get the identifier of this node, as stored in the {@code locked_by} column.
+     *
+     * @return the node identifier.
+     */
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    /**
+     * Release the lock for the given job, keeping it at least {@code application.jobs.lock-at-least-for}
+     * after it was acquired.
+     *
+     * @param name the name of the job.
+     * @param lockedAt when the lock was acquired.
+     */
+    public void unlock(String name, Instant lockedAt) {
+        Instant minimumLockUntil = lockedAt.plus(jobsProperties.getLockAtLeastFor());
+        Instant now = Instant.now();
+        Timestamp lockUntil = Timestamp.from(now.isAfter(minimumLockUntil) ? now : minimumLockUntil);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(RELEASE_LOCK, lockUntil, name, lockedBy));
+        log.debug("Lock '{}' released by {}", name, lockedBy);
+    }
+}
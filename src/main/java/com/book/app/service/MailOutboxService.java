@@ -0,0 +1,284 @@
+package com.book.app.service;
+
+import com.book.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service delivering the e-mails queued in the {@code jhi_mail_outbox} table.
+ * <p>
+ * Queued e-mails are claimed in batches, and each batch is sent in a single SMTP session (see
+ * {@link JavaMailSender#send(MimeMessage...)}), with up to {@code application.mail.outbox.concurrency} sessions
+ * in parallel on the {@code mailExecutor}. A claim is a lease, so several nodes can drain the outbox
+ * together, and a batch claimed by a node which died is sent again once the lease expires.
+ * E-mails which could not be sent are retried with an exponential backoff, and marked as failed after
+ * {@code application.mail.outbox.max-attempts}.
+ */
+@Service
+public class MailOutboxService {
+
+    public static final String STATUS_PENDING = "PENDING";
+
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final int LAST_ERROR_MAX_LENGTH = 512;
+
+    private static final String INSERT_MAIL =
+        "insert into jhi_mail_outbox (recipient, subject, content, is_multipart, is_html, status, attempts, next_attempt_at, created_date)" +
+        " values (?, ?, ?, ?, ?, '" +
+        STATUS_PENDING +
+        "', 0, ?, ?)";
+
+    private static final String CLAIM_BATCH =
+        "update jhi_mail_outbox set claim_token = ?, next_attempt_at = ? where status = '" +
+        STATUS_PENDING +
+        "' and next_attempt_at <= ? and id in (select id from jhi_mail_outbox where status = '" +
+        STATUS_PENDING +
+        "' and next_attempt_at <= ? order by id limit ?)";
+
+    private static final String SELECT_CLAIMED =
+        "select id, recipient, subject, content, is_multipart, is_html, attempts from jhi_mail_outbox where claim_token = ? order by id";
+
+    private static final String DELETE_SENT = "delete from jhi_mail_outbox where id = ?";
+
+    private static final String UPDATE_FAILED =
+        "update jhi_mail_outbox set status = ?, attempts = ?, next_attempt_at = ?, claim_token = null, last_error = ? where id = ?";
+
+    private static final String COUNT_PENDING = "select count(*) from jhi_mail_outbox where status = '" + STATUS_PENDING + "'";
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.Mail.Outbox outboxProperties;
+
+    private final Executor mailExecutor;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer sessionTimer;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    public MailOutboxService(
+        JdbcTemplate jdbcTemplate,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        @Qualifier("mailExecutor") Executor mailExecutor
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.outboxProperties = applicationProperties.getMail().getOutbox();
+        this.mailExecutor = mailExecutor;
+        this.sentCounter = meterRegistry.counter("books.mail.sent");
+        this.retriedCounter = meterRegistry.counter("books.mail.retried");
+        this.failedCounter = meterRegistry.counter("books.mail.failed");
+        this.sessionTimer = meterRegistry.timer("books.mail.session");
+        Gauge.builder("books.mail.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * An e-mail to send.
+     */
+    public record OutboundMail(String to, String subject, String content, boolean multipart, boolean html) {}
+
+    private record QueuedMail(long id, int attempts, OutboundMail mail) {}
+
+    /**
+     * Queue an e-mail, in the current transaction if there is one: the e-mail is only sent if that transaction commits.
+     *
+     * @param mail the e-mail to send.
+     */
+    public void enqueue(OutboundMail mail) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update(INSERT_MAIL, mail.to(), mail.subject(), mail.content(), mail.multipart(), mail.html(), now, now);
+    }
+
+    /**
+     * Build the MIME message of an e-mail.
+     *
+     * @param mail the e-mail.
+     * @return the MIME message.
+     * @throws MessagingException if the e-mail is invalid, for example because of a malformed recipient.
+     */
+    public MimeMessage createMimeMessage(OutboundMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.multipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.to());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.subject());
+        message.setText(mail.content(), mail.html());
+        return mimeMessage;
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.outbox.poll-interval:PT5S}")
+    public void processOutbox() {
+        if (outboxProperties.isEnabled()) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Send the queued e-mails which are due, until the outbox is drained.
+     *
+     * @return the number of e-mails sent.
+     */
+    public int dispatch() {
+        int sent = 0;
+        boolean drained = false;
+        while (!drained) {
+            List<CompletableFuture<Integer>> sessions = new ArrayList<>();
+            for (int i = 0; i < outboxProperties.getConcurrency() && !drained; i++) {
+                List<QueuedMail> batch = claimBatch();
+                drained = batch.size() < outboxProperties.getBatchSize();
+                if (!batch.isEmpty()) {
+                    sessions.add(CompletableFuture.supplyAsync(() -> send(batch), mailExecutor));
+                }
+            }
+            for (CompletableFuture<Integer> session : sessions) {
+                sent += session.join();
+            }
+        }
+        pending.set(jdbcTemplate.queryForObject(COUNT_PENDING, Long.class));
+        return sent;
+    }
+
+    private List<QueuedMail> claimBatch() {
+        String claimToken = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Timestamp claimedUntil = Timestamp.from(now.plus(outboxProperties.getClaimTimeout()));
+        Timestamp due = Timestamp.from(now);
+        int claimed = jdbcTemplate.update(CLAIM_BATCH, claimToken, claimedUntil, due, due, outboxProperties.getBatchSize());
+        if (claimed == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_CLAIMED, this::mapQueuedMail, claimToken);
+    }
+
+    /**
+     * Send a batch in a single SMTP session.
+     *
+     * @return the number of e-mails sent.
+     */
+    private int send(List<QueuedMail> batch) {
+        Map<MimeMessage, QueuedMail> messages = new IdentityHashMap<>();
+        for (QueuedMail queued : batch) {
+            try {
+                messages.put(createMimeMessage(queued.mail()), queued);
+            } catch (MessagingException e) {
+                // retrying will not fix a malformed e-mail
+                log.warn("Email to '{}' is invalid and will not be sent", queued.mail().to(), e);
+                markFailed(queued, e, true);
+            }
+        }
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        Map<Object, Exception> failedMessages = Map.of();
+        Timer.Sample sample = Timer.start();
+        try {
+            javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failedMessages = allFailed(messages, e);
+        } finally {
+            sample.stop(sessionTimer);
+        }
+        int sent = 0;
+        for (Map.Entry<MimeMessage, QueuedMail> entry : messages.entrySet()) {
+            Exception failure = failedMessages.get(entry.getKey());
+            if (failure == null) {
+                jdbcTemplate.update(DELETE_SENT, entry.getValue().id());
+                sent++;
+            } else {
+                log.warn("Email could not be sent to user '{}'", entry.getValue().mail().to(), failure);
+                markFailed(entry.getValue(), failure, false);
+            }
+        }
+        sentCounter.increment(sent);
+        log.debug("Sent {} of {} emails in one SMTP session", sent, batch.size());
+        return sent;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, QueuedMail> messages, Exception e) {
+        Map<Object, Exception> failedMessages = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failedMessages.put(message, e));
+        return failedMessages;
+    }
+
+    private void markFailed(QueuedMail queued, Exception failure, boolean permanent) {
+        int attempts = queued.attempts() + 1;
+        String lastError = String.valueOf(failure.getMessage());
+        if (lastError.length() > LAST_ERROR_MAX_LENGTH) {
+            lastError = lastError.substring(0, LAST_ERROR_MAX_LENGTH);
+        }
+        if (permanent || attempts >= outboxProperties.getMaxAttempts()) {
+            failedCounter.increment();
+            jdbcTemplate.update(UPDATE_FAILED, STATUS_FAILED, attempts, Timestamp.from(Instant.now()), lastError, queued.id());
+        } else {
+            retriedCounter.increment();
+            Timestamp nextAttemptAt = Timestamp.from(Instant.now().plus(backoff(attempts)));
+            jdbcTemplate.update(UPDATE_FAILED, STATUS_PENDING, attempts, nextAttemptAt, lastError, queued.id());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = outboxProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(outboxProperties.getMaxBackoff()) > 0 ? outboxProperties.getMaxBackoff() : backoff;
+    }
+
+    private QueuedMail mapQueuedMail(ResultSet rs, int rowNum) throws SQLException {
+        return new QueuedMail(
+            rs.getLong("id"),
+            rs.getInt("attempts"),
+            new OutboundMail(
+                rs.getString("recipient"),
+                rs.getString("subject"),
+                rs.getString("content"),
+                rs.getBoolean("is_multipart"),
+                rs.getBoolean("is_html")
+            )
+        );
+    }
+}
@@ -1,59 +1,71 @@
 package com.book.app.service;
 
+import com.book.app.config.ApplicationProperties;
 import com.book.app.domain.User;
+import com.book.app.service.MailOutboxService.OutboundMail;
+import com.book.app.service.MailTemplateRenderer.RenderedMail;
 import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
-import java.util.Locale;
+import java.util.List;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
-import tech.jhipster.config.JHipsterProperties;
 
 /**
  * Service for sending emails asynchronously.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * E-mails are sent asynchronously, on the dedicated {@code mailExecutor}.
+ * <p>
+ * With {@code application.mail.outbox.enabled}, e-mails are queued instead, and sent in batches by the {@link MailOutboxService}.
+ * They are queued on the thread of the caller, in its transaction: an e-mail is only sent if the transaction which
+ * asked for it commits.
  */
 @Service
 public class MailService {
 
     private final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private static final String USER = "user";
-
-    private static final String BASE_URL = "baseUrl";
+    private final JavaMailSender javaMailSender;
 
-    private final JHipsterProperties jHipsterProperties;
+    private final MailTemplateRenderer mailTemplateRenderer;
 
-    private final JavaMailSender javaMailSender;
+    private final MailOutboxService mailOutboxService;
 
-    private final MessageSource messageSource;
+    private final ApplicationProperties.Mail.Outbox outboxProperties;
 
-    private final SpringTemplateEngine templateEngine;
+    private final Executor mailExecutor;
 
     public MailService(
-        JHipsterProperties jHipsterProperties,
         JavaMailSender javaMailSender,
-        MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        MailTemplateRenderer mailTemplateRenderer,
+        MailOutboxService mailOutboxService,
+        ApplicationProperties applicationProperties,
+        @Qualifier("mailExecutor") Executor mailExecutor
     ) {
-        this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+        this.mailTemplateRenderer = mailTemplateRenderer;
+        this.mailOutboxService = mailOutboxService;
+        this.outboxProperties = applicationProperties.getMail().getOutbox();
+        this.mailExecutor = mailExecutor;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        this.sendEmailSync(to, subject, content, isMultipart, isHtml);
+        submit(() -> this.sendEmailSync(to, subject, content, isMultipart, isHtml));
+    }
+
+    /**
+     * Run a task on the {@code mailExecutor}, or on the current thread when the outbox is enabled: queuing an e-mail
+     * does not wait on the SMTP server, and must join the transaction of the caller.
+     */
+    private void submit(Runnable task) {
+        if (outboxProperties.isEnabled()) {
+            task.run();
+        } else {
+            mailExecutor.execute(task);
+        }
     }
 
     private void sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
@@ -66,24 +78,40 @@ public class MailService {
             content
         );
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        OutboundMail mail = new OutboundMail(to, subject, content, isMultipart, isHtml);
+        if (outboxProperties.isEnabled()) {
+            mailOutboxService.enqueue(mail);
+            log.debug("Queued email to User '{}'", to);
+            return;
+        }
         try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
+            javaMailSender.send(mailOutboxService.createMimeMessage(mail));
             log.debug("Sent email to User '{}'", to);
         } catch (MailException | MessagingException e) {
             log.warn("Email could not be sent to user '{}'", to, e);
         }
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
-        this.sendEmailFromTemplateSync(user, templateName, titleKey);
+        submit(() -> this.sendEmailFromTemplateSync(user, templateName, titleKey));
+    }
+
+    /**
+     * Send the same template to many users, for example during a registration campaign. The e-mails are
+     * rendered in parallel by the {@link MailTemplateRenderer}.
+     *
+     * @param users the recipients; users without e-mail are skipped.
+     * @param templateName the name of the template.
+     * @param titleKey the message key of the subject.
+     */
+    public void sendBulkEmailFromTemplate(List<User> users, String templateName, String titleKey) {
+        submit(() -> {
+            List<User> recipients = users.stream().filter(user -> user.getEmail() != null).toList();
+            log.debug("Sending {} emails from template '{}'", recipients.size(), templateName);
+            for (RenderedMail mail : mailTemplateRenderer.renderAll(recipients, templateName, titleKey)) {
+                this.sendEmailSync(mail.user().getEmail(), mail.subject(), mail.content(), false, true);
+            }
+        });
     }
 
     private void sendEmailFromTemplateSync(User user, String templateName, String titleKey) {
@@ -91,30 +119,22 @@ public class MailService {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        this.sendEmailSync(user.getEmail(), subject, content, false, true);
+        RenderedMail mail = mailTemplateRenderer.render(user, templateName, titleKey);
+        this.sendEmailSync(user.getEmail(), mail.subject(), mail.content(), false, true);
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/activationEmail", "email.activation.title");
+        submit(() -> this.sendEmailFromTemplateSync(user, "mail/activationEmail", "email.activation.title"));
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/creationEmail", "email.activation.title");
+        submit(() -> this.sendEmailFromTemplateSync(user, "mail/creationEmail", "email.activation.title"));
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/passwordResetEmail", "email.reset.title");
+        submit(() -> this.sendEmailFromTemplateSync(user, "mail/passwordResetEmail", "email.reset.title"));
     }
 }
@@ -0,0 +1,127 @@
+package com.book.app.service;
+
+import com.book.app.domain.User;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service rendering the e-mail templates.
+ * <p>
+ * Parsed templates are cached by Thymeleaf when {@code spring.thymeleaf.cache} is enabled; with the same setting,
+ * the locale of each language key and the localized subjects are cached here, so that rendering an e-mail only
+ * evaluates the template. Bulk sends are rendered in parallel on the {@code mailRenderExecutor}.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    /**
+     * Number of e-mails rendered by each task of a bulk send.
+     */
+    private static final int BULK_CHUNK_SIZE = 64;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final Executor mailRenderExecutor;
+
+    private final boolean cacheable;
+
+    private final Map<String, Object> baseVariables;
+
+    private final ConcurrentMap<String, Locale> locales = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Locale, ConcurrentMap<String, String>> subjects = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        SpringTemplateEngine templateEngine,
+        MessageSource messageSource,
+        JHipsterProperties jHipsterProperties,
+        ThymeleafProperties thymeleafProperties,
+        @Qualifier("mailRenderExecutor") Executor mailRenderExecutor
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.mailRenderExecutor = mailRenderExecutor;
+        this.cacheable = thymeleafProperties.isCache();
+        this.baseVariables = Collections.singletonMap(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+    }
+
+    /**
+     * A rendered e-mail.
+     */
+    public record RenderedMail(User user, String subject, String content) {}
+
+    /**
+     * Render a template for a user, in the language of the user.
+     *
+     * @param user the user, available as {@code user} in the template.
+     * @param templateName the name of the template, e.g. {@code mail/activationEmail}.
+     * @param titleKey the message key of the subject.
+     * @return the rendered e-mail.
+     */
+    public RenderedMail render(User user, String templateName, String titleKey) {
+        Locale locale = getLocale(user.getLangKey());
+        Context context = new Context(locale, baseVariables);
+        context.setVariable(USER, user);
+        String content = templateEngine.process(templateName, context);
+        return new RenderedMail(user, getSubject(locale, titleKey), content);
+    }
+
+    /**
+     * Render a template for each user, in parallel.
+     *
+     * @param users the users.
+     * @param templateName the name of the template.
+     * @param titleKey the message key of the subject.
+     * @return the rendered e-mails, in the order of the users.
+     */
+    public List<RenderedMail> renderAll(List<User> users, String templateName, String titleKey) {
+        List<CompletableFuture<List<RenderedMail>>> chunks = new ArrayList<>();
+        for (int from = 0; from < users.size(); from += BULK_CHUNK_SIZE) {
+            List<User> chunk = users.subList(from, Math.min(from + BULK_CHUNK_SIZE, users.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> renderChunk(chunk, templateName, titleKey), mailRenderExecutor));
+        }
+        List<RenderedMail> rendered = new ArrayList<>(users.size());
+        chunks.forEach(chunk -> rendered.addAll(chunk.join()));
+        return rendered;
+    }
+
+    private List<RenderedMail> renderChunk(List<User> users, String templateName, String titleKey) {
+        return users.stream().map(user -> render(user, templateName, titleKey)).toList();
+    }
+
+    private Locale getLocale(String langKey) {
+        if (!cacheable) {
+            return Locale.forLanguageTag(langKey);
+        }
+        return locales.computeIfAbsent(langKey, Locale::forLanguageTag);
+    }
+
+    private String getSubject(Locale locale, String titleKey) {
+        if (!cacheable) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects
+            .computeIfAbsent(locale, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(titleKey, key -> messageSource.getMessage(key, null, locale));
+    }
+}
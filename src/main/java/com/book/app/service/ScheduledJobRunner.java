@@ -0,0 +1,191 @@
+package com.book.app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service running the {@code @Scheduled} maintenance jobs once across the cluster.
+ * <p>
+ * Every replica fires the same cron triggers, so before running a job the replica has to win the lease of
+ * the job in the {@code jhi_job_lock} table (see {@link JobLockService}); the other replicas skip that execution.
+ * Each execution is recorded in the {@code jhi_job_run} table, which is what the {@code jobs} actuator endpoint reads.
+ */
+@Service
+public class ScheduledJobRunner {
+
+    public static final String STATUS_SUCCESS = "success";
+
+    public static final String STATUS_FAILURE = "failure";
+
+    private static final String JOB_DURATION_METRIC = "books.jobs.duration";
+
+    private static final String JOB_ROWS_METRIC = "books.jobs.rows";
+
+    private static final String INSERT_RUN =
+        "insert into jhi_job_run (job_name, started_at, finished_at, duration_ms, row_count, status, node) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_RUN = "select job_name, started_at, finished_at, duration_ms, row_count, status, node from jhi_job_run";
+
+    private static final String SELECT_LAST_RUNS = SELECT_RUN + " where id in (select max(id) from jhi_job_run group by job_name)";
+
+    private static final String SELECT_RUNS_BY_JOB = SELECT_RUN + " where job_name = ? order by id desc limit ?";
+
+    private final Logger log = LoggerFactory.getLogger(ScheduledJobRunner.class);
+
+    private final JobLockService jobLockService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate chunkTransactionTemplate;
+
+    public ScheduledJobRunner(
+        JobLockService jobLockService,
+        MeterRegistry meterRegistry,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.jobLockService = jobLockService;
+        this.meterRegistry = meterRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A recorded execution of a job.
+     */
+    public record JobRun(String jobName, Instant startedAt, Instant finishedAt, long durationMs, long rows, String status, String node) {}
+
+    /**
+     * Run the given job if no other node of the cluster is running it.
+     *
+     * @param jobName the name of the job, used as lock name and metric tag.
+     * @param job the job, returning the number of rows it processed.
+     * @return {@code true} if the job was run by this node, {@code false} if it was skipped.
+     */
+    public boolean run(String jobName, LongSupplier job) {
+        return run(jobName, rows -> rows.addAndGet(job.getAsLong()));
+    }
+
+    /**
+     * Run the given job if no other node of the cluster is running it, repeating its chunk in its own transaction
+     * until it processes less than a full batch. The rows of the committed chunks are recorded even when a later chunk
+     * fails.
+     *
+     * @param jobName the name of the job, used as lock name and metric tag.
+     * @param batchSize the rows of a full chunk.
+     * @param chunk the chunk of the job, returning the number of rows it processed.
+     * @return {@code true} if the job was run by this node, {@code false} if it was skipped.
+     */
+    public boolean runInChunks(String jobName, int batchSize, IntSupplier chunk) {
+        return run(
+            jobName,
+            rows -> {
+                int processed;
+                do {
+                    processed = Objects.requireNonNullElse(chunkTransactionTemplate.execute(status -> chunk.getAsInt()), 0);
+                    rows.addAndGet(processed);
+                } while (processed >= batchSize);
+            }
+        );
+    }
+
+    private boolean run(String jobName, Consumer<AtomicLong> job) {
+        Instant startedAt = Instant.now();
+        if (!jobLockService.tryLock(jobName)) {
+            log.debug("Job {} is already running on another node, skipping", jobName);
+            return false;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = STATUS_FAILURE;
+        // the rows processed so far, which a failure does not roll back once committed
+        AtomicLong rows = new AtomicLong();
+        try {
+            job.accept(rows);
+            status = STATUS_SUCCESS;
+            log.info("Job {} processed {} rows", jobName, rows.get());
+            return true;
+        } finally {
+            Instant finishedAt = Instant.now();
+            meterRegistry.counter(JOB_ROWS_METRIC, "job", jobName).increment(rows.get());
+            sample.stop(meterRegistry.timer(JOB_DURATION_METRIC, "job", jobName, "outcome", status));
+            long durationMs = Duration.between(startedAt, finishedAt).toMillis();
+            saveRun(new JobRun(jobName, startedAt, finishedAt, durationMs, rows.get(), status, jobLockService.getLockedBy()));
+            jobLockService.unlock(jobName, startedAt);
+        }
+    }
+
+    /**
+     * Get the last execution of each job, whichever node ran it.
+     *
+     * @return the last runs.
+     */
+    public List<JobRun> findLastRuns() {
+        return jdbcTemplate.query(SELECT_LAST_RUNS, this::mapJobRun);
+    }
+
+    /**
+     * Get the most recent executions of a job.
+     *
+     * @param jobName the name of the job.
+     * @param limit the maximum number of runs to return.
+     * @return the runs, most recent first.
+     */
+    public List<JobRun> findRuns(String jobName, int limit) {
+        return jdbcTemplate.query(SELECT_RUNS_BY_JOB, this::mapJobRun, jobName, limit);
+    }
+
+    private void saveRun(JobRun run) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(
+                    INSERT_RUN,
+                    run.jobName(),
+                    Timestamp.from(run.startedAt()),
+                    Timestamp.from(run.finishedAt()),
+                    run.durationMs(),
+                    run.rows(),
+                    run.status(),
+                    run.node()
+                )
+            );
+        } catch (RuntimeException e) {
+            log.warn("Could not record the run of job {}", run.jobName(), e);
+        }
+    }
+
+    private JobRun mapJobRun(ResultSet rs, int rowNum) throws SQLException {
+        return new JobRun(
+            rs.getString("job_name"),
+            rs.getTimestamp("started_at").toInstant(),
+            rs.getTimestamp("finished_at").toInstant(),
+            rs.getLong("duration_ms"),
+            rs.getLong("row_count"),
+            rs.getString("status"),
+            rs.getString("node")
+        );
+    }
+}
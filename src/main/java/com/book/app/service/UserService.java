@@ -1,5 +1,6 @@
 package com.book.app.service;
 
+import com.book.app.config.ApplicationProperties;
 import com.book.app.config.Constants;
 import com.book.app.domain.Authority;
 import com.book.app.domain.User;
@@ -17,12 +18,16 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -33,6 +38,10 @@ import tech.jhipster.security.RandomUtil;
 @Transactional
 public class UserService {
 
+    private static final String REMOVE_OLD_PERSISTENT_TOKENS_JOB = "removeOldPersistentTokens";
+
+    private static final String REMOVE_NOT_ACTIVATED_USERS_JOB = "removeNotActivatedUsers";
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -45,18 +54,26 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final ScheduledJobRunner scheduledJobRunner;
+
+    private final int batchSize;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         PersistentTokenRepository persistentTokenRepository,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        ScheduledJobRunner scheduledJobRunner,
+        ApplicationProperties applicationProperties
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.persistentTokenRepository = persistentTokenRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.scheduledJobRunner = scheduledJobRunner;
+        this.batchSize = applicationProperties.getJobs().getBatchSize();
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -303,35 +320,53 @@ public class UserService {
      * Persistent Token are used for providing automatic authentication, they should be automatically deleted after
      * 30 days.
      * <p>
-     * This is scheduled to get fired everyday, at midnight.
+     * This is scheduled to get fired everyday, at midnight. Tokens are deleted in chunks of
+     * {@code application.jobs.batch-size}, each chunk being committed on its own.
      */
     @Scheduled(cron = "0 0 0 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeOldPersistentTokens() {
-        LocalDate now = LocalDate.now();
-        persistentTokenRepository
-            .findByTokenDateBefore(now.minusMonths(1))
-            .forEach(token -> {
-                log.debug("Deleting token {}", token.getSeries());
-                User user = token.getUser();
-                user.getPersistentTokens().remove(token);
-                persistentTokenRepository.delete(token);
-            });
+        LocalDate tokenDate = LocalDate.now().minusMonths(1);
+        scheduledJobRunner.runInChunks(REMOVE_OLD_PERSISTENT_TOKENS_JOB, batchSize, () -> deleteOldPersistentTokens(tokenDate));
+    }
+
+    private int deleteOldPersistentTokens(LocalDate tokenDate) {
+        List<String> series = persistentTokenRepository.findSeriesByTokenDateBefore(tokenDate, PageRequest.of(0, batchSize));
+        if (series.isEmpty()) {
+            return 0;
+        }
+        log.debug("Deleting {} tokens older than {}", series.size(), tokenDate);
+        return persistentTokenRepository.deleteAllBySeriesIn(series);
     }
 
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am). Users are deleted in chunks of
+     * {@code application.jobs.batch-size}, each chunk being committed on its own.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        Instant createdDate = Instant.now().minus(3, ChronoUnit.DAYS);
+        scheduledJobRunner.runInChunks(REMOVE_NOT_ACTIVATED_USERS_JOB, batchSize, () -> deleteNotActivatedUsers(createdDate));
+    }
+
+    private int deleteNotActivatedUsers(Instant createdDate) {
+        List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
+            createdDate,
+            PageRequest.of(0, batchSize, Sort.by("id"))
+        );
+        if (users.isEmpty()) {
+            return 0;
+        }
+        log.debug("Deleting {} not activated users", users.size());
+        List<Long> userIds = users.stream().map(User::getId).toList();
+        persistentTokenRepository.deleteAllByUserIdIn(userIds);
+        userRepository.deleteAuthoritiesByUserIdIn(userIds);
+        int deleted = userRepository.deleteAllByIdIn(userIds);
+        this.clearUserCaches(users);
+        return deleted;
     }
 
     /**
@@ -349,4 +384,15 @@ public class UserService {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
     }
+
+    private void clearUserCaches(Collection<User> users) {
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        Cache usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        for (User user : users) {
+            usersByLogin.evict(user.getLogin());
+            if (user.getEmail() != null) {
+                usersByEmail.evict(user.getEmail());
+            }
+        }
+    }
 }
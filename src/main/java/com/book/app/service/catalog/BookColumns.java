@@ -0,0 +1,595 @@
+package com.book.app.service.catalog;
+
+import com.book.app.domain.Books_;
+import com.book.app.service.criteria.BooksCriteria;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * The columns of the books, one row per book: the ids, prices and author ids in primitive arrays, the titles as codes
+ * of a dictionary of the distinct titles, and the sorted rows of each author.
+ * <p>
+ * The criteria are evaluated as {@link com.book.app.service.query.QueryConditions} are by the database: the title
+ * filters once per distinct title, and the author filters from the rows of the authors when they name them. The
+ * columns are not null, as in the database.
+ * <p>
+ * The titles are upper-cased for {@code contains} and {@code doesNotContain} as {@code upper()} does in the usual
+ * locales for ASCII letters only: the other characters are left as they are, and the filters with other characters are
+ * {@linkplain #supports(BooksCriteria) left to the database}, whose upper case depends on its locale.
+ * <p>
+ * A deleted book leaves a dead row, and a replaced title its code, until the columns are reloaded. Not thread-safe:
+ * see {@link CatalogSnapshot}.
+ */
+final class BookColumns {
+
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(Books_.ID, Books_.PRICE);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] ids;
+
+    private double[] prices;
+
+    private long[] authorIds;
+
+    private int[] titleCodes;
+
+    private final BitSet live = new BitSet();
+
+    private int rows;
+
+    private final LongIntHashMap rowsById = new LongIntHashMap();
+
+    private final LongObjectHashMap<IntArrayList> rowsByAuthor = new LongObjectHashMap<>();
+
+    private final List<String> titles = new ArrayList<>();
+
+    private final List<String> upperTitles = new ArrayList<>();
+
+    private final Map<String, Integer> codesByTitle = new HashMap<>();
+
+    BookColumns() {
+        ids = new long[INITIAL_CAPACITY];
+        prices = new double[INITIAL_CAPACITY];
+        authorIds = new long[INITIAL_CAPACITY];
+        titleCodes = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param sort the sort.
+     * @return whether the pages sorted this way can be selected; the titles are sorted by the collation of the
+     *         database, so are not.
+     */
+    static boolean supports(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (order.isIgnoreCase() || !SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param criteria the criteria.
+     * @return whether the books matching the criteria can be selected; the {@code contains} and {@code doesNotContain}
+     *         of the titles must be ASCII.
+     */
+    static boolean supports(@Nullable BooksCriteria criteria) {
+        StringFilter title = criteria == null ? null : criteria.getTitle();
+        return title == null || (isAscii(title.getContains()) && isAscii(title.getDoesNotContain()));
+    }
+
+    /**
+     * @return the number of books.
+     */
+    int size() {
+        return rowsById.size();
+    }
+
+    /**
+     * Adds or replaces a book.
+     */
+    void put(long id, String title, double price, long authorId) {
+        Objects.requireNonNull(title, "title");
+        int row = rowsById.getOrDefault(id, -1);
+        if (row < 0) {
+            row = append(id);
+            // the new row is the last one, so the rows of the author stay sorted
+            rowsOf(authorId).add(row);
+        } else if (authorIds[row] != authorId) {
+            removeFromAuthor(row);
+            IntArrayList authorRows = rowsOf(authorId);
+            authorRows.insert(-Arrays.binarySearch(authorRows.buffer, 0, authorRows.size(), row) - 1, row);
+        }
+        authorIds[row] = authorId;
+        prices[row] = price;
+        titleCodes[row] = titleCode(title);
+    }
+
+    /**
+     * Removes a book, if present.
+     */
+    void remove(long id) {
+        int row = rowsById.getOrDefault(id, -1);
+        if (row >= 0) {
+            rowsById.remove(id);
+            live.clear(row);
+            removeFromAuthor(row);
+        }
+    }
+
+    /**
+     * @param criteria the criteria.
+     * @return the number of matching books.
+     */
+    long count(BooksCriteria criteria) {
+        long[] count = new long[1];
+        scan(criteria, row -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Selects a page of the matching books, keeping only the first rows of the page in order rather than sorting all
+     * the matching rows.
+     *
+     * @param criteria the criteria.
+     * @param pageable the page, whose sort must be {@linkplain #supports(Sort) supported}.
+     * @return the ids of the books of the page, with the number of matching books.
+     */
+    Page<Long> select(BooksCriteria criteria, Pageable pageable) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? (int) Math.min(Integer.MAX_VALUE, offset + pageable.getPageSize()) : Integer.MAX_VALUE;
+        TopRows top = new TopRows(limit, order(pageable.getSort()));
+        scan(criteria, top::offer);
+        int[] sorted = top.sorted();
+        List<Long> content = new ArrayList<>(Math.max(0, sorted.length - (int) Math.min(offset, sorted.length)));
+        for (int i = (int) Math.min(offset, sorted.length); i < sorted.length; i++) {
+            content.add(ids[sorted[i]]);
+        }
+        return new PageImpl<>(content, pageable, top.count);
+    }
+
+    private void scan(@Nullable BooksCriteria criteria, IntConsumer consumer) {
+        IntPredicate predicate = predicate(criteria);
+        int[] candidates = criteria == null || criteria.getAuthorId() == null ? null : authorRows(criteria.getAuthorId());
+        if (candidates == null) {
+            for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+                if (predicate.test(row)) {
+                    consumer.accept(row);
+                }
+            }
+        } else {
+            for (int row : candidates) {
+                if (predicate.test(row)) {
+                    consumer.accept(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the sorted rows of the authors an author filter names, {@code null} when it does not name them.
+     */
+    @Nullable
+    private int[] authorRows(Filter<Long> filter) {
+        if (filter.getEquals() != null) {
+            IntArrayList authorRows = rowsByAuthor.get(filter.getEquals());
+            return authorRows == null ? new int[0] : authorRows.toArray();
+        }
+        if (filter.getIn() != null) {
+            IntArrayList candidates = new IntArrayList();
+            for (Long authorId : new HashSet<>(filter.getIn())) {
+                IntArrayList authorRows = authorId == null ? null : rowsByAuthor.get(authorId);
+                if (authorRows != null) {
+                    candidates.addAll(authorRows);
+                }
+            }
+            int[] sorted = candidates.toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+        return null;
+    }
+
+    private IntPredicate predicate(@Nullable BooksCriteria criteria) {
+        IntPredicate predicate = row -> true;
+        if (criteria == null) {
+            return predicate;
+        }
+        if (criteria.getId() != null) {
+            LongPredicate id = longPredicate(criteria.getId(), true);
+            predicate = predicate.and(row -> id.test(ids[row]));
+        }
+        if (criteria.getTitle() != null) {
+            BitSet codes = titleCodes(criteria.getTitle());
+            predicate = predicate.and(row -> codes.get(titleCodes[row]));
+        }
+        if (criteria.getPrice() != null) {
+            DoublePredicate price = doublePredicate(criteria.getPrice());
+            predicate = predicate.and(row -> price.test(prices[row]));
+        }
+        if (criteria.getAuthorId() != null) {
+            // buildSpecification, not buildRangeSpecification: the range operators are ignored
+            LongPredicate authorId = longPredicate(criteria.getAuthorId(), false);
+            predicate = predicate.and(row -> authorId.test(authorIds[row]));
+        }
+        return predicate;
+    }
+
+    private RowOrder order(Sort sort) {
+        RowOrder order = (a, b) -> 0;
+        for (Sort.Order property : sort) {
+            RowOrder next = Books_.PRICE.equals(property.getProperty())
+                ? (a, b) -> Double.compare(prices[a], prices[b])
+                : (a, b) -> Long.compare(ids[a], ids[b]);
+            order = order.then(property.isAscending() ? next : (a, b) -> next.compare(b, a));
+        }
+        // the database leaves the ties unordered: by id, the pages do not overlap
+        return order.then((a, b) -> Long.compare(ids[a], ids[b]));
+    }
+
+    /**
+     * Same as {@code QueryConditions.stringFilter}, evaluated once per distinct title.
+     *
+     * @return the codes of the matching titles.
+     */
+    private BitSet titleCodes(StringFilter filter) {
+        Predicate<String> title;
+        Predicate<String> upperTitle = upper -> true;
+        if (filter.getEquals() != null) {
+            title = filter.getEquals()::equals;
+        } else if (filter.getIn() != null) {
+            title = new HashSet<>(filter.getIn())::contains;
+        } else {
+            title = specified(filter);
+            if (filter.getNotEquals() != null) {
+                title = title.and(value -> !value.equals(filter.getNotEquals()));
+            }
+            if (filter.getNotIn() != null) {
+                title = title.and(notIn(filter.getNotIn()));
+            }
+            if (filter.getContains() != null) {
+                upperTitle = upperTitle.and(like(filter.getContains()));
+            }
+            if (filter.getDoesNotContain() != null) {
+                upperTitle = upperTitle.and(like(filter.getDoesNotContain()).negate());
+            }
+        }
+        BitSet codes = new BitSet(titles.size());
+        for (int code = 0; code < titles.size(); code++) {
+            if (title.test(titles.get(code)) && upperTitle.test(upperTitles.get(code))) {
+                codes.set(code);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Same as {@code QueryConditions.filter} and {@code QueryConditions.rangeFilter}.
+     */
+    private static LongPredicate longPredicate(Filter<Long> filter, boolean range) {
+        if (filter.getEquals() != null) {
+            long value = filter.getEquals();
+            return candidate -> candidate == value;
+        }
+        if (filter.getIn() != null) {
+            LongHashSet values = longSet(filter.getIn());
+            return values::contains;
+        }
+        if (Boolean.FALSE.equals(filter.getSpecified()) || (filter.getNotIn() != null && filter.getNotIn().contains(null))) {
+            return candidate -> false;
+        }
+        LongPredicate predicate = candidate -> true;
+        if (filter.getNotEquals() != null) {
+            long value = filter.getNotEquals();
+            predicate = predicate.and(candidate -> candidate != value);
+        }
+        if (filter.getNotIn() != null) {
+            LongHashSet values = longSet(filter.getNotIn());
+            predicate = predicate.and(candidate -> !values.contains(candidate));
+        }
+        if (range && filter instanceof RangeFilter<Long> rangeFilter) {
+            if (rangeFilter.getGreaterThan() != null) {
+                long value = rangeFilter.getGreaterThan();
+                predicate = predicate.and(candidate -> candidate > value);
+            }
+            if (rangeFilter.getGreaterThanOrEqual() != null) {
+                long value = rangeFilter.getGreaterThanOrEqual();
+                predicate = predicate.and(candidate -> candidate >= value);
+            }
+            if (rangeFilter.getLessThan() != null) {
+                long value = rangeFilter.getLessThan();
+                predicate = predicate.and(candidate -> candidate < value);
+            }
+            if (rangeFilter.getLessThanOrEqual() != null) {
+                long value = rangeFilter.getLessThanOrEqual();
+                predicate = predicate.and(candidate -> candidate <= value);
+            }
+        }
+        return predicate;
+    }
+
+    /**
+     * Same as {@code QueryConditions.rangeFilter}.
+     */
+    private static DoublePredicate doublePredicate(RangeFilter<Double> filter) {
+        if (filter.getEquals() != null) {
+            double value = filter.getEquals();
+            return candidate -> candidate == value;
+        }
+        if (filter.getIn() != null) {
+            double[] values = sortedDoubles(filter.getIn());
+            return candidate -> Arrays.binarySearch(values, candidate) >= 0;
+        }
+        if (Boolean.FALSE.equals(filter.getSpecified()) || (filter.getNotIn() != null && filter.getNotIn().contains(null))) {
+            return candidate -> false;
+        }
+        DoublePredicate predicate = candidate -> true;
+        if (filter.getNotEquals() != null) {
+            double value = filter.getNotEquals();
+            predicate = predicate.and(candidate -> candidate != value);
+        }
+        if (filter.getNotIn() != null) {
+            double[] values = sortedDoubles(filter.getNotIn());
+            predicate = predicate.and(candidate -> Arrays.binarySearch(values, candidate) < 0);
+        }
+        if (filter.getGreaterThan() != null) {
+            double value = filter.getGreaterThan();
+            predicate = predicate.and(candidate -> candidate > value);
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            double value = filter.getGreaterThanOrEqual();
+            predicate = predicate.and(candidate -> candidate >= value);
+        }
+        if (filter.getLessThan() != null) {
+            double value = filter.getLessThan();
+            predicate = predicate.and(candidate -> candidate < value);
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            double value = filter.getLessThanOrEqual();
+            predicate = predicate.and(candidate -> candidate <= value);
+        }
+        return predicate;
+    }
+
+    private static Predicate<String> specified(StringFilter filter) {
+        if (Boolean.FALSE.equals(filter.getSpecified())) {
+            return value -> false;
+        }
+        return value -> true;
+    }
+
+    private static Predicate<String> notIn(List<String> values) {
+        if (values.contains(null)) {
+            // not in a list with a null is never true
+            return value -> false;
+        }
+        Set<String> set = new HashSet<>(values);
+        return value -> !set.contains(value);
+    }
+
+    /**
+     * Same as {@code upper(title) like '%VALUE%'}: the {@code %} and {@code _} of the value are wildcards, and
+     * {@code \} escapes them.
+     *
+     * @return the predicate on the upper-cased titles.
+     */
+    private static Predicate<String> like(String value) {
+        String upper = upperAscii(value);
+        if (upper.indexOf('%') < 0 && upper.indexOf('_') < 0 && upper.indexOf('\\') < 0) {
+            return title -> title.contains(upper);
+        }
+        StringBuilder regex = new StringBuilder(upper.length() + 16);
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            if (c == '\\' && i + 1 < upper.length()) {
+                regex.append(Pattern.quote(String.valueOf(upper.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        Pattern pattern = Pattern.compile(regex.toString(), Pattern.DOTALL);
+        return title -> pattern.matcher(title).find();
+    }
+
+    private static boolean isAscii(@Nullable String value) {
+        return value == null || value.chars().allMatch(c -> c < 0x80);
+    }
+
+    /**
+     * @return the value with its ASCII letters upper-cased, the other characters left as they are.
+     */
+    private static String upperAscii(String value) {
+        char[] chars = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                if (chars == null) {
+                    chars = value.toCharArray();
+                }
+                chars[i] = (char) (c - ('a' - 'A'));
+            }
+        }
+        return chars == null ? value : new String(chars);
+    }
+
+    private static LongHashSet longSet(List<Long> values) {
+        LongHashSet set = new LongHashSet(values.size());
+        for (Long value : values) {
+            if (value != null) {
+                set.add(value);
+            }
+        }
+        return set;
+    }
+
+    private static double[] sortedDoubles(List<Double> values) {
+        return values.stream().filter(Objects::nonNull).mapToDouble(Double::doubleValue).sorted().toArray();
+    }
+
+    private int append(long id) {
+        if (rows == ids.length) {
+            int capacity = rows + (rows >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            authorIds = Arrays.copyOf(authorIds, capacity);
+            titleCodes = Arrays.copyOf(titleCodes, capacity);
+        }
+        int row = rows++;
+        ids[row] = id;
+        live.set(row);
+        rowsById.put(id, row);
+        return row;
+    }
+
+    private IntArrayList rowsOf(long authorId) {
+        IntArrayList authorRows = rowsByAuthor.get(authorId);
+        if (authorRows == null) {
+            authorRows = new IntArrayList();
+            rowsByAuthor.put(authorId, authorRows);
+        }
+        return authorRows;
+    }
+
+    private void removeFromAuthor(int row) {
+        IntArrayList authorRows = rowsByAuthor.get(authorIds[row]);
+        authorRows.removeFirst(row);
+        if (authorRows.isEmpty()) {
+            rowsByAuthor.remove(authorIds[row]);
+        }
+    }
+
+    private int titleCode(String title) {
+        Integer code = codesByTitle.get(title);
+        if (code == null) {
+            code = titles.size();
+            titles.add(title);
+            String upper = upperAscii(title);
+            // most titles are the same upper-cased: share the string
+            upperTitles.add(upper.equals(title) ? title : upper);
+            codesByTitle.put(title, code);
+        }
+        return code;
+    }
+
+    @FunctionalInterface
+    private interface RowOrder {
+        int compare(int a, int b);
+
+        default RowOrder then(RowOrder next) {
+            return (a, b) -> {
+                int comparison = compare(a, b);
+                return comparison != 0 ? comparison : next.compare(a, b);
+            };
+        }
+    }
+
+    /**
+     * The first rows in order, in a max-heap of at most {@code limit} rows.
+     */
+    private static final class TopRows {
+
+        private final int limit;
+
+        private final RowOrder order;
+
+        private int[] heap = new int[16];
+
+        private int size;
+
+        private long count;
+
+        TopRows(int limit, RowOrder order) {
+            this.limit = limit;
+            this.order = order;
+        }
+
+        void offer(int row) {
+            count++;
+            if (size < limit) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(limit, 2L * size));
+                }
+                heap[size] = row;
+                siftUp(size++);
+            } else if (size > 0 && order.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(0, size);
+            }
+        }
+
+        /**
+         * @return the rows in order; the heap is consumed.
+         */
+        int[] sorted() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            return Arrays.copyOf(heap, size);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (order.compare(heap[index], heap[parent]) <= 0) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int end) {
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= end) {
+                    return;
+                }
+                if (child + 1 < end && order.compare(heap[child + 1], heap[child]) > 0) {
+                    child++;
+                }
+                if (order.compare(heap[child], heap[index]) <= 0) {
+                    return;
+                }
+                swap(index, child);
+                index = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int row = heap[i];
+            heap[i] = heap[j];
+            heap[j] = row;
+        }
+    }
+}
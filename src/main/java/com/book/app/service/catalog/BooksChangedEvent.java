@@ -0,0 +1,43 @@
+package com.book.app.service.catalog;
+
+import com.book.app.domain.Books;
+import org.springframework.lang.Nullable;
+
+/**
+ * Published by the {@link com.book.app.service.BooksService} when a book is saved or deleted, with the columns of the
+ * {@link CatalogSnapshot} as saved.
+ *
+ * @param id the id of the book.
+ * @param title the title, {@code null} when deleted.
+ * @param price the price, {@code null} when deleted.
+ * @param authorId the id of the author, {@code null} when deleted.
+ */
+public record BooksChangedEvent(long id, @Nullable String title, @Nullable Double price, @Nullable Long authorId) {
+    /**
+     * @param books the saved book.
+     * @return the event of the book.
+     */
+    public static BooksChangedEvent saved(Books books) {
+        return new BooksChangedEvent(
+            books.getId(),
+            books.getTitle(),
+            books.getPrice(),
+            books.getAuthor() == null ? null : books.getAuthor().getId()
+        );
+    }
+
+    /**
+     * @param id the id of the deleted book.
+     * @return the event of the book.
+     */
+    public static BooksChangedEvent deleted(long id) {
+        return new BooksChangedEvent(id, null, null, null);
+    }
+
+    /**
+     * @return whether the book is deleted, or misses a column the snapshot needs, which then removes it.
+     */
+    public boolean isDeleted() {
+        return title == null || price == null || authorId == null;
+    }
+}
@@ -0,0 +1,241 @@
+package com.book.app.service.catalog;
+
+import com.book.app.config.ApplicationProperties;
+import com.book.app.service.criteria.BooksCriteria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory read model of the books, in {@link BookColumns}, answering the criteria queries of the
+ * {@link com.book.app.service.BooksQueryService} when {@code application.query.snapshot.enabled}.
+ * <p>
+ * The columns are loaded in the background once the application is ready, then reloaded every
+ * {@code application.query.snapshot.reload-interval}; in between, the {@link BooksChangedEvent} of this instance are
+ * applied once committed. The changes made by other instances, or outside of the
+ * {@link com.book.app.service.BooksService}, are seen at the next reload.
+ * <p>
+ * Until loaded, or when disabled, the snapshot answers nothing and the queries go to the database. The number of books
+ * is published in {@code books.catalog.snapshot.size}, the reloads are timed by {@code books.catalog.snapshot.load},
+ * and the queries are counted by {@code books.catalog.snapshot.queries}, tagged with the {@code outcome}
+ * ({@code memory} or {@code database}).
+ */
+@Service
+public class CatalogSnapshot {
+
+    private static final String SELECT_BOOKS = "select id, title, price, author_id from books";
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Timer loadTimer;
+
+    private final Counter memoryQueries;
+
+    private final Counter databaseQueries;
+
+    // guarded by the lock
+    @Nullable
+    private BookColumns columns;
+
+    // the changes during a reload, applied to the new columns; guarded by the lock
+    @Nullable
+    private List<BooksChangedEvent> pending;
+
+    public CatalogSnapshot(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        // a cursor, rather than all the books in the memory of the driver
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = applicationProperties.getQuery().getSnapshot().isEnabled();
+        this.loadTimer = meterRegistry.timer("books.catalog.snapshot.load");
+        this.memoryQueries = meterRegistry.counter("books.catalog.snapshot.queries", "outcome", "memory");
+        this.databaseQueries = meterRegistry.counter("books.catalog.snapshot.queries", "outcome", "database");
+        Gauge
+            .builder("books.catalog.snapshot.size", this, CatalogSnapshot::size)
+            .description("Number of books in the in-memory catalog snapshot")
+            .register(meterRegistry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Reloads the books from the database, in a read-only transaction, while the current columns answer the queries.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.query.snapshot.reload-interval:PT5M}",
+        initialDelayString = "${application.query.snapshot.reload-interval:PT5M}"
+    )
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            loadTimer.record(() -> reload(this::selectBooks));
+            log.debug("Loaded {} books in the catalog snapshot", size());
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not load the catalog snapshot, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        withLock(
+            lock.writeLock(),
+            () -> {
+                if (pending != null) {
+                    pending.add(event);
+                }
+                if (columns != null) {
+                    apply(columns, event);
+                }
+            }
+        );
+    }
+
+    /**
+     * @param criteria the criteria.
+     * @param pageable the page.
+     * @return the ids of the books of the page, with the number of matching books; empty when the snapshot is not
+     *         loaded, or cannot filter or sort the page, the query then being for the database.
+     */
+    public Optional<Page<Long>> findIds(BooksCriteria criteria, Pageable pageable) {
+        if (!BookColumns.supports(criteria) || !BookColumns.supports(pageable.getSort())) {
+            return answered(Optional.empty());
+        }
+        return answered(read(columns -> columns.select(criteria, pageable)));
+    }
+
+    /**
+     * @param criteria the criteria.
+     * @return the number of matching books; empty when the snapshot is not loaded or cannot filter the books.
+     */
+    public OptionalLong count(BooksCriteria criteria) {
+        Optional<Long> count = answered(BookColumns.supports(criteria) ? read(columns -> columns.count(criteria)) : Optional.empty());
+        return count.map(OptionalLong::of).orElseGet(OptionalLong::empty);
+    }
+
+    /**
+     * Replaces the columns by the loaded ones, with the changes committed meanwhile.
+     *
+     * @param loader puts the books in the new columns.
+     */
+    synchronized void reload(Consumer<BookColumns> loader) {
+        withLock(lock.writeLock(), () -> pending = new ArrayList<>());
+        BookColumns loaded = new BookColumns();
+        try {
+            loader.accept(loaded);
+        } catch (RuntimeException e) {
+            withLock(lock.writeLock(), () -> pending = null);
+            throw e;
+        }
+        withLock(
+            lock.writeLock(),
+            () -> {
+                if (pending != null) {
+                    // the load may have read some of them already: the events are idempotent
+                    pending.forEach(event -> apply(loaded, event));
+                }
+                pending = null;
+                columns = loaded;
+            }
+        );
+    }
+
+    private void selectBooks(BookColumns loaded) {
+        RowCallbackHandler put = rs -> loaded.put(rs.getLong(1), rs.getString(2), rs.getDouble(3), rs.getLong(4));
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(SELECT_BOOKS, put));
+    }
+
+    private <R> Optional<R> read(Function<BookColumns, R> query) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return columns == null ? Optional.empty() : Optional.of(query.apply(columns));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <R> Optional<R> answered(Optional<R> result) {
+        (result.isPresent() ? memoryQueries : databaseQueries).increment();
+        return result;
+    }
+
+    private int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return columns == null ? 0 : columns.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private static void apply(BookColumns columns, BooksChangedEvent event) {
+        if (event.isDeleted()) {
+            columns.remove(event.id());
+        } else {
+            columns.put(event.id(), event.title(), event.price(), event.authorId());
+        }
+    }
+
+    private static void withLock(Lock lock, Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
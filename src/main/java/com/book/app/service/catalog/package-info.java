@@ -0,0 +1,4 @@
+/**
+ * In-memory columnar snapshot of the book catalog, answering the book criteria without the database.
+ */
+package com.book.app.service.catalog;
@@ -0,0 +1,26 @@
+package com.book.app.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO representing the facets of the books matching a criteria: the authors with the most books, and the number
+ * of books in each price bucket.
+ *
+ * @param authors the authors with the most books, by descending number of books.
+ * @param prices the non-empty price buckets, by ascending price.
+ */
+public record BooksFacetsDTO(List<AuthorFacet> authors, List<PriceBucket> prices) implements Serializable {
+    /**
+     * @param authorId the id of the author.
+     * @param count the number of books of the author.
+     */
+    public record AuthorFacet(Long authorId, long count) implements Serializable {}
+
+    /**
+     * @param from the lowest price of the bucket, inclusive.
+     * @param to the highest price of the bucket, exclusive.
+     * @param count the number of books in the bucket.
+     */
+    public record PriceBucket(double from, double to, long count) implements Serializable {}
+}
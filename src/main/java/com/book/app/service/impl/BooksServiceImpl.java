@@ -5,12 +5,15 @@ import com.book.app.constants.TopicConstantI;
 import com.book.app.domain.Books;
 import com.book.app.repository.BooksRepository;
 import com.book.app.service.BooksService;
+import com.book.app.service.catalog.BooksChangedEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,23 +30,25 @@ public class BooksServiceImpl implements BooksService {
 
     private final BooksRepository booksRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private final MessageProducer messageProducer;
 
-    @Autowired
-    private final ObjectMapper mapper;
+    private final ObjectWriter booksWriter;
 
-    public BooksServiceImpl(BooksRepository booksRepository) {
+    public BooksServiceImpl(BooksRepository booksRepository, ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
         this.booksRepository = booksRepository;
+        this.eventPublisher = eventPublisher;
         this.messageProducer = new MessageProducer();
-        this.mapper = new ObjectMapper();
+        this.booksWriter = objectMapper.writerFor(Books.class);
     }
 
     @Override
     public Books save(Books books) {
         log.debug("Request to save Books : {}", books);
         try {
-            String msg = mapper.writeValueAsString(books);
+            String msg = booksWriter.writeValueAsString(books);
 
             messageProducer.sendMessage(TopicConstantI.PUBLISH_BOOK, msg);
         } catch (JsonProcessingException e) {
@@ -51,13 +56,13 @@ public class BooksServiceImpl implements BooksService {
             e.printStackTrace();
         }
 
-        return booksRepository.save(books);
+        return saved(booksRepository.save(books));
     }
 
     @Override
     public Books update(Books books) {
         log.debug("Request to update Books : {}", books);
-        return booksRepository.save(books);
+        return saved(booksRepository.save(books));
     }
 
     @Override
@@ -76,7 +81,8 @@ public class BooksServiceImpl implements BooksService {
 
                 return existingBooks;
             })
-            .map(booksRepository::save);
+            .map(booksRepository::save)
+            .map(this::saved);
     }
 
     @Override
@@ -97,5 +103,11 @@ public class BooksServiceImpl implements BooksService {
     public void delete(Long id) {
         log.debug("Request to delete Books : {}", id);
         booksRepository.deleteById(id);
+        eventPublisher.publishEvent(BooksChangedEvent.deleted(id));
+    }
+
+    private Books saved(Books books) {
+        eventPublisher.publishEvent(BooksChangedEvent.saved(books));
+        return books;
     }
 }
@@ -5,6 +5,7 @@ import com.book.app.domain.User;
 import com.book.app.service.dto.AdminUserDTO;
 import com.book.app.service.dto.UserDTO;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapping;
@@ -21,7 +22,13 @@ import org.springframework.stereotype.Service;
 public class UserMapper {
 
     public List<UserDTO> usersToUserDTOs(List<User> users) {
-        return users.stream().filter(Objects::nonNull).map(this::userToUserDTO).toList();
+        List<UserDTO> userDTOs = new ArrayList<>(users.size());
+        for (User user : users) {
+            if (user != null) {
+                userDTOs.add(userToUserDTO(user));
+            }
+        }
+        return userDTOs;
     }
 
     public UserDTO userToUserDTO(User user) {
@@ -106,12 +113,7 @@ public class UserMapper {
             return Collections.emptySet();
         }
 
-        Set<UserDTO> userSet = new HashSet<>();
-        for (User userEntity : users) {
-            userSet.add(this.toDtoId(userEntity));
-        }
-
-        return userSet;
+        return toDtoSet(users, this::toDtoId);
     }
 
     @Named("login")
@@ -137,11 +139,17 @@ public class UserMapper {
             return Collections.emptySet();
         }
 
-        Set<UserDTO> userSet = new HashSet<>();
+        return toDtoSet(users, this::toDtoLogin);
+    }
+
+    /**
+     * The DTOs have no {@code equals}, so the set only has to be sized for the users, without rehashing as it grows.
+     */
+    private Set<UserDTO> toDtoSet(Set<User> users, Function<User, UserDTO> mapper) {
+        Set<UserDTO> userSet = new HashSet<>((int) (users.size() / 0.75f) + 1);
         for (User userEntity : users) {
-            userSet.add(this.toDtoLogin(userEntity));
+            userSet.add(mapper.apply(userEntity));
         }
-
         return userSet;
     }
 }
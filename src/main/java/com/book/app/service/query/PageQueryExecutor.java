@@ -0,0 +1,208 @@
+package com.book.app.service.query;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Executes the content and the count queries of a page, one after the other on the calling thread and its connection,
+ * or in parallel: the count then runs on the {@code queryExecutor}, in its own read-only transaction and so on its own
+ * connection, of the read pool, while the content is read on the calling thread.
+ * <p>
+ * Either way the count is skipped when the content tells the total, as {@link PageableExecutionUtils} does: a count
+ * started in parallel is then cancelled, and its result ignored. The statements of a parallel count are not part of
+ * the SQL statistics of the request.
+ * <p>
+ * A query run in parallel needs a second connection while the calling thread holds one. When the executor is saturated
+ * by such callers, their queries would wait for each other; so a query still queued {@code forkTimeout} after its
+ * submission is taken back, and run by the caller on its own connection. Those fallbacks are counted by
+ * {@code books.query.fork.timeout}. A query which started is never run twice: the caller waits for it, and its
+ * statements are bounded by the {@code queryTimeout} of its transaction.
+ * <p>
+ * Each leg is timed by the {@code books.query.page} timer, tagged with the entity, the {@code leg} ({@code content} or
+ * {@code count}) and the {@code mode} ({@code serial} or {@code parallel}); the skipped counts are counted by
+ * {@code books.query.count.skipped}.
+ * <p>
+ * The other queries of a request, such as facets, can be {@linkplain #fork(String, Tags, Supplier) forked} on the same
+ * executor, in the same mode as the counts.
+ */
+public class PageQueryExecutor {
+
+    private static final String CONTENT = "content";
+
+    private static final String COUNT = "count";
+
+    private static final String SERIAL = "serial";
+
+    private static final String PARALLEL = "parallel";
+
+    private final Logger log = LoggerFactory.getLogger(PageQueryExecutor.class);
+
+    private final Executor executor;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean parallel;
+
+    private final Duration forkTimeout;
+
+    public PageQueryExecutor(
+        Executor executor,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        boolean parallel,
+        Duration forkTimeout,
+        Duration queryTimeout
+    ) {
+        this.executor = executor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // applied by JPA to the statements of the transaction, see EntityManagerFactoryUtils#applyTransactionTimeout
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, queryTimeout.toSeconds()));
+        this.meterRegistry = meterRegistry;
+        this.parallel = parallel;
+        this.forkTimeout = forkTimeout;
+    }
+
+    /**
+     * @param entity the name of the entity, which tags the metrics.
+     * @param pageable the page.
+     * @param content the query of the content of the page.
+     * @param count the query of the total number of entities.
+     * @param <T> the type of the entities.
+     * @return the page.
+     */
+    public <T> Page<T> getPage(String entity, Pageable pageable, Supplier<List<T>> content, LongSupplier count) {
+        Fork<Long> parallelCount = parallel && pageable.isPaged()
+            ? submit(pageTimer(entity, COUNT, PARALLEL), count::getAsLong)
+            : null;
+        List<T> list;
+        try {
+            list = pageTimer(entity, CONTENT, parallel ? PARALLEL : SERIAL).record(content);
+        } catch (RuntimeException e) {
+            cancel(parallelCount);
+            throw e;
+        }
+        AtomicBoolean counted = new AtomicBoolean();
+        Page<T> page = PageableExecutionUtils.getPage(
+            list,
+            pageable,
+            () -> {
+                counted.set(true);
+                Supplier<Long> serialCount = () -> pageTimer(entity, COUNT, SERIAL).record(count);
+                return parallelCount == null ? serialCount.get() : join(parallelCount, serialCount);
+            }
+        );
+        if (!counted.get()) {
+            cancel(parallelCount);
+            meterRegistry.counter("books.query.count.skipped", "entity", entity).increment();
+        }
+        return page;
+    }
+
+    /**
+     * Starts a query in parallel, in its own read-only transaction, when the pages are counted in parallel; the query
+     * runs on the calling thread otherwise, or when the executor rejects it.
+     *
+     * @param name the name of the timer of the query, tagged with the {@code mode}.
+     * @param tags the other tags of the timer.
+     * @param query the query.
+     * @param <R> the type of the result.
+     * @return the result of the query, waiting for it if needed.
+     */
+    public <R> Supplier<R> fork(String name, Tags tags, Supplier<R> query) {
+        Supplier<R> serialQuery = () -> timer(name, tags, SERIAL).record(query);
+        Fork<R> parallelQuery = parallel ? submit(timer(name, tags, PARALLEL), query) : null;
+        if (parallelQuery == null) {
+            return serialQuery;
+        }
+        return () -> join(parallelQuery, serialQuery);
+    }
+
+    @Nullable
+    private <R> Fork<R> submit(Timer timer, Supplier<R> query) {
+        AtomicBoolean started = new AtomicBoolean();
+        FutureTask<R> task = new FutureTask<>(() ->
+            // unless the caller took the query back while it was queued
+            started.compareAndSet(false, true) ? timer.recordCallable(() -> readOnlyTransaction.execute(status -> query.get())) : null
+        );
+        try {
+            // the read-only transaction is routed after the user, see ReadWriteRoutingDataSource
+            executor.execute(new DelegatingSecurityContextRunnable(task));
+            return new Fork<>(task, started, System.nanoTime() + forkTimeout.toNanos());
+        } catch (RejectedExecutionException e) {
+            log.debug("Running {} on the calling thread: {}", timer.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Timer pageTimer(String entity, String leg, String mode) {
+        return timer("books.query.page", Tags.of("entity", entity, "leg", leg), mode);
+    }
+
+    private Timer timer(String name, Tags tags, String mode) {
+        return Timer.builder(name).tags(tags).tag("mode", mode).register(meterRegistry);
+    }
+
+    private <R> R join(Fork<R> fork, Supplier<R> serialQuery) {
+        FutureTask<R> task = fork.task();
+        try {
+            try {
+                return task.get(Math.max(0, fork.startDeadline() - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (fork.started().compareAndSet(false, true)) {
+                    task.cancel(false);
+                    meterRegistry.counter("books.query.fork.timeout").increment();
+                    log.debug("Query still queued after {}, running it on the calling thread", forkTimeout);
+                    return serialQuery.get();
+                }
+                // running: bounded by the timeout of its transaction
+                return task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            throw new CancellationException("Interrupted while waiting for a query");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void cancel(@Nullable Fork<?> fork) {
+        if (fork != null) {
+            fork.task().cancel(true);
+        }
+    }
+
+    /**
+     * A query submitted to the executor, which the caller can take back until {@code startDeadline} if it has not
+     * {@code started}.
+     */
+    private record Fork<R>(FutureTask<R> task, AtomicBoolean started, long startDeadline) {}
+}
@@ -0,0 +1,169 @@
+package com.book.app.service.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.lang.Nullable;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * The predicates of a criteria, all of which must apply, with the same semantics as the specifications of
+ * {@link tech.jhipster.service.QueryService}.
+ * <p>
+ * Each operator set on a filter adds a condition: the paths and operators of the conditions make the shape of the
+ * query, which {@link QueryPlanCache} compiles once to JPQL, and their values are the parameters bound on each
+ * execution.
+ */
+public final class QueryConditions {
+
+    enum Operator {
+        EQUALS("%s = %s"),
+        NOT_EQUALS("not (%s = %s)"),
+        IN("%s in (%s)"),
+        NOT_IN("not (%s in (%s))"),
+        SPECIFIED("%s is not null"),
+        NOT_SPECIFIED("%s is null"),
+        CONTAINS("upper(%s) like %s"),
+        DOES_NOT_CONTAIN("not (upper(%s) like %s)"),
+        GREATER_THAN("%s > %s"),
+        GREATER_THAN_OR_EQUAL("%s >= %s"),
+        LESS_THAN("%s < %s"),
+        LESS_THAN_OR_EQUAL("%s <= %s");
+
+        private final String template;
+
+        Operator(String template) {
+            this.template = template;
+        }
+
+        String format(String expression, String parameter) {
+            return String.format(template, expression, parameter);
+        }
+
+        boolean hasValue() {
+            return this != SPECIFIED && this != NOT_SPECIFIED;
+        }
+    }
+
+    record Condition(QueryPath path, Operator operator, @Nullable Object value) {}
+
+    private final List<Condition> conditions = new ArrayList<>(4);
+
+    private final StringBuilder shape = new StringBuilder(32);
+
+    private boolean distinct;
+
+    /**
+     * @param distinct whether the query must return distinct entities, as {@code QueryService.distinct}.
+     * @return these conditions.
+     */
+    public QueryConditions distinct(@Nullable Boolean distinct) {
+        this.distinct = Boolean.TRUE.equals(distinct);
+        return this;
+    }
+
+    /**
+     * Same as {@code QueryService.buildSpecification(Filter, Function)}.
+     *
+     * @param path the filtered path.
+     * @param filter the filter.
+     * @return these conditions.
+     */
+    public QueryConditions filter(QueryPath path, Filter<?> filter) {
+        if (filter.getEquals() != null) {
+            return add(path, Operator.EQUALS, filter.getEquals());
+        }
+        if (filter.getIn() != null) {
+            return add(path, Operator.IN, filter.getIn());
+        }
+        specified(path, filter.getSpecified());
+        addIfSet(path, Operator.NOT_EQUALS, filter.getNotEquals());
+        return addIfSet(path, Operator.NOT_IN, filter.getNotIn());
+    }
+
+    /**
+     * Same as {@code QueryService.buildStringSpecification}.
+     *
+     * @param path the filtered path.
+     * @param filter the filter.
+     * @return these conditions.
+     */
+    public QueryConditions stringFilter(QueryPath path, StringFilter filter) {
+        if (filter.getEquals() != null) {
+            return add(path, Operator.EQUALS, filter.getEquals());
+        }
+        if (filter.getIn() != null) {
+            return add(path, Operator.IN, filter.getIn());
+        }
+        if (filter.getContains() != null) {
+            add(path, Operator.CONTAINS, wrapLikeQuery(filter.getContains()));
+        }
+        if (filter.getDoesNotContain() != null) {
+            add(path, Operator.DOES_NOT_CONTAIN, wrapLikeQuery(filter.getDoesNotContain()));
+        }
+        addIfSet(path, Operator.NOT_EQUALS, filter.getNotEquals());
+        addIfSet(path, Operator.NOT_IN, filter.getNotIn());
+        return specified(path, filter.getSpecified());
+    }
+
+    /**
+     * Same as {@code QueryService.buildRangeSpecification}.
+     *
+     * @param path the filtered path.
+     * @param filter the filter.
+     * @return these conditions.
+     */
+    public QueryConditions rangeFilter(QueryPath path, RangeFilter<?> filter) {
+        if (filter.getEquals() != null) {
+            return add(path, Operator.EQUALS, filter.getEquals());
+        }
+        if (filter.getIn() != null) {
+            return add(path, Operator.IN, filter.getIn());
+        }
+        specified(path, filter.getSpecified());
+        addIfSet(path, Operator.NOT_EQUALS, filter.getNotEquals());
+        addIfSet(path, Operator.NOT_IN, filter.getNotIn());
+        addIfSet(path, Operator.GREATER_THAN, filter.getGreaterThan());
+        addIfSet(path, Operator.GREATER_THAN_OR_EQUAL, filter.getGreaterThanOrEqual());
+        addIfSet(path, Operator.LESS_THAN, filter.getLessThan());
+        return addIfSet(path, Operator.LESS_THAN_OR_EQUAL, filter.getLessThanOrEqual());
+    }
+
+    boolean isDistinct() {
+        return distinct;
+    }
+
+    List<Condition> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * @return the key of the query plan: the distinct flag, then the path and operator of each condition.
+     */
+    String getShape() {
+        return (distinct ? "distinct;" : ";") + shape;
+    }
+
+    private QueryConditions specified(QueryPath path, @Nullable Boolean specified) {
+        if (specified != null) {
+            add(path, specified ? Operator.SPECIFIED : Operator.NOT_SPECIFIED, null);
+        }
+        return this;
+    }
+
+    private QueryConditions addIfSet(QueryPath path, Operator operator, @Nullable Object value) {
+        return value == null ? this : add(path, operator, value);
+    }
+
+    private QueryConditions add(QueryPath path, Operator operator, @Nullable Object value) {
+        conditions.add(new Condition(path, operator, value));
+        shape.append(path.expression()).append(':').append(operator.ordinal()).append(';');
+        return this;
+    }
+
+    private static String wrapLikeQuery(String value) {
+        return "%" + value.toUpperCase(Locale.ROOT) + "%";
+    }
+}
@@ -0,0 +1,61 @@
+package com.book.app.service.query;
+
+import java.util.Locale;
+import org.springframework.lang.Nullable;
+
+/**
+ * A filtered path of a JPQL query, relative to the {@link QueryPlanCache#ROOT} alias, with the join or the semi-join it
+ * needs if any.
+ *
+ * @param expression the JPQL expression, such as {@code e.title}.
+ * @param join the JPQL join declaring the alias used by the expression, such as {@code left join e.author author_}.
+ * @param semiJoin the {@code from} and correlation of the subquery declaring the alias used by the expression, such as
+ *        {@code from Books books_ where books_.author = e}: the conditions on the path are checked with {@code exists}.
+ */
+public record QueryPath(String expression, @Nullable String join, @Nullable String semiJoin) {
+    /**
+     * @param attribute an attribute of the root entity.
+     * @return the path of the attribute.
+     */
+    public static QueryPath attribute(String attribute) {
+        return new QueryPath(QueryPlanCache.ROOT + "." + attribute, null, null);
+    }
+
+    /**
+     * The id of a to-one association, which Hibernate compares on the foreign key column of the root table, without
+     * joining the associated table.
+     *
+     * @param association a to-one association of the root entity.
+     * @param idAttribute the id attribute of the associated entity.
+     * @return the path of the foreign key.
+     */
+    public static QueryPath foreignKey(String association, String idAttribute) {
+        return attribute(association + "." + idAttribute);
+    }
+
+    /**
+     * @param association an association of the root entity, joined with a left join.
+     * @param attribute an attribute of the associated entity.
+     * @return the path of the attribute of the associated entity.
+     */
+    public static QueryPath leftJoin(String association, String attribute) {
+        // JPA forbids aliases named like an entity, whatever the case
+        String alias = association + "_";
+        return new QueryPath(alias + "." + attribute, "left join " + QueryPlanCache.ROOT + "." + association + " " + alias, null);
+    }
+
+    /**
+     * An attribute of the entities of a to-many association, checked with {@code exists} rather than a join, which
+     * neither duplicates the root entities nor needs {@code distinct}.
+     *
+     * @param entity the name of the associated entity.
+     * @param inverseAssociation the association of the associated entity back to the root entity.
+     * @param attribute an attribute of the associated entity.
+     * @return the path of the attribute of the associated entities.
+     */
+    public static QueryPath exists(String entity, String inverseAssociation, String attribute) {
+        String alias = entity.toLowerCase(Locale.ROOT) + "_";
+        String semiJoin = "from " + entity + " " + alias + " where " + alias + "." + inverseAssociation + " = " + QueryPlanCache.ROOT;
+        return new QueryPath(alias + "." + attribute, null, semiJoin);
+    }
+}
@@ -0,0 +1,283 @@
+package com.book.app.service.query;
+
+import com.book.app.service.query.QueryConditions.Condition;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Compiles each shape of {@link QueryConditions} to a parameterized JPQL query once, and executes it by binding the
+ * values of the conditions.
+ * <p>
+ * Criteria queries built from a {@link org.springframework.data.jpa.domain.Specification} skip Hibernate's query plan
+ * cache, so that every request builds a new criteria tree and has it translated to SQL. The JPQL strings compiled here
+ * are the same for all the requests of a shape, so Hibernate parses and translates them once, and reuses the plan.
+ * <p>
+ * The sorts are part of the shape, and are limited to the given properties of the root entity; the callers must check
+ * {@link #supports(Sort)}, and keep to the specification otherwise.
+ *
+ * @param <E> the root entity.
+ */
+public class QueryPlanCache<E> {
+
+    /**
+     * The alias of the root entity.
+     */
+    public static final String ROOT = "e";
+
+    /**
+     * Beyond this number of plans, the queries are compiled on each execution.
+     */
+    private static final int MAX_PLANS = 1024;
+
+    private final EntityManager entityManager;
+
+    private final Class<E> entityClass;
+
+    private final Set<String> sortableProperties;
+
+    private final PageQueryExecutor pageQueryExecutor;
+
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+
+    public QueryPlanCache(
+        EntityManager entityManager,
+        Class<E> entityClass,
+        Set<String> sortableProperties,
+        PageQueryExecutor pageQueryExecutor
+    ) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.sortableProperties = sortableProperties;
+        this.pageQueryExecutor = pageQueryExecutor;
+    }
+
+    /**
+     * @param sort the sort.
+     * @return whether the queries sorted this way can be executed from a plan.
+     */
+    public boolean supports(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (order.isIgnoreCase() || !sortableProperties.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param conditions the conditions.
+     * @param sort the sort, which must be {@linkplain #supports(Sort) supported}.
+     * @return the matching entities.
+     */
+    public List<E> findAll(QueryConditions conditions, Sort sort) {
+        return selectQuery(conditions, sort).getResultList();
+    }
+
+    /**
+     * Same as {@code JpaSpecificationExecutor.findAll(Specification, Pageable)}: the count query is skipped when the
+     * page tells the total. The {@link PageQueryExecutor} may run the count in parallel with the content, so the
+     * {@link EntityManager} must be the shared one, bound to the transaction of each thread.
+     *
+     * @param conditions the conditions.
+     * @param pageable the page, whose sort must be {@linkplain #supports(Sort) supported}.
+     * @return the page of matching entities.
+     */
+    public Page<E> findAll(QueryConditions conditions, Pageable pageable) {
+        TypedQuery<E> query = selectQuery(conditions, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return pageQueryExecutor.getPage(entityClass.getSimpleName(), pageable, query::getResultList, () -> count(conditions));
+    }
+
+    /**
+     * Scrolls through a page of matching entities, {@code chunkSize} rows at a time: the persistence context is cleared
+     * after each chunk, so the entities must not be used once consumed. The entities are read-only, without snapshots
+     * for dirty checking. Must be called in a transaction, which keeps the cursor open.
+     *
+     * @param conditions the conditions.
+     * @param pageable the page, whose sort must be {@linkplain #supports(Sort) supported}.
+     * @param chunkSize the number of rows fetched at a time.
+     * @param consumer the consumer of each entity, in order.
+     */
+    public void stream(QueryConditions conditions, Pageable pageable, int chunkSize, Consumer<? super E> consumer) {
+        TypedQuery<E> query = selectQuery(conditions, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        try (Stream<E> rows = query.getResultStream()) {
+            int chunk = 0;
+            for (Iterator<E> iterator = rows.iterator(); iterator.hasNext();) {
+                consumer.accept(iterator.next());
+                if (++chunk == chunkSize) {
+                    entityManager.clear();
+                    chunk = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param conditions the conditions.
+     * @return the number of matching entities.
+     */
+    public long count(QueryConditions conditions) {
+        TypedQuery<Long> query = entityManager.createQuery(plan('c' + conditions.getShape(), () -> countJpql(conditions)), Long.class);
+        bind(query, conditions);
+        return query.getSingleResult();
+    }
+
+    /**
+     * Groups the matching entities, for facets.
+     *
+     * @param conditions the conditions.
+     * @param selection the grouped expressions then the aggregates, relative to {@link #ROOT}, such as
+     *        {@code e.author.id, count(e)}; they must not depend on the request, as they are part of the plan.
+     * @param groupBy the grouped expressions.
+     * @param orderBy the order of the groups.
+     * @param limit the maximum number of groups.
+     * @return a row of the selection for each group.
+     */
+    public List<Object[]> aggregate(QueryConditions conditions, String selection, String groupBy, String orderBy, int limit) {
+        String key = 'a' + selection + '|' + groupBy + '|' + orderBy + conditions.getShape();
+        TypedQuery<Object[]> query = entityManager.createQuery(
+            plan(key, () -> aggregateJpql(conditions, selection, groupBy, orderBy)),
+            Object[].class
+        );
+        bind(query, conditions);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    String selectJpql(QueryConditions conditions, Sort sort) {
+        StringBuilder jpql = new StringBuilder(128)
+            .append(conditions.isDistinct() ? "select distinct " : "select ")
+            .append(ROOT)
+            .append(from(conditions));
+        String separator = " order by ";
+        for (Sort.Order order : sort) {
+            jpql.append(separator).append(ROOT).append('.').append(order.getProperty()).append(order.isAscending() ? " asc" : " desc");
+            separator = ", ";
+        }
+        return jpql.toString();
+    }
+
+    String countJpql(QueryConditions conditions) {
+        return (conditions.isDistinct() ? "select count(distinct " : "select count(") + ROOT + ")" + from(conditions);
+    }
+
+    String aggregateJpql(QueryConditions conditions, String selection, String groupBy, String orderBy) {
+        return "select " + selection + from(conditions) + " group by " + groupBy + " order by " + orderBy;
+    }
+
+    int size() {
+        return plans.size();
+    }
+
+    private TypedQuery<E> selectQuery(QueryConditions conditions, Sort sort) {
+        String key = sort.isSorted() ? 's' + conditions.getShape() + sort : 's' + conditions.getShape();
+        TypedQuery<E> query = entityManager.createQuery(plan(key, () -> selectJpql(conditions, sort)), entityClass);
+        bind(query, conditions);
+        return query;
+    }
+
+    private String plan(String key, Supplier<String> compiler) {
+        String jpql = plans.get(key);
+        if (jpql == null) {
+            jpql = compiler.get();
+            if (plans.size() < MAX_PLANS) {
+                plans.putIfAbsent(key, jpql);
+            }
+        }
+        return jpql;
+    }
+
+    private String from(QueryConditions conditions) {
+        StringBuilder from = new StringBuilder(96).append(" from ").append(entityClass.getSimpleName()).append(' ').append(ROOT);
+        Set<String> joins = new LinkedHashSet<>();
+        for (Condition condition : conditions.getConditions()) {
+            if (condition.path().join() != null && joins.add(condition.path().join())) {
+                from.append(' ').append(condition.path().join());
+            }
+        }
+        List<Condition> all = conditions.getConditions();
+        // numbered in the order of the conditions, as bound, even when grouped in a semi-join
+        String[] placeholders = new String[all.size()];
+        int parameter = 1;
+        for (int i = 0; i < all.size(); i++) {
+            placeholders[i] = all.get(i).operator().hasValue() ? "?" + parameter++ : null;
+        }
+        String separator = " where ";
+        Set<String> semiJoins = new LinkedHashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            Condition condition = all.get(i);
+            String semiJoin = condition.path().semiJoin();
+            if (semiJoin == null) {
+                from.append(separator).append(condition.operator().format(condition.path().expression(), placeholders[i]));
+                separator = " and ";
+            } else if (semiJoins.add(semiJoin)) {
+                from.append(separator);
+                appendSemiJoin(from, semiJoin, all, placeholders);
+                separator = " and ";
+            }
+        }
+        return from.toString();
+    }
+
+    /**
+     * All the conditions on the paths of a semi-join apply to the same associated entity, as they would to the same
+     * row of a left join: a missing path is {@code not exists}, the others are checked together by one {@code exists}.
+     */
+    private static void appendSemiJoin(StringBuilder from, String semiJoin, List<Condition> all, String[] placeholders) {
+        StringBuilder exists = new StringBuilder(64).append("exists (select 1 ").append(semiJoin);
+        boolean missing = false;
+        boolean present = false;
+        for (int i = 0; i < all.size(); i++) {
+            Condition condition = all.get(i);
+            if (!semiJoin.equals(condition.path().semiJoin())) {
+                continue;
+            }
+            if (condition.operator() == QueryConditions.Operator.NOT_SPECIFIED) {
+                missing = true;
+            } else {
+                present = true;
+                if (condition.operator() != QueryConditions.Operator.SPECIFIED) {
+                    exists.append(" and ").append(condition.operator().format(condition.path().expression(), placeholders[i]));
+                }
+            }
+        }
+        exists.append(')');
+        if (missing) {
+            from.append("not exists (select 1 ").append(semiJoin).append(')');
+        }
+        if (present) {
+            from.append(missing ? " and " : "").append(exists);
+        }
+    }
+
+    private static void bind(TypedQuery<?> query, QueryConditions conditions) {
+        int parameter = 1;
+        for (Condition condition : conditions.getConditions()) {
+            if (condition.operator().hasValue()) {
+                query.setParameter(parameter++, condition.value());
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Cached JPQL query plans for the criteria of the query services.
+ */
+package com.book.app.service.query;
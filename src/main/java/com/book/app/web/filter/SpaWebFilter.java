@@ -5,30 +5,176 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 public class SpaWebFilter extends OncePerRequestFilter {
 
+    /**
+     * Paths starting with one of these prefixes are served by the backend.
+     */
+    static final String[] EXCLUDED_PREFIXES = { "/api", "/management", "/v3/api-docs", "/h2-console" };
+
+    private static final String INDEX_CONTENT_TYPE = "text/html;charset=UTF-8";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpaWebFilter.class);
+
+    private final PrefixTrie excludedPrefixes = new PrefixTrie(EXCLUDED_PREFIXES);
+
+    private final byte[] index;
+
+    private final String indexETag;
+
+    /**
+     * Forward the client routes to {@code index.html}.
+     */
+    public SpaWebFilter() {
+        this.index = null;
+        this.indexETag = null;
+    }
+
+    /**
+     * Serve the client routes from a copy of {@code index.html} in memory, or forward them when it can't be read, as
+     * when the client is served by the webpack dev server.
+     *
+     * @param index the client {@code index.html}.
+     */
+    public SpaWebFilter(Resource index) {
+        byte[] content = read(index);
+        this.index = content;
+        this.indexETag = content == null ? null : '"' + DigestUtils.md5DigestAsHex(content) + '"';
+    }
+
     /**
      * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws ServletException, IOException {
-        // Request URI includes the contextPath if any, removed it.
-        String path = request.getRequestURI().substring(request.getContextPath().length());
-        if (
-            !path.startsWith("/api") &&
-            !path.startsWith("/management") &&
-            !path.startsWith("/v3/api-docs") &&
-            !path.startsWith("/h2-console") &&
-            !path.contains(".") &&
-            path.matches("/(.*)")
-        ) {
-            request.getRequestDispatcher("/index.html").forward(request, response);
+        if (!isClientRoute(request.getRequestURI(), request.getContextPath().length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (index != null && isGetOrHead(request.getMethod())) {
+            writeIndex(request, response);
+            return;
+        }
+        request.getRequestDispatcher("/index.html").forward(request, response);
+    }
+
+    /**
+     * Decides in one pass over the request URI, without copying the path: the path must start with a slash, must not
+     * start with an excluded prefix, and must not contain a period or a line terminator.
+     *
+     * @param uri the request URI.
+     * @param start the length of the context path, where the path starts.
+     * @return whether the path is a client route.
+     */
+    boolean isClientRoute(String uri, int start) {
+        if (start >= uri.length() || uri.charAt(start) != '/' || excludedPrefixes.matches(uri, start)) {
+            return false;
+        }
+        for (int i = start + 1; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == '.' || isLineTerminator(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeIndex(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(indexETag)) {
             return;
         }
+        response.setContentType(INDEX_CONTENT_TYPE);
+        response.setContentLength(index.length);
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            response.getOutputStream().write(index);
+        }
+    }
+
+    private static boolean isGetOrHead(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+
+    /**
+     * The characters not matched by {@code .} in a regular expression, as the path used to be matched with {@code /(.*)}.
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static byte[] read(Resource index) {
+        if (!index.isReadable()) {
+            LOG.warn("{} is not readable, the client routes are forwarded to /index.html", index);
+            return null;
+        }
+        try (InputStream input = index.getInputStream()) {
+            return input.readAllBytes();
+        } catch (IOException e) {
+            LOG.warn("Could not read {}, the client routes are forwarded to /index.html", index, e);
+            return null;
+        }
+    }
+
+    /**
+     * Character trie of the excluded prefixes, built once: matching a path walks at most the length of the longest
+     * prefix, and stops at the first character which no prefix continues with.
+     */
+    static final class PrefixTrie {
 
-        filterChain.doFilter(request, response);
+        private static final int ALPHABET = 128;
+
+        private final Node root = new Node();
+
+        PrefixTrie(String... prefixes) {
+            for (String prefix : prefixes) {
+                Node node = root;
+                for (int i = 0; i < prefix.length(); i++) {
+                    char c = prefix.charAt(i);
+                    if (c >= ALPHABET) {
+                        throw new IllegalArgumentException("Only ASCII prefixes are supported: " + prefix);
+                    }
+                    if (node.children[c] == null) {
+                        node.children[c] = new Node();
+                    }
+                    node = node.children[c];
+                }
+                node.terminal = true;
+            }
+        }
+
+        /**
+         * @param value the string.
+         * @param start the index of the first character to match.
+         * @return whether the string, from {@code start}, starts with one of the prefixes.
+         */
+        boolean matches(String value, int start) {
+            Node node = root;
+            for (int i = start; i < value.length() && !node.terminal; i++) {
+                char c = value.charAt(i);
+                node = c < ALPHABET ? node.children[c] : null;
+                if (node == null) {
+                    return false;
+                }
+            }
+            return node.terminal;
+        }
+
+        private static final class Node {
+
+            private final Node[] children = new Node[ALPHABET];
+
+            private boolean terminal;
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.book.app.web.filter;
+
+import com.book.app.jdbc.SqlStatistics;
+import com.book.app.jdbc.SqlStatisticsHolder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the SQL statements executed by each HTTP request, tagged with its endpoint:
+ * <ul>
+ * <li>{@code books.sql.statements}, {@code books.sql.rows} and {@code books.sql.time} per request</li>
+ * <li>{@code books.sql.budget.exceeded}, the requests which executed more statements than their budget, or which were
+ * refused a statement over it with {@code application.sql-budget.mode=fail}</li>
+ * </ul>
+ * Requests over budget, and requests executing the same SQL many times (a likely N+1 select), are logged.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_ENDPOINT = "UNKNOWN";
+
+    private final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxStatements;
+
+    private final int repeatedStatementThreshold;
+
+    public SqlBudgetFilter(MeterRegistry meterRegistry, int maxStatements, int repeatedStatementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatisticsHolder.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatisticsHolder.stop(statistics);
+            if (statistics.getStatements() > 0 || statistics.isBudgetExceeded()) {
+                record(request, statistics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : UNKNOWN_ENDPOINT;
+        Tags tags = Tags.of("method", request.getMethod(), "uri", endpoint);
+        DistributionSummary.builder("books.sql.statements").tags(tags).register(meterRegistry).record(statistics.getStatements());
+        DistributionSummary.builder("books.sql.rows").tags(tags).register(meterRegistry).record(statistics.getRows());
+        meterRegistry.timer("books.sql.time", tags).record(statistics.getJdbcMillis(), TimeUnit.MILLISECONDS);
+        if (statistics.isBudgetExceeded() || statistics.getStatements() > maxStatements) {
+            meterRegistry.counter("books.sql.budget.exceeded", tags).increment();
+            log.warn(
+                "{} {} executed {} SQL statements, and went over the budget of {}: {}",
+                request.getMethod(),
+                endpoint,
+                statistics.getStatements(),
+                maxStatements,
+                statistics
+            );
+        }
+        Map.Entry<String, Integer> mostRepeated = statistics.getMostRepeatedStatement();
+        if (mostRepeated != null && mostRepeated.getValue() >= repeatedStatementThreshold) {
+            log.warn(
+                "Possible N+1 select in {} {}, executed {} times: {}",
+                request.getMethod(),
+                endpoint,
+                mostRepeated.getValue(),
+                mostRepeated.getKey()
+            );
+        }
+    }
+}
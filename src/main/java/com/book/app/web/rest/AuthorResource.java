@@ -6,8 +6,12 @@ import com.book.app.service.AuthorQueryService;
 import com.book.app.service.AuthorService;
 import com.book.app.service.criteria.AuthorCriteria;
 import com.book.app.web.rest.errors.BadRequestAlertException;
+import com.book.app.web.rest.util.JsonPageWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -17,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
@@ -46,10 +51,18 @@ public class AuthorResource {
 
     private final AuthorQueryService authorQueryService;
 
-    public AuthorResource(AuthorService authorService, AuthorRepository authorRepository, AuthorQueryService authorQueryService) {
+    private final JsonPageWriter jsonPageWriter;
+
+    public AuthorResource(
+        AuthorService authorService,
+        AuthorRepository authorRepository,
+        AuthorQueryService authorQueryService,
+        JsonPageWriter jsonPageWriter
+    ) {
         this.authorService = authorService;
         this.authorRepository = authorRepository;
         this.authorQueryService = authorQueryService;
+        this.jsonPageWriter = jsonPageWriter;
     }
 
     /**
@@ -117,7 +130,10 @@ public class AuthorResource {
      * or with status {@code 500 (Internal Server Error)} if the author couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(
+        value = "/{id}",
+        consumes = { "application/json", "application/merge-patch+json", "application/cbor", "application/x-jackson-smile" }
+    )
     public ResponseEntity<Author> partialUpdateAuthor(
         @PathVariable(value = "id", required = false) final Long id,
         @NotNull @RequestBody Author author
@@ -147,15 +163,36 @@ public class AuthorResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of authors in body.
+     * @param request the request, whose {@code Accept} header selects the format of the large pages.
+     * @param response the response, which the large pages are written to as their rows are read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of authors in body, or {@code null}
+     * once the page is written to the response.
+     * @throws IOException if the page can't be written to the response.
      */
     @GetMapping("")
     public ResponseEntity<List<Author>> getAllAuthors(
         AuthorCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
-    ) {
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
         log.debug("REST request to get Authors by criteria: {}", criteria);
 
+        if (jsonPageWriter.isStreamed(request, pageable)) {
+            long total = authorQueryService.countByCriteria(criteria);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                new PageImpl<>(List.of(), pageable, total)
+            );
+            jsonPageWriter.write(
+                request,
+                response,
+                headers,
+                Author.class,
+                rows -> authorQueryService.streamByCriteria(criteria, pageable, rows)
+            );
+            return null;
+        }
         Page<Author> page = authorQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
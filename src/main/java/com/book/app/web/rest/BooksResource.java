@@ -5,9 +5,14 @@ import com.book.app.repository.BooksRepository;
 import com.book.app.service.BooksQueryService;
 import com.book.app.service.BooksService;
 import com.book.app.service.criteria.BooksCriteria;
+import com.book.app.service.dto.BooksFacetsDTO;
 import com.book.app.web.rest.errors.BadRequestAlertException;
+import com.book.app.web.rest.util.JsonPageWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -17,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
@@ -46,10 +52,18 @@ public class BooksResource {
 
     private final BooksQueryService booksQueryService;
 
-    public BooksResource(BooksService booksService, BooksRepository booksRepository, BooksQueryService booksQueryService) {
+    private final JsonPageWriter jsonPageWriter;
+
+    public BooksResource(
+        BooksService booksService,
+        BooksRepository booksRepository,
+        BooksQueryService booksQueryService,
+        JsonPageWriter jsonPageWriter
+    ) {
         this.booksService = booksService;
         this.booksRepository = booksRepository;
         this.booksQueryService = booksQueryService;
+        this.jsonPageWriter = jsonPageWriter;
     }
 
     /**
@@ -115,7 +129,10 @@ public class BooksResource {
      * or with status {@code 500 (Internal Server Error)} if the books couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @PatchMapping(
+        value = "/{id}",
+        consumes = { "application/json", "application/merge-patch+json", "application/cbor", "application/x-jackson-smile" }
+    )
     public ResponseEntity<Books> partialUpdateBooks(
         @PathVariable(value = "id", required = false) final Long id,
         @NotNull @RequestBody Books books
@@ -145,15 +162,36 @@ public class BooksResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of books in body.
+     * @param request the request, whose {@code Accept} header selects the format of the large pages.
+     * @param response the response, which the large pages are written to as their rows are read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of books in body, or {@code null} once
+     * the page is written to the response.
+     * @throws IOException if the page can't be written to the response.
      */
     @GetMapping("")
     public ResponseEntity<List<Books>> getAllBooks(
         BooksCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
-    ) {
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
         log.debug("REST request to get Books by criteria: {}", criteria);
 
+        if (jsonPageWriter.isStreamed(request, pageable)) {
+            long total = booksQueryService.countByCriteria(criteria);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                new PageImpl<>(List.of(), pageable, total)
+            );
+            jsonPageWriter.write(
+                request,
+                response,
+                headers,
+                Books.class,
+                rows -> booksQueryService.streamByCriteria(criteria, pageable, rows)
+            );
+            return null;
+        }
         Page<Books> page = booksQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -171,6 +209,18 @@ public class BooksResource {
         return ResponseEntity.ok().body(booksQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /books/_facets} : count the books per author and per price bucket.
+     *
+     * @param criteria the criteria which the counted entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the facets in body.
+     */
+    @GetMapping("/_facets")
+    public ResponseEntity<BooksFacetsDTO> getBooksFacets(BooksCriteria criteria) {
+        log.debug("REST request to get the facets of Books by criteria: {}", criteria);
+        return ResponseEntity.ok().body(booksQueryService.facetsByCriteria(criteria));
+    }
+
     /**
      * {@code GET  /books/:id} : get the "id" books.
      *
@@ -0,0 +1,207 @@
+package com.book.app.web.rest.util;
+
+import com.book.app.config.ApplicationProperties;
+import com.book.app.domain.Author;
+import com.book.app.domain.Books;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Writes the large pages of the list endpoints as a JSON array, row by row as they are read from the database, rather
+ * than reading the whole page into a list which is then written: the heap holds one chunk of rows at a time, and the
+ * client gets the first rows while the others are read. The array is written as CBOR or Smile instead when the request
+ * accepts them rather than JSON, with the mappers of their message converters.
+ * <p>
+ * The generator writes to the response through Jackson's recycled buffers, and is flushed every
+ * {@code application.query.streaming.chunk-size} rows; the writer of each type of rows is kept, with its serializer.
+ * The status and the headers are sent before the rows, so an error while writing them cuts the array short, with no
+ * closing bracket, rather than turning into an error response.
+ */
+@Component
+public class JsonPageWriter {
+
+    /**
+     * The rows of a page, passed to a consumer in order.
+     *
+     * @param <T> the type of the rows.
+     */
+    @FunctionalInterface
+    public interface Rows<T> {
+        void forEach(Consumer<? super T> consumer);
+    }
+
+    /**
+     * The formats, in order of preference when the request accepts several of them.
+     */
+    private final List<Format> formats;
+
+    private final boolean enabled;
+
+    private final int minPageSize;
+
+    private final int chunkSize;
+
+    public JsonPageWriter(
+        ObjectMapper objectMapper,
+        MappingJackson2CborHttpMessageConverter cborConverter,
+        MappingJackson2SmileHttpMessageConverter smileConverter,
+        ApplicationProperties applicationProperties
+    ) {
+        this.formats = List.of(new Format(MediaType.APPLICATION_JSON, objectMapper), Format.of(cborConverter), Format.of(smileConverter));
+        ApplicationProperties.Query.Streaming streaming = applicationProperties.getQuery().getStreaming();
+        this.enabled = streaming.isEnabled();
+        this.minPageSize = streaming.getMinPageSize();
+        this.chunkSize = streaming.getChunkSize();
+        // the serializers of the rows of the list endpoints are built at startup rather than by their first request
+        for (Format format : formats) {
+            for (Class<?> type : List.of(Books.class, Author.class)) {
+                format.writerFor(type);
+            }
+        }
+    }
+
+    /**
+     * @param request the request.
+     * @param pageable the requested page.
+     * @return whether the page should be written as its rows are read, in a format the request accepts.
+     */
+    public boolean isStreamed(HttpServletRequest request, Pageable pageable) {
+        return enabled && pageable.isPaged() && pageable.getPageSize() >= minPageSize && negotiate(request) != null;
+    }
+
+    /**
+     * Writes a page with status {@code 200 (OK)}, once {@link #isStreamed} accepted it.
+     *
+     * @param request the request, whose {@code Accept} header selects the format.
+     * @param response the response.
+     * @param headers the headers of the response, such as the pagination headers.
+     * @param type the type of the rows.
+     * @param rows the rows.
+     * @param <T> the type of the rows.
+     * @throws IOException if the response can't be written.
+     */
+    public <T> void write(HttpServletRequest request, HttpServletResponse response, HttpHeaders headers, Class<T> type, Rows<T> rows)
+        throws IOException {
+        Format format = negotiate(request);
+        if (format == null) {
+            throw new IllegalStateException("The request accepts none of the streamed formats");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentType(format.mediaType.toString());
+        ObjectWriter writer = format.writerFor(type);
+        try (JsonGenerator generator = format.objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            // the container closes the response, and an array cut short must stay unclosed
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartArray();
+            rows.forEach(new ChunkedWriter<>(writer, generator, chunkSize));
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return the preferred format which the request accepts, JSON when it has no {@code Accept} header, or
+     * {@code null} if it accepts none of them.
+     */
+    private Format negotiate(HttpServletRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(Collections.list(request.getHeaders(HttpHeaders.ACCEPT))));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        if (accepted.isEmpty()) {
+            return formats.get(0);
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() > 0) {
+                for (Format format : formats) {
+                    if (mediaType.includes(format.mediaType)) {
+                        return format;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A media type, with its mapper and the writers of the types of rows, which keep their serializer.
+     */
+    private static final class Format {
+
+        private final MediaType mediaType;
+
+        private final ObjectMapper objectMapper;
+
+        private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+        private Format(MediaType mediaType, ObjectMapper objectMapper) {
+            this.mediaType = mediaType;
+            this.objectMapper = objectMapper;
+        }
+
+        private static Format of(AbstractJackson2HttpMessageConverter converter) {
+            return new Format(converter.getSupportedMediaTypes().get(0), converter.getObjectMapper());
+        }
+
+        private ObjectWriter writerFor(Class<?> type) {
+            return writers.computeIfAbsent(type, key -> objectMapper.writerFor(key).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        }
+    }
+
+    private static final class ChunkedWriter<T> implements Consumer<T> {
+
+        private final ObjectWriter writer;
+
+        private final JsonGenerator generator;
+
+        private final int chunkSize;
+
+        private int written;
+
+        private ChunkedWriter(ObjectWriter writer, JsonGenerator generator, int chunkSize) {
+            this.writer = writer;
+            this.generator = generator;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void accept(T row) {
+            try {
+                writer.writeValue(generator, row);
+                if (++written % chunkSize == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utilities of the rest layer.
+ */
+package com.book.app.web.rest.util;
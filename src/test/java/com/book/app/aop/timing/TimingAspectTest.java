@@ -0,0 +1,119 @@
+package com.book.app.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.book.app.domain.User;
+import com.book.app.repository.AuthorRepository;
+import com.book.app.repository.BooksRepository;
+import com.book.app.repository.UserRepository;
+import com.book.app.service.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Unit tests for the {@link TimingAspect}.
+ */
+class TimingAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TimingAspect timingAspect = new TimingAspect(meterRegistry, Duration.ofSeconds(1), 0);
+
+    @Test
+    void shouldTimeTheInheritedMethodsOfEachRepository() throws Throwable {
+        Method count = CrudRepository.class.getMethod("count");
+
+        timingAspect.timeAround(joinPoint(repository(BooksRepository.class), count));
+        timingAspect.timeAround(joinPoint(repository(BooksRepository.class), count));
+        timingAspect.timeAround(joinPoint(repository(AuthorRepository.class), count));
+
+        assertThat(meterRegistry.get("books.method").tag("class", "BooksRepository").tag("method", "count").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("books.method").tag("class", "AuthorRepository").tag("method", "count").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.find("books.method").tag("class", "CrudRepository").timer()).isNull();
+    }
+
+    @Test
+    void shouldTimeTheMethodsOfAClassByItsUserClass() throws Throwable {
+        Method userToUserDTO = UserMapper.class.getMethod("userToUserDTO", User.class);
+
+        timingAspect.timeAround(joinPoint(new UserMapper(), userToUserDTO));
+
+        assertThat(meterRegistry.get("books.method").tag("class", "UserMapper").tag("method", "userToUserDTO").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeTheFailuresApart() throws Throwable {
+        Method count = CrudRepository.class.getMethod("count");
+        ProceedingJoinPoint joinPoint = joinPoint(repository(BooksRepository.class), count);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("count failed"));
+
+        assertThatThrownBy(() -> timingAspect.timeAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("books.method").tag("class", "BooksRepository").tag("outcome", "failure").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("books.method").tag("class", "BooksRepository").tag("outcome", "success").timer().count()).isZero();
+    }
+
+    @Test
+    void shouldLogTheSlowCallsWithoutTheirArguments() throws Throwable {
+        TimingAspect logAllCalls = new TimingAspect(meterRegistry, Duration.ZERO, 1);
+        Method findOneByResetKey = UserRepository.class.getMethod("findOneByResetKey", String.class);
+        ProceedingJoinPoint joinPoint = joinPoint(repository(UserRepository.class), findOneByResetKey);
+        when(joinPoint.getArgs()).thenReturn(new Object[] { "secret-reset-key" });
+        Logger logger = (Logger) LoggerFactory.getLogger(TimingAspect.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            when(joinPoint.proceed()).thenAnswer(invocation -> {
+                Thread.sleep(1);
+                return null;
+            });
+
+            logAllCalls.timeAround(joinPoint);
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertThat(appender.list)
+            .singleElement()
+            .extracting(ILoggingEvent::getFormattedMessage)
+            .asString()
+            .startsWith("Slow call: UserRepository.findOneByResetKey(String) took ")
+            .doesNotContain("secret-reset-key");
+    }
+
+    /**
+     * A JDK proxy of a repository interface, as Spring Data creates.
+     */
+    private static Object repository(Class<?> repositoryInterface) {
+        InvocationHandler handler = (proxy, method, args) -> null;
+        return Proxy.newProxyInstance(repositoryInterface.getClassLoader(), new Class<?>[] { repositoryInterface }, handler);
+    }
+
+    private static ProceedingJoinPoint joinPoint(Object target, Method method) {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getTarget()).thenReturn(target);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+        return joinPoint;
+    }
+}
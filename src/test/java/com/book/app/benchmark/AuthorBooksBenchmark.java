@@ -0,0 +1,76 @@
+package com.book.app.benchmark;
+
+import com.book.app.domain.Books;
+import com.book.app.domain.EntityIdSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The books of an author with thousands of books, filled and looked up in a {@link HashSet}, where the books all share
+ * one bucket as their {@code hashCode()} is the one of their class, or in an {@link EntityIdSet} keyed by their id.
+ * The {@code gc} profiler of the benchmark profile reports the allocations of each.
+ * <p>
+ * Run with {@code -Dbenchmark.include=AuthorBooksBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorBooksBenchmark {
+
+    private static final int LOOKUPS = 100;
+
+    @Param({ "1000", "5000" })
+    private int booksPerAuthor;
+
+    @Param({ "hash", "ids" })
+    private String set;
+
+    private Books[] books;
+
+    private Books[] lookups;
+
+    private Set<Books> filled;
+
+    @Setup
+    public void setup() {
+        books = new Books[booksPerAuthor];
+        for (int i = 0; i < booksPerAuthor; i++) {
+            books[i] = new Books().id((long) i).title("Book " + i).price(10.0 + i % 50);
+        }
+        // other instances of the same books, as loaded by another persistence context
+        lookups = new Books[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = new Books().id((long) (i * 7919 % booksPerAuthor));
+        }
+        filled = fill();
+    }
+
+    /**
+     * As Hibernate initializes the collection.
+     */
+    @Benchmark
+    public Set<Books> fill() {
+        Set<Books> result = "ids".equals(set) ? new EntityIdSet<>(Books.class, Books::getId, books.length) : new HashSet<>();
+        for (Books book : books) {
+            result.add(book);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int contains() {
+        int found = 0;
+        for (Books book : lookups) {
+            if (filled.contains(book)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,120 @@
+package com.book.app.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH result file with the baseline committed in {@code src/test/resources/benchmark/baseline.json}, and
+ * fails when a benchmark regressed.
+ * <p>
+ * A benchmark regresses when its score is worse than the baseline by more than the threshold, and by more than the
+ * error margins of both runs: lower is better for the time modes, higher is better for the throughput mode. Benchmarks
+ * missing from the baseline are reported as new. The single-shot benchmarks, run once without error margin, are not
+ * compared. The baseline must be recorded on the machine running the comparison,
+ * with {@code update} as last argument; the comparison fails as long as the baseline is empty, since it would pass
+ * whatever the results.
+ * <p>
+ * Arguments: the result file, the baseline file, the threshold in percent and, optionally, {@code check} or
+ * {@code update}.
+ */
+public final class BenchmarkRegressionCheck {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BenchmarkRegressionCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException(
+                "Usage: BenchmarkRegressionCheck <result.json> <baseline.json> <threshold %> [check|update]"
+            );
+        }
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]) / 100;
+        if (args.length > 3 && "update".equals(args[3])) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline " + baseline + " updated from " + result);
+            return;
+        }
+
+        List<String> regressions = compare(read(result), read(baseline), threshold);
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException(regressions.size() + " benchmark(s) regressed:\n" + String.join("\n", regressions));
+        }
+    }
+
+    static List<String> compare(Map<String, Score> results, Map<String, Score> baseline, double threshold) {
+        if (baseline.isEmpty()) {
+            throw new IllegalStateException(
+                "The baseline is empty, so no regression can be detected: record it on this machine with -Dbenchmark.compare.mode=update"
+            );
+        }
+        List<String> regressions = new ArrayList<>();
+        List<String> newBenchmarks = new ArrayList<>();
+        results.forEach((key, score) -> {
+            Score reference = baseline.get(key);
+            if (reference == null) {
+                System.out.printf("NEW        %s: %.3f %s%n", key, score.value(), score.unit());
+                newBenchmarks.add(key);
+                return;
+            }
+            // positive when the score is worse than the baseline
+            double degradation = score.higherIsBetter() ? reference.value() - score.value() : score.value() - reference.value();
+            double relativeDegradation = degradation / reference.value();
+            boolean regressed = relativeDegradation > threshold && degradation > score.error() + reference.error();
+            String line = String.format(
+                "%-10s %s: %.3f %s (baseline %.3f, %+.1f%%)",
+                regressed ? "REGRESSION" : "OK",
+                key,
+                score.value(),
+                score.unit(),
+                reference.value(),
+                -relativeDegradation * 100
+            );
+            System.out.println(line);
+            if (regressed) {
+                regressions.add(line);
+            }
+        });
+        if (!newBenchmarks.isEmpty() && newBenchmarks.size() == results.size()) {
+            System.out.printf("WARNING    none of the %d benchmark(s) is in the baseline, nothing was compared%n", results.size());
+        }
+        return regressions;
+    }
+
+    static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : OBJECT_MAPPER.readTree(file.toFile())) {
+            if ("ss".equals(run.path("mode").asText())) {
+                continue;
+            }
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            JsonNode primaryMetric = run.path("primaryMetric");
+            double error = primaryMetric.path("scoreError").asDouble(0);
+            scores.put(
+                run.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString()),
+                new Score(
+                    primaryMetric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    primaryMetric.path("scoreUnit").asText(),
+                    "thrpt".equals(run.path("mode").asText())
+                )
+            );
+        }
+        return scores;
+    }
+
+    record Score(double value, double error, String unit, boolean higherIsBetter) {}
+}
@@ -0,0 +1,97 @@
+package com.book.app.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.book.app.benchmark.BenchmarkRegressionCheck.Score;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link BenchmarkRegressionCheck}.
+ */
+class BenchmarkRegressionCheckTest {
+
+    @Test
+    void shouldReadJmhResultsKeyedByBenchmarkAndParams(@TempDir Path directory) throws IOException {
+        Path result = directory.resolve("result.json");
+        Files.writeString(
+            result,
+            """
+            [{
+                "benchmark": "com.book.app.benchmark.SpaWebFilterBenchmark.doFilter",
+                "mode": "avgt",
+                "params": { "path": "/api/books" },
+                "primaryMetric": { "score": 42.5, "scoreError": "NaN", "scoreUnit": "ns/op" }
+            }]
+            """
+        );
+
+        assertThat(BenchmarkRegressionCheck.read(result))
+            .containsExactly(
+                Map.entry("com.book.app.benchmark.SpaWebFilterBenchmark.doFilter{path=/api/books}", new Score(42.5, 0, "ns/op", false))
+            );
+    }
+
+    @Test
+    void shouldNotReadTheSingleShotResults(@TempDir Path directory) throws IOException {
+        Path result = directory.resolve("result.json");
+        Files.writeString(
+            result,
+            """
+            [{
+                "benchmark": "com.book.app.benchmark.WireFormatBenchmark.size",
+                "mode": "ss",
+                "params": { "format": "json", "pageSize": "20" },
+                "primaryMetric": { "score": 1.5, "scoreError": "NaN", "scoreUnit": "us/op" }
+            }]
+            """
+        );
+
+        assertThat(BenchmarkRegressionCheck.read(result)).isEmpty();
+    }
+
+    @Test
+    void shouldFlagSlowerAverageTimesOverTheThreshold() {
+        Map<String, Score> baseline = Map.of("a", new Score(100, 2, "ns/op", false), "b", new Score(100, 2, "ns/op", false));
+        Map<String, Score> results = Map.of("a", new Score(120, 2, "ns/op", false), "b", new Score(105, 2, "ns/op", false));
+
+        assertThat(BenchmarkRegressionCheck.compare(results, baseline, 0.1)).hasSize(1).allMatch(line -> line.contains(" a: "));
+    }
+
+    @Test
+    void shouldFlagLowerThroughputsOverTheThreshold() {
+        Map<String, Score> baseline = Map.of("a", new Score(1000, 10, "ops/s", true));
+
+        assertThat(BenchmarkRegressionCheck.compare(Map.of("a", new Score(800, 10, "ops/s", true)), baseline, 0.1)).hasSize(1);
+        assertThat(BenchmarkRegressionCheck.compare(Map.of("a", new Score(1500, 10, "ops/s", true)), baseline, 0.1)).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreDifferencesWithinTheErrorMargins() {
+        Map<String, Score> baseline = Map.of("a", new Score(100, 15, "ns/op", false));
+
+        assertThat(BenchmarkRegressionCheck.compare(Map.of("a", new Score(125, 15, "ns/op", false)), baseline, 0.1)).isEmpty();
+    }
+
+    @Test
+    void shouldNotFlagNewBenchmarks() {
+        Map<String, Score> baseline = Map.of("a", new Score(100, 1, "ns/op", false));
+        Map<String, Score> results = Map.of("a", new Score(100, 1, "ns/op", false), "b", new Score(100, 1, "ns/op", false));
+
+        assertThat(BenchmarkRegressionCheck.compare(results, baseline, 0.1)).isEmpty();
+    }
+
+    @Test
+    void shouldFailWhenTheBaselineIsEmpty() {
+        Map<String, Score> results = Map.of("a", new Score(100, 1, "ns/op", false));
+
+        assertThatThrownBy(() -> BenchmarkRegressionCheck.compare(results, Map.of(), 0.1))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("-Dbenchmark.compare.mode=update");
+    }
+}
@@ -0,0 +1,174 @@
+package com.book.app.benchmark;
+
+import com.book.app.config.ApplicationProperties;
+import com.book.app.domain.Author;
+import com.book.app.domain.Books;
+import com.book.app.repository.BooksRepository;
+import com.book.app.service.BooksQueryService;
+import com.book.app.service.catalog.CatalogSnapshot;
+import com.book.app.service.criteria.BooksCriteria;
+import com.book.app.service.query.PageQueryExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+/**
+ * A page of books matching a title search, of an author, and matching every filter, read by {@link BooksQueryService}
+ * from the cached plan of the criteria shape, or from a {@link org.springframework.data.jpa.domain.Specification}
+ * translated by Hibernate on each call. Both run the same SQL on an in-memory H2 catalog, so the difference is the CPU
+ * spent building and translating the query.
+ * <p>
+ * In the {@code snapshot} mode, the page is selected by the {@link CatalogSnapshot}, and only its books are read.
+ * <p>
+ * Run with {@code -Dbenchmark.include=BooksQueryPlanBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BooksQueryPlanBenchmark {
+
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Param({ "title", "author", "all" })
+    private String filters;
+
+    @Param({ "specification", "plan", "snapshot" })
+    private String mode;
+
+    private EmbeddedDatabase dataSource;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+
+    private EntityManager entityManager;
+
+    private BenchmarkQueryService queryService;
+
+    private BooksCriteria criteria;
+
+    @Setup
+    public void setup() {
+        dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.book.app.domain");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(
+            Map.of("hibernate.hbm2ddl.auto", "create-drop", "hibernate.cache.use_second_level_cache", "false")
+        );
+        entityManagerFactory.afterPropertiesSet();
+        entityManager = entityManagerFactory.getObject().createEntityManager();
+        seed();
+
+        BooksRepository booksRepository = new JpaRepositoryFactory(entityManager).getRepository(BooksRepository.class);
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+        // the content and the count one after the other, on the same entity manager
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            Runnable::run,
+            transactionManager,
+            new SimpleMeterRegistry(),
+            false,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(30)
+        );
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getQuery().getSnapshot().setEnabled("snapshot".equals(mode));
+        CatalogSnapshot catalogSnapshot = new CatalogSnapshot(
+            dataSource,
+            transactionManager,
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+        catalogSnapshot.reload();
+        queryService = new BenchmarkQueryService(booksRepository, entityManager, pageQueryExecutor, applicationProperties, catalogSnapshot);
+        criteria = new BooksCriteria();
+        if ("author".equals(filters)) {
+            // compared on the foreign key, without joining the authors
+            criteria.authorId().setEquals(7L);
+            return;
+        }
+        criteria.title().setContains("java");
+        if ("all".equals(filters)) {
+            criteria.id().setGreaterThan(0L);
+            criteria.price().setLessThanOrEqual(150.0);
+            criteria.authorId().setIn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+            criteria.setDistinct(true);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.destroy();
+        dataSource.shutdown();
+    }
+
+    @Benchmark
+    public Page<Books> findByCriteria() {
+        // a new persistence context for each request, as in the application
+        entityManager.clear();
+        return "specification".equals(mode)
+            ? queryService.findBySpecification(criteria, PAGE)
+            : queryService.findByCriteria(criteria, PAGE);
+    }
+
+    private void seed() {
+        entityManager.getTransaction().begin();
+        Author[] authors = new Author[50];
+        for (int i = 0; i < authors.length; i++) {
+            authors[i] = new Author().name("Author " + i);
+            entityManager.persist(authors[i]);
+        }
+        String[] words = { "java", "spring", "data", "garden", "history" };
+        for (int i = 0; i < 5_000; i++) {
+            entityManager.persist(
+                new Books()
+                    .title(words[i % words.length] + " " + words[(i / 5) % words.length] + " " + i)
+                    .price(1 + (i % 200) * 0.99)
+                    .author(authors[i % authors.length])
+            );
+        }
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+    }
+
+    /**
+     * Exposes the specification the service used before its query plans.
+     */
+    private static final class BenchmarkQueryService extends BooksQueryService {
+
+        private final BooksRepository booksRepository;
+
+        private BenchmarkQueryService(
+            BooksRepository booksRepository,
+            EntityManager entityManager,
+            PageQueryExecutor pageQueryExecutor,
+            ApplicationProperties applicationProperties,
+            CatalogSnapshot catalogSnapshot
+        ) {
+            super(booksRepository, entityManager, pageQueryExecutor, applicationProperties, catalogSnapshot);
+            this.booksRepository = booksRepository;
+        }
+
+        private Page<Books> findBySpecification(BooksCriteria criteria, Pageable page) {
+            return booksRepository.findAll(createSpecification(criteria), page);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.book.app.benchmark;
+
+import com.book.app.config.ApplicationProperties;
+import com.book.app.domain.Books;
+import com.book.app.service.BooksQueryService;
+import com.book.app.service.criteria.BooksCriteria;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Construction of the {@link Specification} of a catalog query by {@link BooksQueryService}, for the criteria of a
+ * plain listing, of a title search and of a request using every filter. The specification is only built, not
+ * translated to SQL.
+ * <p>
+ * Run with {@code -Dbenchmark.include=BooksSpecificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BooksSpecificationBenchmark {
+
+    @Param({ "none", "title", "all" })
+    private String filters;
+
+    private SpecificationFactory specificationFactory;
+
+    private BooksCriteria criteria;
+
+    @Setup
+    public void setup() {
+        specificationFactory = new SpecificationFactory();
+        criteria = new BooksCriteria();
+        if (!"none".equals(filters)) {
+            criteria.title().setContains("java");
+        }
+        if ("all".equals(filters)) {
+            criteria.id().setGreaterThan(100L);
+            criteria.price().setLessThanOrEqual(50.0);
+            criteria.authorId().setIn(List.of(1L, 2L, 3L));
+            criteria.setDistinct(true);
+        }
+    }
+
+    @Benchmark
+    public Specification<Books> createSpecification() {
+        return specificationFactory.createSpecification(criteria);
+    }
+
+    /**
+     * Exposes the protected factory method; the repository is not used to build a specification.
+     */
+    private static final class SpecificationFactory extends BooksQueryService {
+
+        private SpecificationFactory() {
+            super(null, null, null, new ApplicationProperties(), null);
+        }
+
+        @Override
+        protected Specification<Books> createSpecification(BooksCriteria criteria) {
+            return super.createSpecification(criteria);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.book.app.benchmark;
+
+import com.book.app.config.JacksonConfiguration;
+import com.book.app.domain.Author;
+import com.book.app.domain.Books;
+import com.book.app.domain.User;
+import com.book.app.service.dto.AdminUserDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson serialization of a page of {@link Books}, each with its author, of a page of {@link Author}s, each with
+ * its books, and of a page of {@link AdminUserDTO}s, as returned by the REST resources. The {@link ObjectMapper} is
+ * built like the one of the application, with the modules of {@link JacksonConfiguration} including the
+ * {@code Hibernate6Module}, with ({@code blackbird}) or without ({@code reflection}) its {@code BlackbirdModule}.
+ * The {@code *Writer} benchmarks serialize with an {@link ObjectWriter} built once for the page type, as
+ * {@code JsonPageWriter} does, rather than looked up by the mapper for each page.
+ * <p>
+ * Run with {@code -Dbenchmark.include=CatalogSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSerializationBenchmark {
+
+    private static final int BOOKS_PER_AUTHOR = 5;
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    @Param({ "reflection", "blackbird" })
+    private String accessors;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter booksWriter;
+
+    private ObjectWriter usersWriter;
+
+    private List<Books> books;
+
+    private List<Author> authors;
+
+    private List<AdminUserDTO> users;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        List<Module> modules = new ArrayList<>(
+            List.of(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule(), jacksonConfiguration.hibernate6Module())
+        );
+        if ("blackbird".equals(accessors)) {
+            modules.add(jacksonConfiguration.blackbirdModule());
+        }
+        objectMapper = Jackson2ObjectMapperBuilder.json().modules(modules).build();
+        booksWriter = objectMapper.writerFor(new TypeReference<List<Books>>() {});
+        usersWriter = objectMapper.writerFor(new TypeReference<List<AdminUserDTO>>() {});
+        authors = IntStream.range(0, pageSize).mapToObj(CatalogSerializationBenchmark::createAuthor).toList();
+        books = authors.stream().flatMap(author -> author.getBooks().stream()).limit(pageSize).toList();
+        users = IntStream.range(0, pageSize).mapToObj(CatalogSerializationBenchmark::createUser).toList();
+    }
+
+    @Benchmark
+    public byte[] booksPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] booksPageWriter() throws JsonProcessingException {
+        return booksWriter.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] authorsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(authors);
+    }
+
+    @Benchmark
+    public byte[] usersPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] usersPageWriter() throws JsonProcessingException {
+        return usersWriter.writeValueAsBytes(users);
+    }
+
+    private static Author createAuthor(int i) {
+        Author author = new Author().id((long) i).name("Author " + i);
+        for (int j = 0; j < BOOKS_PER_AUTHOR; j++) {
+            long id = (long) i * BOOKS_PER_AUTHOR + j;
+            author.addBooks(new Books().id(id).title("Book " + id + " of author " + i).price(10.0 + j));
+        }
+        return author;
+    }
+
+    private static AdminUserDTO createUser(int i) {
+        User user = new User();
+        user.setId((long) i);
+        user.setLogin("user" + i);
+        user.setFirstName("First" + i);
+        user.setLastName("Last" + i);
+        user.setEmail("user" + i + "@example.com");
+        user.setActivated(true);
+        user.setLangKey("en");
+        user.setCreatedBy("admin");
+        user.setCreatedDate(Instant.EPOCH);
+        user.setLastModifiedBy("admin");
+        user.setLastModifiedDate(Instant.EPOCH);
+        return new AdminUserDTO(user);
+    }
+}
@@ -0,0 +1,104 @@
+package com.book.app.benchmark;
+
+import com.book.app.domain.User;
+import com.book.app.service.MailTemplateRenderer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Renders per second of the activation e-mail by the {@link MailTemplateRenderer}, with and without the
+ * template and subject caches ({@code spring.thymeleaf.cache}), one at a time and as a bulk send.
+ * <p>
+ * Run with {@code -Dbenchmark.include=MailTemplateRenderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class MailTemplateRenderBenchmark {
+
+    private static final int BULK_SIZE = 1000;
+
+    private static final String TEMPLATE_NAME = "mail/activationEmail";
+
+    private static final String TITLE_KEY = "email.activation.title";
+
+    @Param({ "true", "false" })
+    private boolean cache;
+
+    private ThreadPoolTaskExecutor mailRenderExecutor;
+
+    private MailTemplateRenderer renderer;
+
+    private User user;
+
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(cache);
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        ThymeleafProperties thymeleafProperties = new ThymeleafProperties();
+        thymeleafProperties.setCache(cache);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+
+        mailRenderExecutor = new ThreadPoolTaskExecutor();
+        mailRenderExecutor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        mailRenderExecutor.setMaxPoolSize(Runtime.getRuntime().availableProcessors());
+        mailRenderExecutor.setThreadNamePrefix("benchmark-");
+        mailRenderExecutor.initialize();
+
+        renderer = new MailTemplateRenderer(templateEngine, messageSource, jHipsterProperties, thymeleafProperties, mailRenderExecutor);
+        users = IntStream.range(0, BULK_SIZE).mapToObj(MailTemplateRenderBenchmark::createUser).toList();
+        user = users.get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mailRenderExecutor.shutdown();
+    }
+
+    @Benchmark
+    public MailTemplateRenderer.RenderedMail render() {
+        return renderer.render(user, TEMPLATE_NAME, TITLE_KEY);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<MailTemplateRenderer.RenderedMail> renderAll() {
+        return renderer.renderAll(users, TEMPLATE_NAME, TITLE_KEY);
+    }
+
+    private static User createUser(int i) {
+        User user = new User();
+        user.setLogin("user" + i);
+        user.setEmail("user" + i + "@example.com");
+        user.setLangKey("en");
+        user.setActivationKey("activation" + i);
+        return user;
+    }
+}
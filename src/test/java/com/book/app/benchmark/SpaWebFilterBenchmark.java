@@ -0,0 +1,62 @@
+package com.book.app.benchmark;
+
+import com.book.app.web.filter.SpaWebFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Routing decision of the {@link SpaWebFilter} for a client route, forwarded to {@code index.html} or written from memory,
+ * and for API, static asset and management requests, passed down the chain.
+ * <p>
+ * Run with {@code -Dbenchmark.include=SpaWebFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpaWebFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {};
+
+    private static final String INDEX_HTML =
+        "<!doctype html><html lang=\"en\"><head><meta charset=\"utf-8\" /><title>Books</title>" +
+        "<script defer=\"defer\" src=\"main.4b2f1c.js\"></script></head><body><div id=\"root\"></div></body></html>";
+
+    @Param({ "/books/1051/edit", "/api/books", "/content/main.4b2f1c.js", "/management/health" })
+    private String path;
+
+    @Param({ "forward", "in-memory" })
+    private String index;
+
+    private SpaWebFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        filter =
+            "in-memory".equals(index)
+                ? new SpaWebFilter(new ByteArrayResource(INDEX_HTML.getBytes(StandardCharsets.UTF_8)))
+                : new SpaWebFilter();
+        request = new MockHttpServletRequest("GET", path);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws ServletException, IOException {
+        response.reset();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+}
@@ -0,0 +1,91 @@
+package com.book.app.benchmark;
+
+import com.book.app.broker.KafkaConsumer;
+import com.book.app.config.ApplicationProperties;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fan-out of a Kafka message by {@link KafkaConsumer#accept(String)} to the registered SSE clients, with the
+ * {@code sseExecutor} of the platform (synchronous) and virtual thread modes. An operation ends when the message has
+ * been written to every client.
+ * <p>
+ * The emitters are bound to a handler discarding the events, the way Spring MVC binds them to a response, so that only
+ * the event formatting and the dispatch are measured. The virtual mode requires Java 21: the benchmark profile only
+ * runs it on Java 21 and above, see {@code benchmark.threads}. Run with {@code -Dbenchmark.include=SseFanOutBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SseFanOutBenchmark {
+
+    private static final String MESSAGE = "{\"id\":1,\"title\":\"Book 1\",\"price\":10.0}";
+
+    /**
+     * Overridden by {@code -p threads=} in the benchmark profile.
+     */
+    @Param({ "platform", "virtual" })
+    private String threads;
+
+    @Param({ "10", "100", "1000" })
+    private int clients;
+
+    private KafkaConsumer kafkaConsumer;
+
+    private volatile CountDownLatch sent;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        TaskExecutor sseExecutor = "virtual".equals(threads) ? new VirtualThreadTaskExecutor("benchmark-") : new SyncTaskExecutor();
+        kafkaConsumer = new KafkaConsumer(
+            task -> {
+                CountDownLatch latch = sent;
+                sseExecutor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            },
+            new ApplicationProperties()
+        );
+        for (int i = 0; i < clients; i++) {
+            bindToDiscardingHandler(kafkaConsumer.register("client" + i));
+        }
+    }
+
+    @Benchmark
+    public void accept() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(clients);
+        sent = latch;
+        kafkaConsumer.accept(MESSAGE);
+        latch.await();
+    }
+
+    /**
+     * {@code ResponseBodyEmitter.initialize(Handler)} is package-private; until it is called, the events are buffered.
+     */
+    private static void bindToDiscardingHandler(SseEmitter emitter) throws ReflectiveOperationException {
+        Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+        Object handler = Proxy.newProxyInstance(
+            handlerType.getClassLoader(),
+            new Class<?>[] { handlerType },
+            (proxy, method, args) -> method.getDeclaringClass() == Object.class ? method.invoke(emitter, args) : null
+        );
+        Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", handlerType);
+        initialize.setAccessible(true);
+        initialize.invoke(emitter, handler);
+    }
+}
@@ -0,0 +1,85 @@
+package com.book.app.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Compares the platform thread pool used by default for {@code @Async} tasks with virtual threads, on tasks
+ * which mostly block on I/O like JDBC, SMTP and Kafka calls do.
+ * <p>
+ * The virtual mode requires Java 21: the benchmark profile only runs it on Java 21 and above, see
+ * {@code benchmark.threads}. Run with {@code -Dbenchmark.include=ThreadModeBenchmark}; the {@code gc} profiler of the
+ * benchmark profile compares the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    /**
+     * Overridden by {@code -p threads=} in the benchmark profile.
+     */
+    @Param({ "platform", "virtual" })
+    private String threads;
+
+    /**
+     * Concurrent requests per operation.
+     */
+    @Param({ "100", "1000" })
+    private int requests;
+
+    /**
+     * Time each request is blocked, e.g. waiting for the database.
+     */
+    @Param({ "5" })
+    private int blockingMillis;
+
+    private AsyncTaskExecutor executor;
+
+    @Setup
+    public void setup() {
+        if ("virtual".equals(threads)) {
+            executor = new VirtualThreadTaskExecutor("benchmark-");
+        } else {
+            // same settings as spring.task.execution.pool in application.yml, with a pool large enough to not queue
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(50);
+            pool.setMaxPoolSize(50);
+            pool.setQueueCapacity(10000);
+            pool.setThreadNamePrefix("benchmark-");
+            pool.initialize();
+            executor = pool;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void blockingRequests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(blockingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,87 @@
+package com.book.app.benchmark;
+
+import com.book.app.domain.Authority;
+import com.book.app.domain.User;
+import com.book.app.security.AuthoritiesConstants;
+import com.book.app.service.dto.AdminUserDTO;
+import com.book.app.service.dto.UserDTO;
+import com.book.app.service.mapper.UserMapper;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * {@link UserMapper} conversions used by the account and user management resources: a page of users to the public
+ * and admin DTOs, a set of users to their login DTOs, and an admin DTO back to an entity.
+ * <p>
+ * Run with {@code -Dbenchmark.include=UserMapperBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private UserMapper userMapper;
+
+    private List<User> users;
+
+    private Set<User> userSet;
+
+    private AdminUserDTO adminUserDTO;
+
+    @Setup
+    public void setup() {
+        userMapper = new UserMapper();
+        users = IntStream.range(0, PAGE_SIZE).mapToObj(UserMapperBenchmark::createUser).toList();
+        userSet = new HashSet<>(users);
+        adminUserDTO = new AdminUserDTO(users.get(0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<AdminUserDTO> usersToAdminUserDTOs() {
+        return userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public Set<UserDTO> toDtoLoginSet() {
+        return userMapper.toDtoLoginSet(userSet);
+    }
+
+    @Benchmark
+    public User userDTOToUser() {
+        return userMapper.userDTOToUser(adminUserDTO);
+    }
+
+    private static User createUser(int i) {
+        User user = new User();
+        user.setId((long) i);
+        user.setLogin("user" + i);
+        user.setFirstName("First" + i);
+        user.setLastName("Last" + i);
+        user.setEmail("user" + i + "@example.com");
+        user.setActivated(true);
+        user.setLangKey("en");
+        Authority userAuthority = new Authority();
+        userAuthority.setName(AuthoritiesConstants.USER);
+        Authority adminAuthority = new Authority();
+        adminAuthority.setName(AuthoritiesConstants.ADMIN);
+        user.setAuthorities(Set.of(userAuthority, adminAuthority));
+        return user;
+    }
+}
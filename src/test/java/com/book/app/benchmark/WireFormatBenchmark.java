@@ -0,0 +1,115 @@
+package com.book.app.benchmark;
+
+import com.book.app.config.JacksonConfiguration;
+import com.book.app.domain.Author;
+import com.book.app.domain.Books;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * A page of {@link Books}, each with its author, as sent by {@code GET /api/books} and read by its client, in each
+ * of the formats the REST resources negotiate: {@code json}, {@code cbor} ({@code application/cbor}) and
+ * {@code smile} ({@code application/x-jackson-smile}). The mappers have the modules of {@link JacksonConfiguration},
+ * as the message converters of the application. The size of the page in each format, the bytes on the wire, is
+ * reported by {@link #size(WireSize)} as its {@code bytes} secondary result.
+ * <p>
+ * Run with {@code -Dbenchmark.include=WireFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({ "20", "100", "500" })
+    private int pageSize;
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private List<Books> books;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() throws IOException {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        Jackson2ObjectMapperBuilder builder =
+            switch (format) {
+                case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+                case "smile" -> Jackson2ObjectMapperBuilder.smile();
+                default -> Jackson2ObjectMapperBuilder.json();
+            };
+        ObjectMapper objectMapper = builder
+            .modules(
+                jacksonConfiguration.javaTimeModule(),
+                jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate6Module(),
+                jacksonConfiguration.blackbirdModule()
+            )
+            .build();
+        TypeReference<List<Books>> page = new TypeReference<>() {};
+        writer = objectMapper.writerFor(page);
+        reader = objectMapper.readerFor(page);
+        books = IntStream.range(0, pageSize).mapToObj(WireFormatBenchmark::createBooks).toList();
+        content = writer.writeValueAsBytes(books);
+    }
+
+    /**
+     * The bytes on the wire of the page. JMH sums the events of all the iterations and threads, which
+     * {@link #size(WireSize)} runs once.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WireSize {
+
+        public long bytes;
+    }
+
+    /**
+     * The CPU of the server per request.
+     */
+    @Benchmark
+    public byte[] write() throws IOException {
+        return writer.writeValueAsBytes(books);
+    }
+
+    /**
+     * The size of the page written in {@link #setup()}; its time is meaningless.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Threads(1)
+    public void size(WireSize wireSize) {
+        wireSize.bytes = content.length;
+    }
+
+    /**
+     * The CPU of the client per request.
+     */
+    @Benchmark
+    public List<Books> read() throws IOException {
+        return reader.readValue(content);
+    }
+
+    private static Books createBooks(int i) {
+        Author author = new Author().id((long) i % 10).name("Author " + i % 10);
+        return new Books().id((long) i).title("Book " + i + " of author " + i % 10).price(10.0 + i % 50 + 0.99).author(author);
+    }
+}
@@ -0,0 +1,57 @@
+package com.book.app.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.book.app.config.ApplicationProperties;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Unit tests for the {@link KafkaConsumer}.
+ */
+class KafkaConsumerTest {
+
+    /**
+     * The tasks of the SSE executor, run by the test: the messages pile up until then.
+     */
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private KafkaConsumer kafkaConsumer;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSse().setClientQueueCapacity(2);
+        kafkaConsumer = new KafkaConsumer(tasks::add, applicationProperties);
+    }
+
+    @Test
+    void shouldCloseAClientWhoseQueueIsFull() {
+        SseEmitter slow = kafkaConsumer.register("slow");
+
+        kafkaConsumer.accept("first");
+        kafkaConsumer.accept("second");
+        kafkaConsumer.accept("third");
+        tasks.forEach(Runnable::run);
+
+        assertThat(tasks).hasSize(1);
+        assertThatThrownBy(() -> slow.send("fourth")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldKeepTheClientsWhichKeepUp() throws Exception {
+        SseEmitter client = kafkaConsumer.register("client");
+
+        kafkaConsumer.accept("first");
+        kafkaConsumer.accept("second");
+        tasks.forEach(Runnable::run);
+        kafkaConsumer.accept("third");
+
+        assertThat(tasks).hasSize(2);
+        client.send("fourth");
+    }
+}
@@ -0,0 +1,96 @@
+package com.book.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link AdaptivePoolSizeController}.
+ */
+class AdaptivePoolSizeControllerTest {
+
+    private static final String POOL_NAME = "Hikari";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private Timer acquireTimer;
+
+    private HikariDataSource pool;
+
+    private HikariPoolMXBean poolMXBean;
+
+    private HikariConfigMXBean configMXBean;
+
+    private AdaptivePoolSizeController controller;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        acquireTimer = Timer.builder("hikaricp.connections.acquire").tag("pool", POOL_NAME).register(meterRegistry);
+        pool = mock(HikariDataSource.class);
+        poolMXBean = mock(HikariPoolMXBean.class);
+        configMXBean = mock(HikariConfigMXBean.class);
+        when(pool.getPoolName()).thenReturn(POOL_NAME);
+        when(pool.getMaximumPoolSize()).thenReturn(10);
+        when(pool.getHikariPoolMXBean()).thenReturn(poolMXBean);
+        when(pool.getHikariConfigMXBean()).thenReturn(configMXBean);
+        when(configMXBean.getMinimumIdle()).thenReturn(10);
+
+        ApplicationProperties.Datasource.AdaptiveSizing properties = new ApplicationProperties().getDatasource().getAdaptiveSizing();
+        properties.setTargetAcquireTime(Duration.ofMillis(10));
+        properties.setMinPoolSize(5);
+        properties.setMaxPoolSize(11);
+        properties.setStep(2);
+        controller = new AdaptivePoolSizeController(properties, meterRegistry, List.of());
+        // the first call only samples the acquire timer
+        assertThat(controller.adjustPoolSize(pool)).isEqualTo(10);
+    }
+
+    @Test
+    void shouldGrowASlowPoolUpToTheMaximum() {
+        acquireTimer.record(Duration.ofMillis(50));
+        when(poolMXBean.getActiveConnections()).thenReturn(10);
+
+        assertThat(controller.adjustPoolSize(pool)).isEqualTo(11);
+        verify(configMXBean).setMaximumPoolSize(11);
+    }
+
+    @Test
+    void shouldGrowAPoolWithWaitingThreads() {
+        when(poolMXBean.getThreadsAwaitingConnection()).thenReturn(3);
+
+        assertThat(controller.adjustPoolSize(pool)).isEqualTo(11);
+    }
+
+    @Test
+    void shouldShrinkAnIdlePool() {
+        acquireTimer.record(Duration.ofMillis(1));
+        when(poolMXBean.getActiveConnections()).thenReturn(2);
+
+        assertThat(controller.adjustPoolSize(pool)).isEqualTo(8);
+        verify(configMXBean).setMinimumIdle(8);
+        verify(configMXBean).setMaximumPoolSize(8);
+    }
+
+    @Test
+    void shouldKeepABusyPoolWithinTheTarget() {
+        acquireTimer.record(Duration.ofMillis(5));
+        when(poolMXBean.getActiveConnections()).thenReturn(8);
+
+        assertThat(controller.adjustPoolSize(pool)).isEqualTo(10);
+        verify(configMXBean, never()).setMaximumPoolSize(anyInt());
+    }
+}
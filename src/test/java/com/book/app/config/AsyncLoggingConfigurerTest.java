@@ -0,0 +1,71 @@
+package com.book.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link AsyncLoggingConfigurer}.
+ */
+class AsyncLoggingConfigurerTest {
+
+    private LoggerContext loggerContext;
+
+    private ListAppender<ILoggingEvent> consoleAppender;
+
+    private ApplicationProperties.Logging loggingProperties;
+
+    @BeforeEach
+    void setup() {
+        loggerContext = new LoggerContext();
+        consoleAppender = new ListAppender<>();
+        consoleAppender.setContext(loggerContext);
+        consoleAppender.setName("CONSOLE");
+        consoleAppender.start();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(consoleAppender);
+        loggingProperties = new ApplicationProperties().getLogging();
+        loggingProperties.getAsync().setEnabled(true);
+    }
+
+    @Test
+    void shouldWriteTheConsoleLogsThroughAnAsyncAppender() {
+        AsyncLoggingConfigurer configurer = new AsyncLoggingConfigurer(loggerContext, loggingProperties, false, "{}");
+        configurer.configure();
+
+        Logger rootLogger = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        assertThat(rootLogger.getAppender("CONSOLE")).isNull();
+        assertThat(rootLogger.getAppender("ASYNC_CONSOLE")).isNotNull();
+
+        loggerContext.getLogger("test").info("message");
+        // stopping the async appender drains its queue
+        rootLogger.getAppender("ASYNC_CONSOLE").stop();
+        assertThat(consoleAppender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("message");
+    }
+
+    @Test
+    void shouldPublishQueueMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AsyncLoggingConfigurer configurer = new AsyncLoggingConfigurer(loggerContext, loggingProperties, false, "{}");
+        configurer.configure();
+        configurer.bindTo(meterRegistry);
+
+        assertThat(meterRegistry.get("books.logging.queue.remaining").tag("sink", "console").gauge().value()).isEqualTo(
+            loggingProperties.getAsync().getQueueSize()
+        );
+        assertThat(meterRegistry.get("books.logging.dropped").tag("sink", "console").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void shouldKeepTheConsoleWhenAsyncIsDisabled() {
+        loggingProperties.getAsync().setEnabled(false);
+        new AsyncLoggingConfigurer(loggerContext, loggingProperties, false, "{}").configure();
+
+        assertThat(loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("CONSOLE")).isSameAs(consoleAppender);
+    }
+}
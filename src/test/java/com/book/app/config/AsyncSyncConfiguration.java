@@ -4,6 +4,7 @@ import java.util.concurrent.Executor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 
 @Configuration
 public class AsyncSyncConfiguration {
@@ -12,4 +13,24 @@ public class AsyncSyncConfiguration {
     public Executor taskExecutor() {
         return new SyncTaskExecutor();
     }
+
+    @Bean(name = "mailExecutor")
+    public Executor mailExecutor() {
+        return new SyncTaskExecutor();
+    }
+
+    @Bean(name = "mailRenderExecutor")
+    public Executor mailRenderExecutor() {
+        return new SyncTaskExecutor();
+    }
+
+    @Bean(name = "queryExecutor")
+    public Executor queryExecutor() {
+        return new SyncTaskExecutor();
+    }
+
+    @Bean(name = "sseExecutor")
+    public TaskExecutor sseExecutor() {
+        return new SyncTaskExecutor();
+    }
 }
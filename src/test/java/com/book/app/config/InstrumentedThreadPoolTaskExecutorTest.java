@@ -0,0 +1,95 @@
+package com.book.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.book.app.config.InstrumentedThreadPoolTaskExecutor.RejectionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+class InstrumentedThreadPoolTaskExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private InstrumentedThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRecordQueueWaitAndRunTime() throws InterruptedException {
+        executor = saturatedExecutor(RejectionPolicy.FAIL);
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(meterRegistry.get("books.executor.queue.wait").tag("name", "test").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("books.executor.run").tag("name", "test").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "test").gauge()).isNotNull();
+    }
+
+    @Test
+    void shouldRunOnCallerThreadWhenSaturated() {
+        executor = saturatedExecutor(RejectionPolicy.CALLER_RUNS);
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        executor.execute(() -> threads.add(Thread.currentThread().getName()));
+
+        assertThat(threads).containsExactly(Thread.currentThread().getName());
+        assertThat(meterRegistry.get("books.executor.rejected").tag("policy", "caller_runs").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropOldestQueuedTaskWhenSaturated() {
+        executor = saturatedExecutor(RejectionPolicy.DROP_OLDEST);
+
+        executor.execute(() -> {});
+
+        assertThat(executor.getQueueSize()).isEqualTo(1);
+        assertThat(meterRegistry.get("books.executor.rejected").tag("policy", "drop_oldest").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailWhenSaturated() {
+        executor = saturatedExecutor(RejectionPolicy.FAIL);
+
+        assertThatThrownBy(() -> executor.execute(() -> {}))
+            .isInstanceOf(TaskRejectedException.class)
+            .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("books.executor.rejected").tag("policy", "fail").counter().count()).isEqualTo(1);
+    }
+
+    /**
+     * One busy thread and one queued task: the next submitted task is rejected.
+     */
+    private InstrumentedThreadPoolTaskExecutor saturatedExecutor(RejectionPolicy rejectionPolicy) {
+        InstrumentedThreadPoolTaskExecutor saturated = new InstrumentedThreadPoolTaskExecutor("test", meterRegistry, rejectionPolicy);
+        saturated.setCorePoolSize(1);
+        saturated.setMaxPoolSize(1);
+        saturated.setQueueCapacity(1);
+        saturated.initialize();
+        saturated.execute(this::awaitRelease);
+        saturated.execute(this::awaitRelease);
+        return saturated;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.book.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.book.app.config.StaticAssetResolver.StaticAsset;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * Unit tests for the {@link StaticAssetResolver}.
+ */
+class StaticAssetResolverTest {
+
+    private static final ResourceResolverChain LOCATION_CHAIN = new ResourceResolverChain() {
+        @Override
+        public Resource resolveResource(HttpServletRequest request, String path, List<? extends Resource> locations) {
+            try {
+                Resource resource = locations.get(0).createRelative(path);
+                return resource.exists() ? resource : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String resolveUrlPath(String path, List<? extends Resource> locations) {
+            return path;
+        }
+    };
+
+    @TempDir
+    private Path directory;
+
+    private List<Resource> locations;
+
+    private ApplicationProperties.StaticAssets properties;
+
+    @BeforeEach
+    void setUp() {
+        locations = List.of(new FileSystemResource(directory.toString() + "/"));
+        properties = new ApplicationProperties.StaticAssets();
+    }
+
+    @Test
+    void shouldGzipCompressibleAssetsOnce() throws IOException {
+        String script = "console.log('books');\n".repeat(200);
+        Files.writeString(directory.resolve("main.js"), script);
+        StaticAssetResolver resolver = new StaticAssetResolver(properties);
+
+        StaticAsset gzip = (StaticAsset) resolve(resolver, "main.js", "gzip, deflate, br");
+        StaticAsset identity = (StaticAsset) resolve(resolver, "main.js", null);
+
+        assertThat(gzip.getResponseHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gzip.getResponseHeaders().getFirst("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(gunzip(gzip.getByteArray())).isEqualTo(script);
+        assertThat(gzip.getFilename()).isEqualTo("main.js");
+        assertThat(identity.getResponseHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(identity.getResponseHeaders().getFirst("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(new String(identity.getByteArray(), StandardCharsets.UTF_8)).isEqualTo(script);
+        assertThat(gzip.getETag()).startsWith("\"").endsWith("-gzip\"").isNotEqualTo(identity.getETag());
+        assertThat(resolve(resolver, "main.js", "gzip")).isSameAs(gzip);
+    }
+
+    @Test
+    void shouldPreferThePrecompressedBrotliVariant() throws IOException {
+        Files.writeString(directory.resolve("main.4b2f1c3d.js"), "x".repeat(4096));
+        Files.write(directory.resolve("main.4b2f1c3d.js.br"), new byte[] { 1, 2, 3 });
+        StaticAssetResolver resolver = new StaticAssetResolver(properties);
+
+        StaticAsset brotli = (StaticAsset) resolve(resolver, "main.4b2f1c3d.js", "gzip, deflate, br");
+
+        assertThat(brotli.getByteArray()).containsExactly(1, 2, 3);
+        assertThat(brotli.getResponseHeaders().getFirst("Content-Encoding")).isEqualTo("br");
+        assertThat(brotli.getResponseHeaders().getCacheControl()).contains("immutable");
+        assertThat(((StaticAsset) resolve(resolver, "main.4b2f1c3d.js", "gzip")).getResponseHeaders().getFirst("Content-Encoding"))
+            .isEqualTo("gzip");
+    }
+
+    @Test
+    void shouldHonourTheQualitiesOfTheEncodings() throws IOException {
+        Files.writeString(directory.resolve("main.4b2f1c3d.js"), "x".repeat(4096));
+        Files.write(directory.resolve("main.4b2f1c3d.js.br"), new byte[] { 1, 2, 3 });
+        StaticAssetResolver resolver = new StaticAssetResolver(properties);
+
+        assertThat(contentEncoding(resolve(resolver, "main.4b2f1c3d.js", "br;q=0, gzip"))).isEqualTo("gzip");
+        assertThat(contentEncoding(resolve(resolver, "main.4b2f1c3d.js", "br;q=0.5, gzip;q=0.8"))).isEqualTo("gzip");
+        assertThat(contentEncoding(resolve(resolver, "main.4b2f1c3d.js", "gzip;q=0, br;q=0"))).isNull();
+        assertThat(contentEncoding(resolve(resolver, "main.4b2f1c3d.js", "identity, gzip;q=0"))).isNull();
+        assertThat(contentEncoding(resolve(resolver, "main.4b2f1c3d.js", "*;q=0.1, br;q=0"))).isEqualTo("gzip");
+        assertThat(contentEncoding(resolve(resolver, "main.4b2f1c3d.js", "GZIP; Q=1, BR; q=1.0"))).isEqualTo("br");
+    }
+
+    @Test
+    void shouldParseTheAcceptEncodingHeader() {
+        assertThat(StaticAssetResolver.parseAcceptEncoding("gzip, deflate;q=0.5, br;q=0, x;q=bad, ,"))
+            .containsOnly(entry("gzip", 1.0), entry("deflate", 0.5), entry("br", 0.0), entry("x", 0.0));
+    }
+
+    @Test
+    void shouldNotCompressSmallOrBinaryAssets() throws IOException {
+        Files.writeString(directory.resolve("small.css"), "body { margin: 0; }");
+        Files.write(directory.resolve("logo.png"), new byte[4096]);
+        StaticAssetResolver resolver = new StaticAssetResolver(properties);
+
+        StaticAsset css = (StaticAsset) resolve(resolver, "small.css", "gzip");
+        StaticAsset png = (StaticAsset) resolve(resolver, "logo.png", "gzip");
+
+        assertThat(css.getResponseHeaders()).isEmpty();
+        assertThat(png.getResponseHeaders()).isEmpty();
+        assertThat(png.getResponseHeaders().getCacheControl()).isNull();
+    }
+
+    @Test
+    void shouldServeLargeAssetsFromTheLocations() throws IOException {
+        Files.writeString(directory.resolve("vendor.js"), "x".repeat(4096));
+        properties.setMaxFileSize(DataSize.ofKilobytes(1));
+        StaticAssetResolver resolver = new StaticAssetResolver(properties);
+
+        assertThat(resolve(resolver, "vendor.js", "gzip")).isInstanceOf(FileSystemResource.class);
+        assertThat(resolver.getTotalSize()).isZero();
+    }
+
+    @Test
+    void shouldStayWithinTheTotalSize() throws IOException {
+        Files.write(directory.resolve("a.png"), new byte[600]);
+        Files.write(directory.resolve("b.png"), new byte[600]);
+        properties.setMaxTotalSize(DataSize.ofKilobytes(1));
+        StaticAssetResolver resolver = new StaticAssetResolver(properties);
+
+        assertThat(resolve(resolver, "a.png", null)).isInstanceOf(StaticAsset.class);
+        assertThat(resolve(resolver, "b.png", null)).isInstanceOf(FileSystemResource.class);
+        assertThat(resolver.getTotalSize()).isEqualTo(600);
+    }
+
+    @Test
+    void shouldNotResolveMissingAssets() {
+        assertThat(resolve(new StaticAssetResolver(properties), "missing.js", "gzip")).isNull();
+    }
+
+    private Resource resolve(StaticAssetResolver resolver, String path, String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + path);
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        return resolver.resolveResource(request, path, locations, LOCATION_CHAIN);
+    }
+
+    private static String contentEncoding(Resource resource) {
+        return ((StaticAsset) resource).getResponseHeaders().getFirst("Content-Encoding");
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
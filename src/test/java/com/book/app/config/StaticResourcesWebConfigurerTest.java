@@ -30,7 +30,7 @@ class StaticResourcesWebConfigurerTest {
         applicationContext = mock(WebApplicationContext.class);
         resourceHandlerRegistry = spy(new ResourceHandlerRegistry(applicationContext, servletContext));
         props = new JHipsterProperties();
-        staticResourcesWebConfiguration = spy(new StaticResourcesWebConfiguration(props));
+        staticResourcesWebConfiguration = spy(new StaticResourcesWebConfiguration(props, new ApplicationProperties()));
     }
 
     @Test
@@ -55,6 +55,7 @@ class StaticResourcesWebConfigurerTest {
         verify(staticResourcesWebConfiguration, times(1)).getCacheControl();
         verify(resourceHandlerRegistration, times(1)).setCacheControl(ccExpected);
         verify(resourceHandlerRegistration, times(1)).addResourceLocations(RESOURCE_LOCATIONS);
+        verify(resourceHandlerRegistration, times(1)).resourceChain(false);
     }
 
     @Test
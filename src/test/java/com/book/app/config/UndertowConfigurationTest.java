@@ -0,0 +1,159 @@
+package com.book.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+
+/**
+ * Unit tests for the {@link UndertowConfiguration} class.
+ */
+class UndertowConfigurationTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ApplicationProperties applicationProperties;
+
+    private UndertowServletWebServerFactory factory;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        factory = new UndertowServletWebServerFactory();
+    }
+
+    @Test
+    void shouldNotLimitByDefault() {
+        customize();
+
+        assertThat(factory.getBuilderCustomizers()).isEmpty();
+        assertThat(factory.getDeploymentInfoCustomizers()).isEmpty();
+    }
+
+    @Test
+    void shouldLimitTheConnectionsAndTheRequests() {
+        applicationProperties.getUndertow().setMaxConnections(1000);
+        applicationProperties.getUndertow().setMaxConcurrentRequests(200);
+
+        customize();
+
+        assertThat(factory.getBuilderCustomizers()).hasSize(1);
+        assertThat(factory.getDeploymentInfoCustomizers()).hasSize(1);
+    }
+
+    @Test
+    void shouldAnswer503BeyondTheConcurrentRequestsAndPublishTheMetricsOfTheServer() throws Exception {
+        applicationProperties.getUndertow().setMaxConnections(100);
+        applicationProperties.getUndertow().setMaxConcurrentRequests(1);
+        applicationProperties.getUndertow().setRequestQueueSize(0);
+        customize();
+        factory.setPort(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WebServer webServer = factory.getWebServer(servletContext ->
+            servletContext.addServlet("blocking", new BlockingServlet(started, release)).addMapping("/*")
+        );
+        webServer.start();
+        try {
+            new UndertowMetrics(meterRegistry)
+                .onApplicationEvent(new ServletWebServerInitializedEvent(webServer, mock(ServletWebServerApplicationContext.class)));
+            String address = ":" + webServer.getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost" + address + "/")).build();
+
+            CompletableFuture<HttpResponse<String>> first = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            HttpResponse<String> second = client.send(request, HttpResponse.BodyHandlers.ofString());
+            release.countDown();
+
+            assertThat(second.statusCode()).isEqualTo(503);
+            assertThat(first.get(5, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+            assertThat(meterRegistry.get("books.undertow.requests.rejected").counter().count()).isEqualTo(1);
+
+            assertThat(meterRegistry.get("books.undertow.threads.io").gauges()).extracting(Gauge::value).allMatch(value -> value > 0);
+            assertThat(meterRegistry.get("books.undertow.threads.worker.core").gauges()).isNotEmpty();
+            assertThat(meterRegistry.get("books.undertow.threads.worker.max").gauges()).isNotEmpty();
+            assertThat(meterRegistry.get("books.undertow.threads.worker.busy").gauges()).isNotEmpty();
+            assertThat(meterRegistry.get("books.undertow.threads.worker.queue").gauges()).isNotEmpty();
+            assertThat(listenerGauge("books.undertow.connections", address).value()).isNotNaN();
+            assertThat(listenerGauge("books.undertow.connections.limit", address).value()).isEqualTo(100);
+
+            // the listener stops accepting at 100 connections, and accepts again below 100
+            ObjectName listener = listener(address);
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            assertThat(mBeanServer.getAttribute(listener, "ConnectionLimitHighWater")).isEqualTo(100);
+            assertThat(mBeanServer.getAttribute(listener, "ConnectionLimitLowWater")).isEqualTo(100);
+        } finally {
+            release.countDown();
+            webServer.stop();
+        }
+    }
+
+    private void customize() {
+        new UndertowConfiguration().undertowLimitsCustomizer(applicationProperties, meterRegistry).customize(factory);
+    }
+
+    private Gauge listenerGauge(String metric, String address) {
+        return meterRegistry
+            .get(metric)
+            .gauges()
+            .stream()
+            .filter(gauge -> gauge.getId().getTag("address").endsWith(address))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static ObjectName listener(String address) throws Exception {
+        return ManagementFactory
+            .getPlatformMBeanServer()
+            .queryNames(new ObjectName("org.xnio:type=Xnio,*"), null)
+            .stream()
+            .filter(name -> name.getKeyProperty("address") != null && name.getKeyProperty("address").replace("\"", "").endsWith(address))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static class BlockingServlet extends HttpServlet {
+
+        private final transient CountDownLatch started;
+
+        private final transient CountDownLatch release;
+
+        BlockingServlet(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.getWriter().write("done");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.book.app.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class EntityIdSetTest {
+
+    private final Set<Books> books = new EntityIdSet<>(Books.class, Books::getId);
+
+    @Test
+    void shouldKeepOneBookPerId() {
+        assertThat(books.add(new Books().id(1L))).isTrue();
+        assertThat(books.add(new Books().id(1L))).isFalse();
+        assertThat(books.add(new Books().id(2L))).isTrue();
+
+        assertThat(books).hasSize(2);
+        assertThat(books.contains(new Books().id(2L))).isTrue();
+        assertThat(books.contains(new Books().id(3L))).isFalse();
+        assertThat(books.remove(new Books().id(1L))).isTrue();
+        assertThat(books).hasSize(1);
+    }
+
+    @Test
+    void shouldKeepTheBooksWithoutIdByIdentity() {
+        Books first = new Books();
+        Books second = new Books();
+
+        books.add(first);
+        books.add(second);
+        books.add(first);
+
+        assertThat(books).hasSize(2);
+        assertThat(books.contains(first)).isTrue();
+        assertThat(books.contains(new Books())).isFalse();
+    }
+
+    @Test
+    void shouldKeyTheBooksByTheIdTheyGet() {
+        Books persisted = new Books();
+        books.add(persisted);
+
+        persisted.setId(1L);
+
+        assertThat(books.contains(new Books().id(1L))).isTrue();
+        assertThat(books.add(new Books().id(1L))).isFalse();
+        assertThat(books).containsExactly(persisted);
+    }
+
+    @Test
+    void shouldRemoveFromTheIterator() {
+        books.add(new Books().id(1L));
+        books.add(new Books().id(2L));
+        books.add(new Books());
+
+        books.removeIf(book -> book.getId() == null || book.getId() == 1L);
+
+        assertThat(books).extracting(Books::getId).containsExactly(2L);
+        Iterator<Books> iterator = books.iterator();
+        iterator.next();
+        iterator.remove();
+        assertThat(books).isEmpty();
+    }
+
+    @Test
+    void shouldBeSerializable() throws Exception {
+        books.add(new Books().id(1L).title("Title"));
+        books.add(new Books().id(2L).title("Other"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(books);
+        }
+        Object copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+
+        assertThat(copy).isInstanceOf(EntityIdSet.class).isEqualTo(books);
+    }
+}
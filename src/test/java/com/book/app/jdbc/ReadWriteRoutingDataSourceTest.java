@@ -0,0 +1,133 @@
+package com.book.app.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Unit tests for the {@link ReadWriteRoutingDataSource} and the {@link ReplicaLagMonitor}.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "select lag";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    private Connection primaryConnection;
+
+    private Connection replicaConnection;
+
+    private Optional<String> currentUser;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        currentUser = Optional.of("user");
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToTheReplica() throws SQLException {
+        ReadWriteRoutingDataSource dataSource = createDataSource(replicaLagging(0));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        assertThat(meterRegistry.get("books.datasource.route").tag("target", "replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSendReadWriteTransactionsToThePrimary() throws SQLException {
+        ReadWriteRoutingDataSource dataSource = createDataSource(replicaLagging(0));
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldReadFromThePrimaryWhileTheReplicaLags() throws SQLException {
+        ReadWriteRoutingDataSource dataSource = createDataSource(replicaLagging(30));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("books.datasource.route").tag("reason", "replica-lag").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReadFromThePrimaryWhenTheReplicaIsDown() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replica, LAG_QUERY, Duration.ofSeconds(5), meterRegistry);
+        replicaLagMonitor.checkLag();
+        ReadWriteRoutingDataSource dataSource = createDataSource(replicaLagMonitor);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(replicaLagMonitor.isUsable()).isFalse();
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldReadTheWritesOfTheCurrentUserFromThePrimary() throws SQLException {
+        ReadWriteRoutingDataSource dataSource = createDataSource(replicaLagging(0));
+        dataSource.getConnection();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("books.datasource.route").tag("reason", "read-your-writes").counter().count()).isEqualTo(1);
+
+        currentUser = Optional.of("other-user");
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    private ReadWriteRoutingDataSource createDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        return new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor, Duration.ofMinutes(1), () -> currentUser, meterRegistry);
+    }
+
+    private ReplicaLagMonitor replicaLagging(double lagSeconds) throws SQLException {
+        DataSource lagDataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(lagDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(lagDataSource, LAG_QUERY, Duration.ofSeconds(5), meterRegistry);
+        replicaLagMonitor.checkLag();
+        return replicaLagMonitor;
+    }
+}
@@ -0,0 +1,64 @@
+package com.book.app.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.book.app.IntegrationTest;
+import com.book.app.domain.Author;
+import com.book.app.repository.AuthorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the SQL statement budget with {@code application.sql-budget.mode=fail}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(properties = { "application.sql-budget.mode=fail", "application.sql-budget.max-statements=1" })
+class SqlBudgetFailModeIT {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @Transactional
+    void assertThatAStatementOverTheBudgetIsRefusedAndRecorded() throws Exception {
+        authorRepository.saveAndFlush(new Author().name("AAAAAAAAAA"));
+        authorRepository.saveAndFlush(new Author().name("BBBBBBBBBB"));
+
+        // a full page of one author: its count is the second statement of the request
+        restMockMvc.perform(get("/api/authors?page=0&size=1")).andExpect(status().isInternalServerError());
+
+        assertThat(meterRegistry.get("books.sql.budget.exceeded").tag("uri", "/api/authors").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void assertThatTheRefusedStatementIsNotCounted() {
+        SqlStatistics statistics = SqlStatisticsHolder.start();
+        try {
+            authorRepository.findAll();
+            assertThatThrownBy(() -> authorRepository.findAll()).isInstanceOf(SqlBudgetExceededException.class);
+        } finally {
+            SqlStatisticsHolder.stop(statistics);
+        }
+
+        SqlStatisticsAssert.assertThat(statistics).hasStatements(1);
+        assertThat(statistics.isBudgetExceeded()).isTrue();
+    }
+}
@@ -0,0 +1,127 @@
+package com.book.app.jdbc;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.assertj.core.api.AbstractAssert;
+
+/**
+ * Assertions on the SQL statements executed by the code under test, for example:
+ * <pre>
+ * assertThatSql(() -&gt; restMockMvc.perform(get("/api/authors"))).hasAtMostStatements(3).hasNoStatementRepeatedMoreThan(1);
+ * </pre>
+ */
+public class SqlStatisticsAssert extends AbstractAssert<SqlStatisticsAssert, SqlStatistics> {
+
+    private SqlStatisticsAssert(SqlStatistics actual) {
+        super(actual, SqlStatisticsAssert.class);
+    }
+
+    public static SqlStatisticsAssert assertThat(SqlStatistics actual) {
+        return new SqlStatisticsAssert(actual);
+    }
+
+    /**
+     * Run an action and assert on the SQL statements it executed on the current thread.
+     *
+     * @param action the action.
+     * @return the assertion.
+     */
+    public static SqlStatisticsAssert assertThatSql(Callable<?> action) {
+        return new SqlStatisticsAssert(
+            SqlStatisticsHolder.measure(() -> {
+                try {
+                    action.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+        );
+    }
+
+    public SqlStatisticsAssert hasStatements(int expected) {
+        isNotNull();
+        if (actual.getStatements() != expected) {
+            failWithMessage("Expected %d SQL statements but %d were executed: %s", expected, actual.getStatements(), sql());
+        }
+        return this;
+    }
+
+    public SqlStatisticsAssert hasAtMostStatements(int max) {
+        isNotNull();
+        if (actual.getStatements() > max) {
+            failWithMessage("Expected at most %d SQL statements but %d were executed: %s", max, actual.getStatements(), sql());
+        }
+        return this;
+    }
+
+    public SqlStatisticsAssert hasRows(long expected) {
+        isNotNull();
+        if (actual.getRows() != expected) {
+            failWithMessage("Expected %d rows but %d were read or updated", expected, actual.getRows());
+        }
+        return this;
+    }
+
+    /**
+     * Assert that no SQL string was executed more than the given number of times, which catches N+1 selects.
+     *
+     * @param max the maximum number of executions of the same SQL.
+     * @return this assertion.
+     */
+    public SqlStatisticsAssert hasNoStatementRepeatedMoreThan(int max) {
+        isNotNull();
+        Map.Entry<String, Integer> mostRepeated = actual.getMostRepeatedStatement();
+        if (mostRepeated != null && mostRepeated.getValue() > max) {
+            failWithMessage(
+                "Expected no SQL executed more than %d times but was executed %d times: %s",
+                max,
+                mostRepeated.getValue(),
+                mostRepeated.getKey()
+            );
+        }
+        return this;
+    }
+
+    /**
+     * Assert that at least one SQL statement contains the given fragment, ignoring case.
+     *
+     * @param fragment the fragment, such as {@code " exists"}.
+     * @return this assertion.
+     */
+    public SqlStatisticsAssert hasStatementContaining(String fragment) {
+        isNotNull();
+        if (actual.getExecutionsBySql().keySet().stream().noneMatch(sql -> contains(sql, fragment))) {
+            failWithMessage("Expected a SQL statement containing <%s> but none did: %s", fragment, sql());
+        }
+        return this;
+    }
+
+    /**
+     * Assert that no SQL statement contains the given fragment, ignoring case, which checks the shape of the queries.
+     *
+     * @param fragment the fragment, such as {@code " join "}.
+     * @return this assertion.
+     */
+    public SqlStatisticsAssert hasNoStatementContaining(String fragment) {
+        isNotNull();
+        actual
+            .getExecutionsBySql()
+            .keySet()
+            .stream()
+            .filter(sql -> contains(sql, fragment))
+            .findFirst()
+            .ifPresent(sql -> failWithMessage("Expected no SQL statement containing <%s> but was: %s", fragment, sql));
+        return this;
+    }
+
+    private static boolean contains(String sql, String fragment) {
+        return sql.toLowerCase(Locale.ROOT).contains(fragment.toLowerCase(Locale.ROOT));
+    }
+
+    private String sql() {
+        return String.join("\n", actual.getExecutionsBySql().keySet());
+    }
+}
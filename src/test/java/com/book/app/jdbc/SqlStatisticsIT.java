@@ -0,0 +1,68 @@
+package com.book.app.jdbc;
+
+import static com.book.app.jdbc.SqlStatisticsAssert.assertThatSql;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.book.app.IntegrationTest;
+import com.book.app.domain.Author;
+import com.book.app.repository.AuthorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the SQL statement recording, see {@link SqlStatisticsHolder}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SqlStatisticsIT {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @Transactional
+    void assertThatStatementsAndRowsAreRecorded() {
+        authorRepository.saveAndFlush(new Author().name("AAAAAAAAAA"));
+        authorRepository.saveAndFlush(new Author().name("BBBBBBBBBB"));
+        long authors = authorRepository.count();
+
+        assertThatSql(() -> authorRepository.findAll()).hasStatements(1).hasRows(authors);
+    }
+
+    @Test
+    @Transactional
+    void assertThatStatementsOfNestedScopesAreAddedToTheEnclosingScope() {
+        SqlStatistics enclosing = SqlStatisticsHolder.measure(() -> {
+            authorRepository.findAll();
+            SqlStatisticsAssert.assertThat(SqlStatisticsHolder.measure(() -> authorRepository.findAll())).hasStatements(1);
+        });
+
+        SqlStatisticsAssert.assertThat(enclosing).hasStatements(2);
+        assertThat(enclosing.getMostRepeatedStatement().getValue()).isEqualTo(2);
+    }
+
+    @Test
+    @Transactional
+    void assertThatStatementsAreRecordedPerEndpoint() throws Exception {
+        authorRepository.saveAndFlush(new Author().name("AAAAAAAAAA"));
+
+        assertThatSql(() -> restMockMvc.perform(get("/api/authors")).andExpect(status().isOk()))
+            .hasAtMostStatements(2)
+            .hasNoStatementRepeatedMoreThan(1);
+        assertThat(meterRegistry.get("books.sql.statements").tag("uri", "/api/authors").summary().count()).isPositive();
+    }
+}
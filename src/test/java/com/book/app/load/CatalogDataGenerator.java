@@ -0,0 +1,195 @@
+package com.book.app.load;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Seeds a large catalog of authors and books into PostgreSQL with {@code COPY ... FROM STDIN}, which loads millions of
+ * rows in seconds where batched inserts take minutes.
+ * <p>
+ * The rows are generated from a fixed seed, so that two runs load the same catalog: titles are made of words drawn from a
+ * small vocabulary, so that {@code title.contains} filters match a realistic share of the books, and the number of books
+ * per author is skewed, a few authors having thousands of books. The ids continue after the existing rows, and the
+ * {@code sequence_generator} is moved past them, so that the application can still create entities.
+ */
+public class CatalogDataGenerator {
+
+    static final String[] WORDS = {
+        "java",
+        "spring",
+        "data",
+        "garden",
+        "history",
+        "night",
+        "ocean",
+        "river",
+        "shadow",
+        "winter",
+        "empire",
+        "secret",
+        "journey",
+        "light",
+        "stone",
+        "silent",
+        "city",
+        "machine",
+        "forest",
+        "kingdom",
+    };
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Exponent of the power law drawing the author of each book: the higher, the more skewed.
+     */
+    private static final double AUTHOR_SKEW = 3;
+
+    private final Logger log = LoggerFactory.getLogger(CatalogDataGenerator.class);
+
+    private final DataSource dataSource;
+
+    private final SplittableRandom random;
+
+    private long firstAuthorId;
+
+    private long firstBookId;
+
+    private int authors;
+
+    private int books;
+
+    public CatalogDataGenerator(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Load the authors and their books, then analyze the tables.
+     *
+     * @param authors the number of authors.
+     * @param books the number of books.
+     * @throws SQLException if the data could not be loaded.
+     */
+    public void seed(int authors, int books) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            firstAuthorId = nextId(statement, "author");
+            firstBookId = nextId(statement, "books");
+            copyAuthors(connection.unwrap(PGConnection.class), authors);
+            copyBooks(connection.unwrap(PGConnection.class), authors, books);
+            long lastId = Math.max(firstAuthorId + authors, firstBookId + books);
+            statement.execute("select setval('sequence_generator', " + lastId + ")");
+            connection.commit();
+            connection.setAutoCommit(true);
+            statement.execute("analyze author");
+            statement.execute("analyze books");
+        }
+        this.authors = authors;
+        this.books = books;
+        log.info("Seeded {} authors and {} books in {} ms", authors, books, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public long getFirstAuthorId() {
+        return firstAuthorId;
+    }
+
+    public int getAuthors() {
+        return authors;
+    }
+
+    public long getFirstBookId() {
+        return firstBookId;
+    }
+
+    public int getBooks() {
+        return books;
+    }
+
+    private void copyAuthors(PGConnection connection, int authors) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn("copy author (id, name) from stdin with (format csv)");
+        CopyBuffer buffer = new CopyBuffer(copyIn);
+        for (int i = 0; i < authors; i++) {
+            buffer.row(firstAuthorId + i + ",Author " + i);
+        }
+        buffer.end();
+    }
+
+    private void copyBooks(PGConnection connection, int authors, int books) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn("copy books (id, title, price, author_id) from stdin with (format csv)");
+        CopyBuffer buffer = new CopyBuffer(copyIn);
+        StringBuilder row = new StringBuilder(128);
+        for (int i = 0; i < books; i++) {
+            row.setLength(0);
+            row.append(firstBookId + i).append(',');
+            appendTitle(row, i);
+            row.append(',').append(String.format(Locale.ROOT, "%.2f", 1 + random.nextDouble() * 199));
+            // a power law of a uniform value gives the few first authors most of the books
+            int author = (int) (authors * Math.pow(random.nextDouble(), AUTHOR_SKEW));
+            row.append(',').append(firstAuthorId + Math.min(author, authors - 1));
+            buffer.row(row);
+        }
+        buffer.end();
+    }
+
+    private void appendTitle(StringBuilder row, int i) {
+        int words = 2 + random.nextInt(3);
+        for (int w = 0; w < words; w++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            row.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word).append(' ');
+        }
+        row.append(i);
+    }
+
+    private static long nextId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Buffers the CSV rows, and writes them to the {@code COPY} stream in large chunks.
+     */
+    private static final class CopyBuffer {
+
+        private final CopyIn copyIn;
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE + 256);
+
+        private CopyBuffer(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        private void row(CharSequence row) throws SQLException {
+            buffer.writeBytes(row.toString().getBytes(StandardCharsets.UTF_8));
+            buffer.write('\n');
+            if (buffer.size() >= BUFFER_SIZE) {
+                flush();
+            }
+        }
+
+        private void end() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.size() > 0) {
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                buffer.reset();
+            }
+        }
+    }
+}
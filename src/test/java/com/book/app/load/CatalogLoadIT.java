@@ -0,0 +1,220 @@
+package com.book.app.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import com.book.app.BooksApp;
+import com.book.app.config.AsyncSyncConfiguration;
+import com.book.app.config.EmbeddedKafka;
+import com.book.app.config.EmbeddedSQL;
+import com.book.app.load.LoadHarness.Operation;
+import java.net.CookieManager;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Load test of the catalog API on a large catalog, seeded in the Testcontainers PostgreSQL by the
+ * {@link CatalogDataGenerator}.
+ * <p>
+ * Concurrent users list, filter, count, get and create books and list authors, while an SSE client receives messages
+ * published through Kafka; the throughput and the p50/p99 latencies of each endpoint are logged and written to
+ * {@code target/load-test/catalog-report.txt}. The test is skipped unless {@code load-test.enabled} is set, and needs
+ * the {@code prod} Maven profile for PostgreSQL:
+ *
+ * <pre>
+ * ./mvnw -Pprod verify -Dit.test=CatalogLoadIT -Dload-test.enabled=true -Dload-test.books=2000000 -Dload-test.users=32
+ * </pre>
+ *
+ * The other properties are {@code load-test.authors}, {@code load-test.warmup} and {@code load-test.duration}.
+ */
+@SpringBootTest(
+    classes = { BooksApp.class, AsyncSyncConfiguration.class },
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        // the testprod profile has a single connection
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "spring.mvc.async.request-timeout=10m",
+        // loop the published messages back to the SSE consumer
+        "spring.cloud.stream.bindings.binding-out-0.destination=sse-topic",
+    }
+)
+@EmbeddedSQL
+@EmbeddedKafka
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EnabledIfSystemProperty(named = "load-test.enabled", matches = "true")
+class CatalogLoadIT {
+
+    private static final String CSRF_COOKIE = "XSRF-TOKEN";
+
+    private static final String CSRF_HEADER = "X-XSRF-TOKEN";
+
+    private static final Path REPORT = Path.of("target", "load-test", "catalog-report.txt");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final CookieManager cookieManager = new CookieManager();
+
+    private HttpClient client;
+
+    private CatalogDataGenerator catalog;
+
+    @Test
+    void catalogUnderLoad() throws Exception {
+        assumeThat(isPostgreSql()).as("the load test needs PostgreSQL, run it with the prod profile").isTrue();
+        catalog = new CatalogDataGenerator(dataSource, 42);
+        catalog.seed(Integer.getInteger("load-test.authors", 200_000), Integer.getInteger("load-test.books", 2_000_000));
+
+        ExecutorService clientExecutor = Executors.newCachedThreadPool();
+        ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor();
+        try {
+            client =
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).cookieHandler(cookieManager).executor(clientExecutor).build();
+            authenticate();
+            LoadHarness harness = new LoadHarness(
+                Integer.getInteger("load-test.users", 32),
+                Duration.parse(System.getProperty("load-test.warmup", "PT20S")),
+                Duration.parse(System.getProperty("load-test.duration", "PT60S"))
+            );
+            subscribeToServerSentEvents(harness);
+            publisher.scheduleAtFixedRate(() -> publish(harness), 0, 50, TimeUnit.MILLISECONDS);
+
+            harness.run(
+                List.of(
+                    new Operation("list", 25, () -> get("/api/books?page=" + random(100) + "&size=20&sort=id,asc")),
+                    new Operation("filter", 20, () -> get("/api/books?page=0&size=20&" + titleAndPriceFilter())),
+                    new Operation("count", 10, () -> get("/api/books/count?authorId.equals=" + randomAuthorId())),
+                    new Operation("get", 25, () -> get("/api/books/" + randomBookId())),
+                    new Operation("create", 5, this::createBook),
+                    new Operation("authors", 5, () -> get("/api/authors?page=" + random(100) + "&size=20&sort=id,asc")),
+                    new Operation("by-author", 5, () -> get("/api/books?page=0&size=20&sort=id,asc&authorId.equals=" + randomAuthorId())),
+                    new Operation("author-of", 5, () -> get("/api/authors?booksId.equals=" + randomBookId()))
+                )
+            );
+            harness.writeReport(REPORT);
+            assertThat(harness.report()).hasSizeGreaterThan(1);
+        } finally {
+            publisher.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private boolean isPostgreSql() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+
+    private void authenticate() throws Exception {
+        // any response sets the CSRF cookie
+        get("/api/authenticate");
+        HttpResponse<Void> response = client.send(
+            request("/api/authentication")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=admin&password=admin"))
+                .build(),
+            HttpResponse.BodyHandlers.discarding()
+        );
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    private void subscribeToServerSentEvents(LoadHarness harness) {
+        client
+            .sendAsync(request("/api/books-kafka/register").GET().build(), HttpResponse.BodyHandlers.ofLines())
+            .thenAccept(response ->
+                response
+                    .body()
+                    .filter(line -> line.startsWith("data:"))
+                    .forEach(line -> harness.record("sse-delivery", System.nanoTime() - Long.parseLong(line.substring(5).trim())))
+            );
+    }
+
+    private void publish(LoadHarness harness) {
+        long start = System.nanoTime();
+        try {
+            client.send(
+                request("/api/books-kafka/publish?message=" + start).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.discarding()
+            );
+            harness.record("sse-publish", System.nanoTime() - start);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private int createBook() throws Exception {
+        String body = String.format(
+            Locale.ROOT,
+            "{\"title\":\"Load test book %d\",\"price\":%.2f,\"author\":{\"id\":%d}}",
+            random(Integer.MAX_VALUE),
+            1 + ThreadLocalRandom.current().nextDouble(199),
+            randomAuthorId()
+        );
+        return client
+            .send(
+                request("/api/books").header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.discarding()
+            )
+            .statusCode();
+    }
+
+    private int get(String path) throws Exception {
+        return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30));
+        cookieManager
+            .getCookieStore()
+            .getCookies()
+            .stream()
+            .filter(cookie -> CSRF_COOKIE.equals(cookie.getName()))
+            .map(HttpCookie::getValue)
+            .findFirst()
+            .ifPresent(token -> builder.header(CSRF_HEADER, token));
+        return builder;
+    }
+
+    private String titleAndPriceFilter() {
+        String word = CatalogDataGenerator.WORDS[random(CatalogDataGenerator.WORDS.length)];
+        return "title.contains=" + word + "&price.lessThan=" + (10 + random(190));
+    }
+
+    private long randomAuthorId() {
+        return catalog.getFirstAuthorId() + random(catalog.getAuthors());
+    }
+
+    private long randomBookId() {
+        return catalog.getFirstBookId() + random(catalog.getBooks());
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+}
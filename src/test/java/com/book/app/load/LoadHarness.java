@@ -0,0 +1,199 @@
+package com.book.app.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closed-loop load generator: each virtual user runs operations drawn by weight, back to back, for a warmup and then
+ * for the measured duration.
+ * <p>
+ * The latencies are recorded per operation in microseconds; an operation fails when it throws or returns an HTTP
+ * status of 400 or more. Latencies measured elsewhere, such as the delivery of server-sent events, can be added with
+ * {@link #record(String, long)}.
+ */
+public class LoadHarness {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final String HEADER_FORMAT = "%-14s %10s %8s %10s %10s %10s %10s";
+
+    private static final String LINE_FORMAT = "%-14s %10d %8d %10.1f %10.2f %10.2f %10.2f";
+
+    private final Logger log = LoggerFactory.getLogger(LoadHarness.class);
+
+    private final int users;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private volatile boolean measuring;
+
+    private volatile long measureStartNanos;
+
+    private volatile long measureEndNanos;
+
+    public LoadHarness(int users, Duration warmup, Duration duration) {
+        this.users = users;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    /**
+     * An HTTP call of the scenario.
+     *
+     * @param name the name of the endpoint in the report.
+     * @param weight the relative frequency of the call.
+     * @param call the call, returning the HTTP status.
+     */
+    public record Operation(String name, int weight, Call call) {}
+
+    @FunctionalInterface
+    public interface Call {
+        int execute() throws Exception;
+    }
+
+    /**
+     * Run the operations until the end of the measured duration.
+     *
+     * @param operations the operations.
+     * @throws InterruptedException if interrupted while waiting for the users.
+     */
+    public void run(List<Operation> operations) throws InterruptedException {
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        long endNanos = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        for (int i = 0; i < users; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < endNanos) {
+                    execute(pick(operations, totalWeight));
+                }
+            });
+        }
+        log.info("Warming up {} users for {}", users, warmup);
+        Thread.sleep(warmup.toMillis());
+        measureStartNanos = System.nanoTime();
+        measuring = true;
+        log.info("Measuring for {}", duration);
+        executor.shutdown();
+        executor.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+        measuring = false;
+        measureEndNanos = System.nanoTime();
+    }
+
+    /**
+     * Record a latency measured outside of the operations, ignored during the warmup.
+     *
+     * @param name the name of the endpoint in the report.
+     * @param latencyNanos the latency.
+     */
+    public void record(String name, long latencyNanos) {
+        if (measuring) {
+            endpoint(name).record(latencyNanos);
+        }
+    }
+
+    /**
+     * @return the report, one line per endpoint, after a header.
+     */
+    public List<String> report() {
+        double seconds = Math.max(measureEndNanos - measureStartNanos, 1) / 1e9;
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, HEADER_FORMAT, "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        endpoints
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> {
+                Histogram histogram = entry.getValue().latencies;
+                lines.add(
+                    String.format(
+                        Locale.ROOT,
+                        LINE_FORMAT,
+                        entry.getKey(),
+                        histogram.getTotalCount(),
+                        entry.getValue().errors.get(),
+                        histogram.getTotalCount() / seconds,
+                        histogram.getValueAtPercentile(50) / 1000.0,
+                        histogram.getValueAtPercentile(99) / 1000.0,
+                        histogram.getMaxValue() / 1000.0
+                    )
+                );
+            });
+        return lines;
+    }
+
+    /**
+     * Log the report, and write it to a file.
+     *
+     * @param file the report file.
+     * @throws IOException if the file could not be written.
+     */
+    public void writeReport(Path file) throws IOException {
+        List<String> report = report();
+        log.info("Load test report ({} users, {}):\n{}", users, duration, String.join("\n", report));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, report);
+    }
+
+    private void execute(Operation operation) {
+        long start = System.nanoTime();
+        boolean failed;
+        try {
+            failed = operation.call().execute() >= 400;
+        } catch (Exception e) {
+            failed = true;
+        }
+        if (measuring) {
+            Endpoint endpoint = endpoint(operation.name());
+            endpoint.record(System.nanoTime() - start);
+            if (failed) {
+                endpoint.errors.incrementAndGet();
+            }
+        }
+    }
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint());
+    }
+
+    private static Operation pick(List<Operation> operations, int totalWeight) {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            value -= operation.weight();
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static final class Endpoint {
+
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private void record(long latencyNanos) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.book.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.book.app.domain.PersistentToken;
+import com.book.app.domain.User;
+import com.book.app.repository.PersistentTokenRepository;
+import com.book.app.repository.UserRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the {@link PersistentTokenRememberMeServices} class.
+ */
+class PersistentTokenRememberMeServicesTest {
+
+    private static final int SERIES = 400;
+
+    private static final int THREADS = 16;
+
+    private PersistentTokenRepository persistentTokenRepository;
+
+    private PersistentTokenRememberMeServices rememberMeServices;
+
+    @BeforeEach
+    void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getRememberMe().setKey("test-key");
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(anyString())).thenAnswer(invocation ->
+            org.springframework.security.core.userdetails.User
+                .withUsername(invocation.getArgument(0))
+                .password("")
+                .authorities("ROLE_USER")
+                .build()
+        );
+        persistentTokenRepository = mock(PersistentTokenRepository.class);
+        when(persistentTokenRepository.findById(anyString())).thenAnswer(invocation -> Optional.of(token(invocation.getArgument(0))));
+        when(persistentTokenRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        rememberMeServices = new PersistentTokenRememberMeServices(
+            jHipsterProperties,
+            userDetailsService,
+            persistentTokenRepository,
+            mock(UserRepository.class)
+        );
+    }
+
+    @Test
+    void shouldUpgradeTheTokensOfDifferentSeriesConcurrently() throws Exception {
+        List<String> logins = autoLoginConcurrently();
+
+        assertThat(logins).containsExactlyInAnyOrderElementsOf(IntStream.range(0, SERIES).mapToObj(i -> "user-" + i).toList());
+        verify(persistentTokenRepository, times(SERIES)).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldReuseTheUpgradedTokensOfDifferentSeriesConcurrently() throws Exception {
+        autoLoginConcurrently();
+
+        // the same cookies again, within the validity of the upgraded tokens: all of them are found in the cache
+        List<String> logins = autoLoginConcurrently();
+
+        assertThat(logins).hasSize(SERIES).doesNotContainNull();
+        verify(persistentTokenRepository, times(SERIES)).findById(anyString());
+        verify(persistentTokenRepository, times(SERIES)).saveAndFlush(any());
+    }
+
+    private List<String> autoLoginConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<String>> autoLogins = new ArrayList<>();
+            for (int i = 0; i < SERIES; i++) {
+                String[] cookieTokens = { "series-" + i, "value-series-" + i };
+                autoLogins.add(() -> {
+                    UserDetails userDetails = rememberMeServices.processAutoLoginCookie(
+                        cookieTokens,
+                        new MockHttpServletRequest(),
+                        new MockHttpServletResponse()
+                    );
+                    return userDetails.getUsername();
+                });
+            }
+            List<String> logins = new ArrayList<>();
+            for (Future<String> login : executor.invokeAll(autoLogins)) {
+                logins.add(login.get());
+            }
+            return logins;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static PersistentToken token(String series) {
+        User user = new User();
+        user.setLogin("user-" + series.substring("series-".length()));
+        PersistentToken token = new PersistentToken();
+        token.setSeries(series);
+        token.setTokenValue("value-" + series);
+        token.setTokenDate(LocalDate.now());
+        token.setUser(user);
+        return token;
+    }
+}
@@ -0,0 +1,32 @@
+package com.book.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.book.app.IntegrationTest;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link JobLockService}.
+ */
+@IntegrationTest
+class JobLockServiceIT {
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Test
+    void assertThatLockCanOnlyBeAcquiredOnce() {
+        String name = "test-" + UUID.randomUUID().toString().substring(0, 8);
+        Instant lockedAt = Instant.now();
+
+        assertThat(jobLockService.tryLock(name)).isTrue();
+        assertThat(jobLockService.tryLock(name)).isFalse();
+
+        jobLockService.unlock(name, lockedAt);
+        assertThat(jobLockService.tryLock(name)).isTrue();
+        jobLockService.unlock(name, Instant.now());
+    }
+}
@@ -0,0 +1,113 @@
+package com.book.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.book.app.IntegrationTest;
+import com.book.app.config.ApplicationProperties;
+import com.book.app.service.MailOutboxService.OutboundMail;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailOutboxService}, against a local fake SMTP server.
+ */
+@IntegrationTest
+class MailOutboxServiceIT {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().getOutbox().setBatchSize(2);
+        applicationProperties.getMail().getOutbox().setConcurrency(2);
+        applicationProperties.getMail().getOutbox().setMaxAttempts(2);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("delete from jhi_mail_outbox");
+    }
+
+    @Test
+    void assertThatQueuedMailsAreSentInBatches() throws Exception {
+        MailOutboxService mailOutboxService = createMailOutboxService(greenMail.getSmtp().getPort());
+        for (int i = 0; i < 5; i++) {
+            mailOutboxService.enqueue(new OutboundMail("user" + i + "@example.com", "testSubject", "testContent", false, false));
+        }
+
+        assertThat(mailOutboxService.dispatch()).isEqualTo(5);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(5);
+        assertThat(received[0].getSubject()).isEqualTo("testSubject");
+        assertThat(received[0].getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
+        assertThat(countOutbox()).isZero();
+    }
+
+    @Test
+    void assertThatFailedMailsAreRetriedWithBackoffThenMarkedAsFailed() {
+        // nothing listens on the port of the stopped server
+        int port = greenMail.getSmtp().getPort();
+        greenMail.stop();
+        MailOutboxService mailOutboxService = createMailOutboxService(port);
+        mailOutboxService.enqueue(new OutboundMail("john.doe@example.com", "testSubject", "testContent", false, false));
+
+        assertThat(mailOutboxService.dispatch()).isZero();
+        Map<String, Object> queued = jdbcTemplate.queryForMap("select status, attempts, next_attempt_at from jhi_mail_outbox");
+        assertThat(queued.get("status")).isEqualTo(MailOutboxService.STATUS_PENDING);
+        assertThat(((Number) queued.get("attempts")).intValue()).isEqualTo(1);
+        assertThat(((Timestamp) queued.get("next_attempt_at")).toInstant()).isAfter(Instant.now());
+
+        // the retry is not due yet
+        assertThat(mailOutboxService.dispatch()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select attempts from jhi_mail_outbox", Integer.class)).isEqualTo(1);
+
+        jdbcTemplate.update("update jhi_mail_outbox set next_attempt_at = ?", Timestamp.from(Instant.now()));
+        assertThat(mailOutboxService.dispatch()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select status from jhi_mail_outbox", String.class)).isEqualTo(
+            MailOutboxService.STATUS_FAILED
+        );
+    }
+
+    private MailOutboxService createMailOutboxService(int port) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(port);
+        return new MailOutboxService(
+            jdbcTemplate,
+            javaMailSender,
+            jHipsterProperties,
+            applicationProperties,
+            new SimpleMeterRegistry(),
+            new SyncTaskExecutor()
+        );
+    }
+
+    private long countOutbox() {
+        return jdbcTemplate.queryForObject("select count(*) from jhi_mail_outbox", Long.class);
+    }
+}
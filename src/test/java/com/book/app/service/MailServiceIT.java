@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import com.book.app.IntegrationTest;
+import com.book.app.config.ApplicationProperties;
 import com.book.app.config.Constants;
 import com.book.app.domain.User;
 import jakarta.mail.Multipart;
@@ -19,17 +20,22 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
@@ -56,12 +62,27 @@ class MailServiceIT {
     @Autowired
     private MailService mailService;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     public void setup() {
         doNothing().when(javaMailSender).send(any(MimeMessage.class));
         when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
     }
 
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getMail().getOutbox().setEnabled(false);
+        jdbcTemplate.update("delete from jhi_mail_outbox");
+    }
+
     @Test
     void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
@@ -138,6 +159,40 @@ class MailServiceIT {
         assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
     }
 
+    @Test
+    void testSendBulkEmailFromTemplate() throws Exception {
+        // a message per e-mail, rather than the same one for all of them
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        User john = new User();
+        john.setLangKey("en");
+        john.setLogin("john");
+        john.setEmail("john.doe@example.com");
+        User jean = new User();
+        jean.setLangKey("fr");
+        jean.setLogin("jean");
+        jean.setEmail("jean.dupont@example.com");
+        User withoutEmail = new User();
+        withoutEmail.setLangKey("en");
+        withoutEmail.setLogin("anonymous");
+
+        mailService.sendBulkEmailFromTemplate(List.of(john, withoutEmail, jean), "mail/testEmail", "email.test.title");
+
+        verify(javaMailSender, times(2)).send(messageCaptor.capture());
+        List<MimeMessage> messages = messageCaptor.getAllValues();
+        assertThat(messages.get(0).getAllRecipients()[0]).hasToString(john.getEmail());
+        assertThat(messages.get(0).getSubject()).isEqualTo("test title");
+        assertThat(messages.get(0).getContent().toString())
+            .isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
+        assertThat(messages.get(1).getAllRecipients()[0]).hasToString(jean.getEmail());
+        assertThat(messages.get(1).getSubject()).isEqualTo("titre de test");
+        assertThat(messages.get(1).getContent().toString())
+            .isEqualToNormalizingNewlines("<html>titre de test, http://127.0.0.1:8080, jean</html>\n");
+        for (MimeMessage message : messages) {
+            assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
+            assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        }
+    }
+
     @Test
     void testSendActivationEmail() throws Exception {
         User user = new User();
@@ -193,6 +248,33 @@ class MailServiceIT {
         }
     }
 
+    @Test
+    void testQueuedEmailIsCommittedWithTheCaller() {
+        applicationProperties.getMail().getOutbox().setEnabled(true);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false)
+        );
+
+        assertThat(countOutbox()).isEqualTo(1);
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void testQueuedEmailIsRolledBackWithTheCaller() {
+        applicationProperties.getMail().getOutbox().setEnabled(true);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+            // queued in the transaction of the caller, not on the mail executor
+            assertThat(countOutbox()).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(countOutbox()).isZero();
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+    }
+
     @Test
     void testSendLocalizedEmailForAllSupportedLanguages() throws Exception {
         User user = new User();
@@ -217,6 +299,10 @@ class MailServiceIT {
         }
     }
 
+    private long countOutbox() {
+        return jdbcTemplate.queryForObject("select count(*) from jhi_mail_outbox", Long.class);
+    }
+
     /**
      * Convert a lang key to the Java locale.
      */
@@ -0,0 +1,50 @@
+package com.book.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.book.app.IntegrationTest;
+import com.book.app.config.Constants;
+import com.book.app.domain.User;
+import com.book.app.service.MailTemplateRenderer.RenderedMail;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link MailTemplateRenderer}.
+ */
+@IntegrationTest
+class MailTemplateRendererIT {
+
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Test
+    void testRender() {
+        RenderedMail mail = mailTemplateRenderer.render(createUser("john"), "mail/testEmail", "email.test.title");
+
+        assertThat(mail.subject()).isEqualTo("test title");
+        assertThat(mail.content()).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
+    }
+
+    @Test
+    void testRenderAllKeepsTheOrderOfTheUsers() {
+        List<User> users = IntStream.range(0, 150).mapToObj(i -> createUser("user" + i)).toList();
+
+        List<RenderedMail> mails = mailTemplateRenderer.renderAll(users, "mail/testEmail", "email.test.title");
+
+        assertThat(mails).hasSize(150);
+        assertThat(mails).extracting(RenderedMail::user).containsExactlyElementsOf(users);
+        assertThat(mails.get(149).content()).contains("user149");
+        assertThat(mails).extracting(RenderedMail::subject).containsOnly("test title");
+    }
+
+    private static User createUser(String login) {
+        User user = new User();
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,92 @@
+package com.book.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.book.app.IntegrationTest;
+import com.book.app.service.ScheduledJobRunner.JobRun;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link ScheduledJobRunner}.
+ */
+@IntegrationTest
+class ScheduledJobRunnerIT {
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Test
+    void assertThatRunIsRecorded() {
+        String jobName = randomJobName();
+
+        assertThat(scheduledJobRunner.run(jobName, () -> 42L)).isTrue();
+
+        List<JobRun> runs = scheduledJobRunner.findRuns(jobName, 10);
+        assertThat(runs).hasSize(1);
+        assertThat(runs.get(0).rows()).isEqualTo(42L);
+        assertThat(runs.get(0).status()).isEqualTo(ScheduledJobRunner.STATUS_SUCCESS);
+        assertThat(scheduledJobRunner.findLastRuns()).extracting(JobRun::jobName).contains(jobName);
+    }
+
+    @Test
+    void assertThatFailedRunIsRecorded() {
+        String jobName = randomJobName();
+
+        assertThatThrownBy(() ->
+                scheduledJobRunner.run(
+                    jobName,
+                    () -> {
+                        throw new IllegalStateException("boom");
+                    }
+                )
+            )
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(scheduledJobRunner.findRuns(jobName, 10)).extracting(JobRun::status).containsExactly(ScheduledJobRunner.STATUS_FAILURE);
+    }
+
+    @Test
+    void assertThatFailedRunRecordsTheRowsOfTheCommittedChunks() {
+        String jobName = randomJobName();
+        AtomicInteger chunks = new AtomicInteger();
+
+        assertThatThrownBy(() ->
+                scheduledJobRunner.runInChunks(
+                    jobName,
+                    10,
+                    () -> {
+                        if (chunks.incrementAndGet() > 2) {
+                            throw new IllegalStateException("boom");
+                        }
+                        return 10;
+                    }
+                )
+            )
+            .isInstanceOf(IllegalStateException.class);
+
+        List<JobRun> runs = scheduledJobRunner.findRuns(jobName, 10);
+        assertThat(runs).extracting(JobRun::status).containsExactly(ScheduledJobRunner.STATUS_FAILURE);
+        assertThat(runs.get(0).rows()).isEqualTo(20L);
+    }
+
+    @Test
+    void assertThatJobIsSkippedWhenLockedByAnotherNode() {
+        String jobName = randomJobName();
+        assertThat(jobLockService.tryLock(jobName)).isTrue();
+
+        assertThat(scheduledJobRunner.run(jobName, () -> 1L)).isFalse();
+        assertThat(scheduledJobRunner.findRuns(jobName, 10)).isEmpty();
+    }
+
+    private static String randomJobName() {
+        return "test-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
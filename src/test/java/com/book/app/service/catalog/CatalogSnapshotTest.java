@@ -0,0 +1,160 @@
+package com.book.app.service.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.book.app.config.ApplicationProperties;
+import com.book.app.service.criteria.BooksCriteria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class CatalogSnapshotTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CatalogSnapshot catalogSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getQuery().getSnapshot().setEnabled(true);
+        catalogSnapshot =
+            new CatalogSnapshot(mock(DataSource.class), mock(PlatformTransactionManager.class), applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void shouldAnswerNothingUntilLoaded() {
+        assertThat(catalogSnapshot.findIds(new BooksCriteria(), PageRequest.of(0, 20))).isEmpty();
+        assertThat(catalogSnapshot.count(new BooksCriteria())).isEmpty();
+        assertThat(meterRegistry.get("books.catalog.snapshot.queries").tag("outcome", "database").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFilterAsTheDatabase() {
+        load();
+
+        BooksCriteria criteria = new BooksCriteria();
+        criteria.title().setContains("java");
+        assertThat(ids(criteria, Pageable.unpaged())).containsExactly(1L, 2L, 4L);
+
+        criteria.title().setContains("j_va");
+        assertThat(ids(criteria, Pageable.unpaged())).containsExactly(1L, 2L, 4L);
+
+        criteria.price().setGreaterThan(10.0);
+        criteria.price().setLessThanOrEqual(30.0);
+        assertThat(ids(criteria, Pageable.unpaged())).containsExactly(2L);
+
+        criteria = new BooksCriteria();
+        criteria.authorId().setIn(List.of(20L, 30L));
+        criteria.id().setNotIn(List.of(3L));
+        assertThat(ids(criteria, Pageable.unpaged())).containsExactly(2L, 4L, 5L);
+        assertThat(catalogSnapshot.count(criteria)).hasValue(3);
+
+        criteria = new BooksCriteria();
+        criteria.title().setSpecified(false);
+        assertThat(catalogSnapshot.count(criteria)).hasValue(0);
+    }
+
+    @Test
+    void shouldSelectThePageInOrder() {
+        load();
+
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Order.desc("price")));
+        Page<Long> page = catalogSnapshot.findIds(new BooksCriteria(), pageable).orElseThrow();
+
+        assertThat(page.getContent()).containsExactly(2L, 5L);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(meterRegistry.get("books.catalog.snapshot.queries").tag("outcome", "memory").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBreakTheTiesById() {
+        catalogSnapshot.reload(columns -> {
+            columns.put(3L, "Java", 10.0, 10L);
+            columns.put(1L, "Spring", 10.0, 10L);
+            columns.put(2L, "Kafka", 10.0, 10L);
+        });
+
+        assertThat(ids(new BooksCriteria(), PageRequest.of(0, 2, Sort.by("price")))).containsExactly(1L, 2L);
+        assertThat(ids(new BooksCriteria(), PageRequest.of(1, 2, Sort.by("price")))).containsExactly(3L);
+    }
+
+    @Test
+    void shouldUpperCaseTheAsciiLettersOnly() {
+        catalogSnapshot.reload(columns -> {
+            columns.put(1L, "Straße", 10.0, 10L);
+            columns.put(2L, "Strasse", 10.0, 10L);
+        });
+
+        BooksCriteria criteria = new BooksCriteria();
+        criteria.title().setContains("ss");
+        assertThat(ids(criteria, Pageable.unpaged())).containsExactly(2L);
+    }
+
+    @Test
+    void shouldLeaveTheNonAsciiTitleFiltersToTheDatabase() {
+        load();
+
+        BooksCriteria criteria = new BooksCriteria();
+        criteria.title().setContains("é");
+        assertThat(catalogSnapshot.findIds(criteria, PageRequest.of(0, 20))).isEmpty();
+        assertThat(catalogSnapshot.count(criteria)).isEmpty();
+        assertThat(meterRegistry.get("books.catalog.snapshot.queries").tag("outcome", "database").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldLeaveTheTitleSortsToTheDatabase() {
+        load();
+
+        assertThat(catalogSnapshot.findIds(new BooksCriteria(), PageRequest.of(0, 20, Sort.by("title")))).isEmpty();
+    }
+
+    @Test
+    void shouldApplyTheChanges() {
+        load();
+
+        catalogSnapshot.onBooksChanged(new BooksChangedEvent(1L, "Java Basics", 15.0, 30L));
+        catalogSnapshot.onBooksChanged(BooksChangedEvent.deleted(4L));
+        catalogSnapshot.onBooksChanged(new BooksChangedEvent(6L, "More Java", 60.0, 10L));
+
+        BooksCriteria criteria = new BooksCriteria();
+        criteria.authorId().setEquals(30L);
+        assertThat(ids(criteria, Pageable.unpaged())).containsExactly(1L, 5L);
+        criteria.authorId().setEquals(10L);
+        assertThat(ids(criteria, Pageable.unpaged())).containsExactly(3L, 6L);
+        assertThat(catalogSnapshot.count(new BooksCriteria())).hasValue(5);
+    }
+
+    @Test
+    void shouldApplyTheChangesCommittedDuringAReload() {
+        catalogSnapshot.reload(columns -> {
+            columns.put(1L, "Java", 10.0, 10L);
+            catalogSnapshot.onBooksChanged(new BooksChangedEvent(2L, "Spring", 20.0, 10L));
+            catalogSnapshot.onBooksChanged(BooksChangedEvent.deleted(1L));
+        });
+
+        assertThat(ids(new BooksCriteria(), Pageable.unpaged())).containsExactly(2L);
+    }
+
+    private void load() {
+        catalogSnapshot.reload(columns -> {
+            columns.put(1L, "Java Basics", 5.0, 10L);
+            columns.put(2L, "Advanced JAVA", 25.0, 20L);
+            columns.put(3L, "Gardening", 40.0, 10L);
+            columns.put(4L, "java puzzlers", 50.0, 20L);
+            columns.put(5L, "History", 15.0, 30L);
+        });
+    }
+
+    private List<Long> ids(BooksCriteria criteria, Pageable pageable) {
+        return catalogSnapshot.findIds(criteria, pageable).orElseThrow().getContent();
+    }
+}
@@ -0,0 +1,318 @@
+package com.book.app.service.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class PageQueryExecutorTest {
+
+    private static final Duration FORK_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Duration QUERY_TIMEOUT = Duration.ofSeconds(30);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldCountAfterAFullPage() {
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            false,
+            FORK_TIMEOUT,
+            QUERY_TIMEOUT
+        );
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        Page<Integer> page = pageQueryExecutor.getPage(
+            "Books",
+            PageRequest.of(1, 20),
+            () -> Collections.nCopies(20, 1),
+            () -> {
+                countThread.set(Thread.currentThread().getName());
+                return 75;
+            }
+        );
+
+        assertThat(page.getTotalElements()).isEqualTo(75);
+        assertThat(countThread.get()).isEqualTo(Thread.currentThread().getName());
+        assertThat(meterRegistry.get("books.query.page").tag("leg", "content").tag("mode", "serial").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("books.query.page").tag("leg", "count").tag("mode", "serial").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipTheCountOfAShortPage() {
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            false,
+            FORK_TIMEOUT,
+            QUERY_TIMEOUT
+        );
+        AtomicInteger counts = new AtomicInteger();
+
+        Page<Integer> page = pageQueryExecutor.getPage("Books", PageRequest.of(2, 20), () -> List.of(1, 2, 3), counts::incrementAndGet);
+
+        assertThat(page.getTotalElements()).isEqualTo(43);
+        assertThat(counts).hasValue(0);
+        assertThat(meterRegistry.get("books.query.count.skipped").tag("entity", "Books").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountInParallelInAReadOnlyTransaction() {
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            true,
+            FORK_TIMEOUT,
+            QUERY_TIMEOUT
+        );
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        Page<Integer> page = pageQueryExecutor.getPage(
+            "Books",
+            PageRequest.of(0, 20),
+            () -> Collections.nCopies(20, 1),
+            () -> {
+                countThread.set(Thread.currentThread().getName());
+                return 75;
+            }
+        );
+
+        assertThat(page.getTotalElements()).isEqualTo(75);
+        assertThat(countThread.get()).isNotEqualTo(Thread.currentThread().getName());
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly() && definition.getTimeout() == 30));
+        assertThat(meterRegistry.get("books.query.page").tag("leg", "content").tag("mode", "parallel").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("books.query.page").tag("leg", "count").tag("mode", "parallel").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCancelTheParallelCountOfAShortPage() throws InterruptedException {
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            true,
+            FORK_TIMEOUT,
+            QUERY_TIMEOUT
+        );
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        Page<Integer> page = pageQueryExecutor.getPage(
+            "Books",
+            PageRequest.of(0, 20),
+            () -> {
+                await(started);
+                return List.of(1, 2, 3);
+            },
+            () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 75;
+            }
+        );
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(meterRegistry.get("books.query.count.skipped").tag("entity", "Books").counter().count()).isEqualTo(1);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldRethrowTheFailureOfTheParallelCount() {
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            true,
+            FORK_TIMEOUT,
+            QUERY_TIMEOUT
+        );
+
+        assertThatThrownBy(() ->
+                pageQueryExecutor.getPage(
+                    "Books",
+                    PageRequest.of(0, 20),
+                    () -> Collections.nCopies(20, 1),
+                    () -> {
+                        throw new IllegalStateException("count failed");
+                    }
+                )
+            )
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("count failed");
+    }
+
+    @Test
+    void shouldCountOnTheCallingThreadWhenTheExecutorRejects() {
+        executor.shutdown();
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            true,
+            FORK_TIMEOUT,
+            QUERY_TIMEOUT
+        );
+
+        Page<Integer> page = pageQueryExecutor.getPage("Books", PageRequest.of(0, 20), () -> Collections.nCopies(20, 1), () -> 75);
+
+        assertThat(page.getTotalElements()).isEqualTo(75);
+        assertThat(meterRegistry.get("books.query.page").tag("leg", "count").tag("mode", "serial").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForkQueriesWhenThePagesAreCountedInParallel() {
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            true,
+            FORK_TIMEOUT,
+            QUERY_TIMEOUT
+        );
+
+        Supplier<String> thread = pageQueryExecutor.fork(
+            "books.query.facet",
+            Tags.of("facet", "test"),
+            () -> Thread.currentThread().getName()
+        );
+
+        assertThat(thread.get()).isNotEqualTo(Thread.currentThread().getName());
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly() && definition.getTimeout() == 30));
+        assertThat(meterRegistry.get("books.query.facet").tag("facet", "test").tag("mode", "parallel").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunForkedQueriesOnTheCallingThreadWhenThePagesAreCountedSerially() {
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            false,
+            FORK_TIMEOUT,
+            QUERY_TIMEOUT
+        );
+
+        Supplier<String> thread = pageQueryExecutor.fork(
+            "books.query.facet",
+            Tags.of("facet", "test"),
+            () -> Thread.currentThread().getName()
+        );
+
+        assertThat(thread.get()).isEqualTo(Thread.currentThread().getName());
+        verifyNoInteractions(transactionManager);
+        assertThat(meterRegistry.get("books.query.facet").tag("facet", "test").tag("mode", "serial").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunTheQueryOnTheCallingThreadWhenTheParallelOneDoesNotStartInTime() {
+        // the only thread of the executor is busy, as when the connections are all held by the callers
+        executor.execute(() -> await(release));
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            true,
+            Duration.ofMillis(50),
+            QUERY_TIMEOUT
+        );
+
+        Page<Integer> page = pageQueryExecutor.getPage("Books", PageRequest.of(0, 20), () -> Collections.nCopies(20, 1), () -> 75);
+        Supplier<String> thread = pageQueryExecutor.fork(
+            "books.query.facet",
+            Tags.of("facet", "test"),
+            () -> Thread.currentThread().getName()
+        );
+
+        assertThat(page.getTotalElements()).isEqualTo(75);
+        assertThat(thread.get()).isEqualTo(Thread.currentThread().getName());
+        assertThat(meterRegistry.get("books.query.fork.timeout").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("books.query.page").tag("leg", "count").tag("mode", "serial").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWaitForAParallelQueryWhichStartedInsteadOfRunningItAgain() {
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            executor,
+            transactionManager,
+            meterRegistry,
+            true,
+            Duration.ofMillis(50),
+            QUERY_TIMEOUT
+        );
+        AtomicInteger runs = new AtomicInteger();
+
+        Supplier<String> thread = pageQueryExecutor.fork(
+            "books.query.facet",
+            Tags.of("facet", "test"),
+            () -> {
+                runs.incrementAndGet();
+                sleep(Duration.ofMillis(200));
+                return Thread.currentThread().getName();
+            }
+        );
+
+        assertThat(thread.get()).isNotEqualTo(Thread.currentThread().getName());
+        assertThat(runs).hasValue(1);
+        assertThat(meterRegistry.find("books.query.fork.timeout").counter()).isNull();
+        assertThat(meterRegistry.find("books.query.facet").tag("mode", "serial").timer()).isNull();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.book.app.service.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.book.app.domain.Books;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.service.filter.DoubleFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Unit tests for the {@link QueryPlanCache} and the {@link QueryConditions}.
+ */
+class QueryPlanCacheTest {
+
+    private static final QueryPath ID = QueryPath.attribute("id");
+
+    private static final QueryPath TITLE = QueryPath.attribute("title");
+
+    private static final QueryPath PRICE = QueryPath.attribute("price");
+
+    private static final QueryPath AUTHOR_ID = QueryPath.foreignKey("author", "id");
+
+    private static final QueryPath AUTHOR_NAME = QueryPath.leftJoin("author", "name");
+
+    private static final QueryPath BOOKS_ID = QueryPath.exists("Books", "author", "id");
+
+    private EntityManager entityManager;
+
+    private TypedQuery<Books> query;
+
+    private TypedQuery<Long> countQuery;
+
+    private QueryPlanCache<Books> queryPlans;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        query = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Books.class))).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+        countQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(countQuery);
+        when(countQuery.getSingleResult()).thenReturn(0L);
+        PageQueryExecutor pageQueryExecutor = new PageQueryExecutor(
+            Runnable::run,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(),
+            false,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(30)
+        );
+        queryPlans = new QueryPlanCache<>(entityManager, Books.class, Set.of("id", "title", "price"), pageQueryExecutor);
+    }
+
+    @Test
+    void shouldCompileTheFiltersToParameterizedJpql() {
+        StringFilter title = new StringFilter();
+        title.setContains("java");
+        DoubleFilter price = new DoubleFilter();
+        price.setGreaterThan(10.0);
+        price.setLessThanOrEqual(50.0);
+        LongFilter authorId = new LongFilter();
+        authorId.setIn(List.of(1L, 2L));
+        QueryConditions conditions = new QueryConditions()
+            .distinct(true)
+            .stringFilter(TITLE, title)
+            .rangeFilter(PRICE, price)
+            .filter(AUTHOR_ID, authorId);
+
+        assertThat(queryPlans.selectJpql(conditions, Sort.by(Sort.Order.desc("price"), Sort.Order.asc("id"))))
+            .isEqualTo(
+                "select distinct e from Books e where upper(e.title) like ?1 and e.price > ?2 and e.price <= ?3 and e.author.id in (?4)" +
+                " order by e.price desc, e.id asc"
+            );
+        assertThat(queryPlans.countJpql(conditions))
+            .isEqualTo(
+                "select count(distinct e) from Books e where upper(e.title) like ?1 and e.price > ?2 and e.price <= ?3" +
+                " and e.author.id in (?4)"
+            );
+        assertThat(conditions.getConditions())
+            .extracting(QueryConditions.Condition::value)
+            .containsExactly("%JAVA%", 10.0, 50.0, List.of(1L, 2L));
+    }
+
+    @Test
+    void shouldKeepTheSemanticsOfTheQueryService() {
+        LongFilter id = new LongFilter();
+        id.setEquals(5L);
+        id.setGreaterThan(1L);
+        StringFilter title = new StringFilter();
+        title.setSpecified(false);
+        title.setNotEquals("java");
+
+        QueryConditions conditions = new QueryConditions().rangeFilter(ID, id).stringFilter(TITLE, title);
+
+        // equals wins over the other operators of a filter
+        assertThat(queryPlans.countJpql(conditions))
+            .isEqualTo("select count(e) from Books e where e.id = ?1 and not (e.title = ?2) and e.title is null");
+    }
+
+    @Test
+    void shouldDeclareEachJoinOnce() {
+        StringFilter name = new StringFilter();
+        name.setContains("a");
+        name.setDoesNotContain("b");
+
+        assertThat(queryPlans.countJpql(new QueryConditions().stringFilter(AUTHOR_NAME, name)))
+            .isEqualTo(
+                "select count(e) from Books e left join e.author author_ where upper(author_.name) like ?1" +
+                " and not (upper(author_.name) like ?2)"
+            );
+    }
+
+    @Test
+    void shouldGroupTheConditionsOfASemiJoinInOneExists() {
+        LongFilter booksId = new LongFilter();
+        booksId.setNotEquals(1L);
+        booksId.setNotIn(List.of(2L));
+        StringFilter title = new StringFilter();
+        title.setEquals("java");
+        QueryConditions conditions = new QueryConditions().filter(BOOKS_ID, booksId).stringFilter(TITLE, title);
+
+        // the parameters keep the order of the conditions
+        assertThat(queryPlans.countJpql(conditions))
+            .isEqualTo(
+                "select count(e) from Books e where exists (select 1 from Books books_ where books_.author = e" +
+                " and not (books_.id = ?1) and not (books_.id in (?2))) and e.title = ?3"
+            );
+    }
+
+    @Test
+    void shouldCheckAMissingSemiJoinWithNotExists() {
+        LongFilter missing = new LongFilter();
+        missing.setSpecified(false);
+        LongFilter present = new LongFilter();
+        present.setSpecified(true);
+
+        assertThat(queryPlans.countJpql(new QueryConditions().filter(BOOKS_ID, missing)))
+            .isEqualTo("select count(e) from Books e where not exists (select 1 from Books books_ where books_.author = e)");
+        assertThat(queryPlans.countJpql(new QueryConditions().filter(BOOKS_ID, present)))
+            .isEqualTo("select count(e) from Books e where exists (select 1 from Books books_ where books_.author = e)");
+    }
+
+    @Test
+    void shouldGroupTheMatchingEntities() {
+        QueryConditions conditions = conditionsWithTitle("java");
+
+        assertThat(queryPlans.aggregateJpql(conditions, "e.author.id, count(e)", "e.author.id", "count(e) desc, e.author.id"))
+            .isEqualTo(
+                "select e.author.id, count(e) from Books e where upper(e.title) like ?1 group by e.author.id" +
+                " order by count(e) desc, e.author.id"
+            );
+    }
+
+    @Test
+    void shouldReuseThePlanOfTheSameShape() {
+        queryPlans.findAll(conditionsWithTitle("java"), PageRequest.of(0, 20, Sort.by("id")));
+        queryPlans.findAll(conditionsWithTitle("spring"), PageRequest.of(0, 20, Sort.by("id")));
+
+        assertThat(queryPlans.size()).isEqualTo(1);
+        verify(query).setParameter(1, "%JAVA%");
+        verify(query).setParameter(1, "%SPRING%");
+
+        queryPlans.findAll(conditionsWithTitle("java"), PageRequest.of(0, 20, Sort.by("title")));
+        assertThat(queryPlans.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountBeyondTheFirstPage() {
+        when(countQuery.getSingleResult()).thenReturn(75L);
+
+        assertThat(queryPlans.findAll(conditionsWithTitle("java"), PageRequest.of(3, 20)).getTotalElements()).isEqualTo(75);
+        verify(query).setFirstResult(60);
+        verify(query).setMaxResults(20);
+        verify(countQuery).setParameter(1, "%JAVA%");
+    }
+
+    @Test
+    void shouldOnlySupportSortsOnTheGivenProperties() {
+        assertThat(queryPlans.supports(Sort.by("id", "title"))).isTrue();
+        assertThat(queryPlans.supports(Sort.unsorted())).isTrue();
+        assertThat(queryPlans.supports(Sort.by("author.name"))).isFalse();
+        assertThat(queryPlans.supports(Sort.by(Sort.Order.asc("title").ignoreCase()))).isFalse();
+    }
+
+    private static QueryConditions conditionsWithTitle(String value) {
+        StringFilter title = new StringFilter();
+        title.setContains(value);
+        return new QueryConditions().stringFilter(TITLE, title);
+    }
+}
@@ -0,0 +1,126 @@
+package com.book.app.service.query;
+
+import static com.book.app.jdbc.SqlStatisticsAssert.assertThatSql;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.book.app.IntegrationTest;
+import com.book.app.domain.Author;
+import com.book.app.domain.Books;
+import com.book.app.repository.AuthorRepository;
+import com.book.app.repository.BooksRepository;
+import com.book.app.service.AuthorQueryService;
+import com.book.app.service.BooksQueryService;
+import com.book.app.service.criteria.AuthorCriteria;
+import com.book.app.service.criteria.BooksCriteria;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the SQL the {@link QueryPlanCache plans} of the query services run on the database.
+ */
+@IntegrationTest
+@Transactional
+class QueryPlanSqlIT {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BooksRepository booksRepository;
+
+    @Autowired
+    private BooksQueryService booksQueryService;
+
+    @Autowired
+    private AuthorQueryService authorQueryService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Author writer;
+
+    private Author newcomer;
+
+    private Books first;
+
+    private Books second;
+
+    @BeforeEach
+    void initTest() {
+        writer = authorRepository.saveAndFlush(new Author().name("AAAAAAAAAA"));
+        newcomer = authorRepository.saveAndFlush(new Author().name("BBBBBBBBBB"));
+        first = booksRepository.saveAndFlush(new Books().title("AAAAAAAAAA").price(1.0).author(writer));
+        second = booksRepository.saveAndFlush(new Books().title("BBBBBBBBBB").price(2.0).author(writer));
+        em.clear();
+    }
+
+    @Test
+    void assertThatAuthorIdIsComparedOnTheForeignKey() {
+        BooksCriteria criteria = new BooksCriteria();
+        criteria.authorId().setEquals(writer.getId());
+
+        assertThatSql(() -> booksQueryService.findByCriteria(criteria, PageRequest.of(0, 20, Sort.by("id"))))
+            .hasStatementContaining("author_id=?")
+            .hasNoStatementContaining(" join ");
+        assertThat(booksQueryService.findByCriteria(criteria, PageRequest.of(0, 20))).hasSize(2);
+
+        criteria.authorId().setEquals(null);
+        criteria.authorId().setIn(List.of(writer.getId(), newcomer.getId()));
+        assertThatSql(() -> booksQueryService.countByCriteria(criteria))
+            .hasStatementContaining("author_id in")
+            .hasNoStatementContaining(" join ");
+        assertThat(booksQueryService.countByCriteria(criteria)).isEqualTo(2);
+    }
+
+    @Test
+    void assertThatBooksIdIsCheckedWithExists() {
+        AuthorCriteria criteria = new AuthorCriteria();
+        criteria.booksId().setIn(List.of(first.getId(), second.getId()));
+
+        assertThatSql(() -> authorQueryService.findByCriteria(criteria))
+            .hasStatementContaining("exists")
+            .hasNoStatementContaining(" join ")
+            .hasNoStatementContaining("distinct");
+        // one row per author, without distinct
+        assertThat(authorQueryService.findByCriteria(criteria)).extracting(Author::getId).containsExactly(writer.getId());
+    }
+
+    @Test
+    void assertThatMissingBooksAreCheckedWithNotExists() {
+        AuthorCriteria criteria = new AuthorCriteria();
+        criteria.booksId().setSpecified(false);
+
+        assertThatSql(() -> authorQueryService.findByCriteria(criteria))
+            .hasStatementContaining("not exists")
+            .hasNoStatementContaining(" join ");
+        assertThat(authorQueryService.findByCriteria(criteria))
+            .extracting(Author::getId)
+            .contains(newcomer.getId())
+            .doesNotContain(writer.getId());
+
+        criteria.booksId().setSpecified(true);
+        assertThat(authorQueryService.findByCriteria(criteria))
+            .extracting(Author::getId)
+            .contains(writer.getId())
+            .doesNotContain(newcomer.getId());
+    }
+
+    @Test
+    void assertThatTheConditionsOfASemiJoinApplyToTheSameBook() {
+        AuthorCriteria criteria = new AuthorCriteria();
+        criteria.booksId().setNotEquals(first.getId());
+        criteria.booksId().setNotIn(List.of(second.getId()));
+
+        // each book of the writer is excluded by one of the conditions
+        assertThat(authorQueryService.findByCriteria(criteria)).extracting(Author::getId).doesNotContain(writer.getId(), newcomer.getId());
+
+        criteria.booksId().setNotIn(List.of(first.getId() + second.getId()));
+        assertThat(authorQueryService.findByCriteria(criteria)).extracting(Author::getId).contains(writer.getId());
+    }
+}
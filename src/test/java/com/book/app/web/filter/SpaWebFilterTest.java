@@ -0,0 +1,128 @@
+package com.book.app.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the {@link SpaWebFilter} routing decision and its in-memory {@code index.html}.
+ */
+class SpaWebFilterTest {
+
+    private static final String INDEX_HTML = "<!doctype html><html><body><div id=\"root\"></div></body></html>";
+
+    private final SpaWebFilter filter = new SpaWebFilter();
+
+    @Test
+    void shouldMatchTheRoutesOfTheFormerPrefixAndPatternChecks() {
+        for (String path : new String[] { "/", "/books", "/books/1051/edit", "/apx", "/ap", "/v3", "/v3/api", "/books /1" }) {
+            assertThat(filter.isClientRoute(path, 0)).as(path).isEqualTo(formerDecision(path)).isTrue();
+        }
+        for (String path : new String[] { "", "books", "/api", "/api/books", "/apis", "/management-ui", "/v3/api-docs/x" }) {
+            assertThat(filter.isClientRoute(path, 0)).as(path).isEqualTo(formerDecision(path)).isFalse();
+        }
+        for (String path : new String[] { "/h2-console", "/main.js", "/content/logo.svg", "/books\n/1", "/books\u2028" }) {
+            assertThat(filter.isClientRoute(path, 0)).as(path).isEqualTo(formerDecision(path)).isFalse();
+        }
+    }
+
+    @Test
+    void shouldStripTheContextPath() {
+        assertThat(filter.isClientRoute("/books/books/1", "/books".length())).isTrue();
+        assertThat(filter.isClientRoute("/books/api/books", "/books".length())).isFalse();
+        assertThat(filter.isClientRoute("/books", "/books".length())).isFalse();
+    }
+
+    @Test
+    void shouldForwardClientRoutesToIndex() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/books/1"), response, failingChain());
+
+        assertThat(response.getForwardedUrl()).isEqualTo("/index.html");
+    }
+
+    @Test
+    void shouldPassOtherRequestsDownTheChain() throws Exception {
+        AtomicBoolean passed = new AtomicBoolean();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), response, (request, res) -> passed.set(true));
+
+        assertThat(passed).isTrue();
+        assertThat(response.getForwardedUrl()).isNull();
+    }
+
+    @Test
+    void shouldWriteIndexFromMemory() throws Exception {
+        SpaWebFilter inMemory = new SpaWebFilter(new ByteArrayResource(INDEX_HTML.getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        inMemory.doFilter(new MockHttpServletRequest("GET", "/books/1"), response, failingChain());
+
+        assertThat(response.getForwardedUrl()).isNull();
+        assertThat(response.getContentType()).isEqualTo("text/html;charset=UTF-8");
+        assertThat(response.getContentAsString()).isEqualTo(INDEX_HTML);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache");
+        assertThat(response.getHeader("ETag")).isNotBlank();
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForTheIndexETag() throws Exception {
+        SpaWebFilter inMemory = new SpaWebFilter(new ByteArrayResource(INDEX_HTML.getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        inMemory.doFilter(new MockHttpServletRequest("GET", "/"), first, failingChain());
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        inMemory.doFilter(request, response, failingChain());
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void shouldForwardWhenIndexIsMissing() throws Exception {
+        SpaWebFilter inMemory = new SpaWebFilter(new ClassPathResource("static/missing-index.html"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        inMemory.doFilter(new MockHttpServletRequest("GET", "/books/1"), response, failingChain());
+
+        assertThat(response.getForwardedUrl()).isEqualTo("/index.html");
+    }
+
+    @Test
+    void shouldForwardOtherMethodsThanGetAndHead() throws Exception {
+        SpaWebFilter inMemory = new SpaWebFilter(new ByteArrayResource(INDEX_HTML.getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        inMemory.doFilter(new MockHttpServletRequest("POST", "/books/1"), response, failingChain());
+
+        assertThat(response.getForwardedUrl()).isEqualTo("/index.html");
+    }
+
+    private static boolean formerDecision(String path) {
+        return (
+            !path.startsWith("/api") &&
+            !path.startsWith("/management") &&
+            !path.startsWith("/v3/api-docs") &&
+            !path.startsWith("/h2-console") &&
+            !path.contains(".") &&
+            path.matches("/(.*)")
+        );
+    }
+
+    private static FilterChain failingChain() {
+        return (request, response) -> {
+            throw new AssertionError("the request should not be passed down the chain");
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.book.app.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -10,7 +11,11 @@ import com.book.app.IntegrationTest;
 import com.book.app.domain.Author;
 import com.book.app.domain.Books;
 import com.book.app.repository.BooksRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -195,6 +200,86 @@ class BooksResourceIT {
             .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.doubleValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllBooksOrdersTheTiesById() throws Exception {
+        // Initialize the database
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(booksRepository.saveAndFlush(createEntity(em).price(123.45)).getId());
+        }
+
+        restBooksMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=price,asc&price.equals=123.45&size=2&page=0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(ids.get(0).intValue(), ids.get(1).intValue())));
+        restBooksMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=price,asc&price.equals=123.45&size=2&page=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(ids.get(2).intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksStreamed() throws Exception {
+        // Initialize the database
+        booksRepository.saveAndFlush(books);
+
+        // Get a page large enough to be written as its rows are read
+        restBooksMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&size=500&id.equals=" + books.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(books.getId().intValue()))
+            .andExpect(jsonPath("$.[0].title").value(DEFAULT_TITLE))
+            .andExpect(jsonPath("$.[0].price").value(DEFAULT_PRICE.doubleValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksAsCbor() throws Exception {
+        // Initialize the database
+        booksRepository.saveAndFlush(books);
+
+        // Get all the booksList
+        byte[] content = restBooksMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&id.equals=" + books.getId()).accept("application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        JsonNode booksList = new CBORMapper().readTree(content);
+        assertThat(booksList).hasSize(1);
+        assertThat(booksList.get(0).get("id").asLong()).isEqualTo(books.getId());
+        assertThat(booksList.get(0).get("title").asText()).isEqualTo(DEFAULT_TITLE);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksStreamedAsSmile() throws Exception {
+        // Initialize the database
+        booksRepository.saveAndFlush(books);
+
+        // Get a page large enough to be written as its rows are read
+        byte[] content = restBooksMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&size=500&id.equals=" + books.getId()).accept("application/x-jackson-smile"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-jackson-smile"))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        JsonNode booksList = new SmileMapper().readTree(content);
+        assertThat(booksList).hasSize(1);
+        assertThat(booksList.get(0).get("id").asLong()).isEqualTo(books.getId());
+        assertThat(booksList.get(0).get("title").asText()).isEqualTo(DEFAULT_TITLE);
+    }
+
     @Test
     @Transactional
     void getBooks() throws Exception {
@@ -407,6 +492,30 @@ class BooksResourceIT {
         defaultBooksShouldNotBeFound("authorId.equals=" + (authorId + 1));
     }
 
+    @Test
+    @Transactional
+    void getBooksFacets() throws Exception {
+        // Initialize the database
+        booksRepository.saveAndFlush(books);
+
+        // Get the facets of the books
+        restBooksMockMvc
+            .perform(get(ENTITY_API_URL + "/_facets?id.equals=" + books.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.authors.[*].authorId").value(hasItem(books.getAuthor().getId().intValue())))
+            .andExpect(jsonPath("$.authors.[*].count").value(hasItem(1)))
+            .andExpect(jsonPath("$.prices.[0].from").value(DEFAULT_PRICE))
+            .andExpect(jsonPath("$.prices.[0].to").value(DEFAULT_PRICE + 10))
+            .andExpect(jsonPath("$.prices.[0].count").value(1));
+
+        restBooksMockMvc
+            .perform(get(ENTITY_API_URL + "/_facets?id.equals=" + (books.getId() + 1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.authors").isEmpty())
+            .andExpect(jsonPath("$.prices").isEmpty());
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -575,6 +684,39 @@ class BooksResourceIT {
         assertThat(testBooks.getPrice()).isEqualTo(UPDATED_PRICE);
     }
 
+    @Test
+    @Transactional
+    void partialUpdateBooksWithCbor() throws Exception {
+        // Initialize the database
+        booksRepository.saveAndFlush(books);
+
+        // Update the books using partial update
+        Books partialUpdatedBooks = new Books();
+        partialUpdatedBooks.setId(books.getId());
+
+        partialUpdatedBooks.title(UPDATED_TITLE);
+
+        byte[] content = restBooksMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedBooks.getId())
+                    .with(csrf())
+                    .contentType("application/cbor")
+                    .accept("application/cbor")
+                    .content(new CBORMapper().writeValueAsBytes(partialUpdatedBooks))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        // Validate the Books in the response and in the database
+        assertThat(new CBORMapper().readTree(content).get("title").asText()).isEqualTo(UPDATED_TITLE);
+        Books testBooks = booksRepository.findById(books.getId()).orElseThrow();
+        assertThat(testBooks.getTitle()).isEqualTo(UPDATED_TITLE);
+        assertThat(testBooks.getPrice()).isEqualTo(DEFAULT_PRICE);
+    }
+
     @Test
     @Transactional
     void fullUpdateBooksWithPatch() throws Exception {
@@ -0,0 +1,53 @@
+const zlib = require('zlib');
+const { Compilation, sources } = require('webpack');
+
+const PLUGIN_NAME = 'PrecompressPlugin';
+
+/**
+ * Writes a gzip and a brotli copy next to each compressible asset (main.4b2f1c3d.js.gz, main.4b2f1c3d.js.br),
+ * which the backend serves as they are instead of compressing the bundle on every request.
+ */
+class PrecompressPlugin {
+  constructor({ test = /\.(js|css|svg|json|txt)$/, threshold = 1024, minRatio = 0.8 } = {}) {
+    this.test = test;
+    this.threshold = threshold;
+    this.minRatio = minRatio;
+  }
+
+  apply(compiler) {
+    compiler.hooks.thisCompilation.tap(PLUGIN_NAME, compilation => {
+      compilation.hooks.processAssets.tap({ name: PLUGIN_NAME, stage: Compilation.PROCESS_ASSETS_STAGE_OPTIMIZE_TRANSFER }, assets => {
+        for (const name of Object.keys(assets)) {
+          if (!this.test.test(name)) {
+            continue;
+          }
+          const content = compilation.getAsset(name).source.buffer();
+          if (content.length < this.threshold) {
+            continue;
+          }
+          this.emit(compilation, `${name}.gz`, content, zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }));
+          this.emit(
+            compilation,
+            `${name}.br`,
+            content,
+            zlib.brotliCompressSync(content, {
+              params: {
+                [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+                [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+              },
+            }),
+          );
+        }
+      });
+    });
+  }
+
+  emit(compilation, name, content, compressed) {
+    if (compressed.length / content.length > this.minRatio || compilation.getAsset(name)) {
+      return;
+    }
+    compilation.emitAsset(name, new sources.RawSource(compressed), { minimized: true });
+  }
+}
+
+module.exports = PrecompressPlugin;
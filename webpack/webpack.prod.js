@@ -7,6 +7,7 @@ const CssMinimizerPlugin = require('css-minimizer-webpack-plugin');
 const sass = require('sass');
 
 const utils = require('./utils.js');
+const PrecompressPlugin = require('./precompress.js');
 const commonConfig = require('./webpack.common.js');
 
 const ENV = 'production';
@@ -106,7 +107,8 @@ module.exports = async () =>
       new WorkboxPlugin.GenerateSW({
         clientsClaim: true,
         skipWaiting: true,
-        exclude: [/swagger-ui/],
+        exclude: [/swagger-ui/, /\.(gz|br)$/],
       }),
+      new PrecompressPlugin(),
     ],
   });